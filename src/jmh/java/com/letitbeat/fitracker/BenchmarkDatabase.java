@@ -0,0 +1,145 @@
+package com.letitbeat.fitracker;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.persist.PersistService;
+import com.google.inject.persist.UnitOfWork;
+import com.letitbeat.fitracker.ingest.SyntheticDataGenerator;
+import com.letitbeat.fitracker.ingest.SyntheticDataSpec;
+import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
+import com.letitbeat.fitracker.score.ScoreIndex;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * The application wired up against the in-memory HSQLDB, seeded with synthetic exercises of the
+ * past 4 weeks: {@link #users} users with {@link #exercisesPerUser} exercises each, the exercise
+ * types are drawn from the {@link #typeMix}.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+
+	public static final long FIRST_USER_ID = 100000L;
+
+	/**
+	 * Distribution of the exercise types.
+	 */
+	public enum TypeMix {
+		/**
+		 * All types are equally likely.
+		 */
+		UNIFORM,
+		/**
+		 * Most exercises are runs, which maximizes the same-type decay.
+		 */
+		SKEWED,
+		/**
+		 * Every exercise is a run.
+		 */
+		SINGLE;
+
+		/**
+		 * @return the same distribution as weights for the {@link SyntheticDataSpec}
+		 */
+		public Map<ExerciseType, Integer> getWeights() {
+			switch (this) {
+				case SKEWED:
+					final Map<ExerciseType, Integer> weights = new EnumMap<>(ExerciseType.class);
+					for (ExerciseType type : ExerciseType.values()) {
+						weights.put(type, type == ExerciseType.RUNNING ? 73 : 3);
+					}
+					return weights;
+				case SINGLE:
+					return Collections.singletonMap(ExerciseType.RUNNING, 1);
+				default:
+					return SyntheticDataSpec.uniformWeights();
+			}
+		}
+
+		public ExerciseType next(final Random random) {
+			final ExerciseType[] types = ExerciseType.values();
+			switch (this) {
+				case SKEWED:
+					return random.nextInt(10) < 7 ? ExerciseType.RUNNING : types[random.nextInt(types.length)];
+				case SINGLE:
+					return ExerciseType.RUNNING;
+				default:
+					return types[random.nextInt(types.length)];
+			}
+		}
+	}
+
+	@Param({"100", "1000"})
+	public int users;
+
+	@Param({"10", "100"})
+	public int exercisesPerUser;
+
+	@Param({"UNIFORM", "SKEWED"})
+	public TypeMix typeMix;
+
+	private Injector injector;
+
+	private UnitOfWork unitOfWork;
+
+	private List<Long> userIds;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		injector = Guice.createInjector(new RootModule());
+		unitOfWork = injector.getInstance(UnitOfWork.class);
+
+		userIds = new ArrayList<>(users);
+		for (long userId = FIRST_USER_ID; userId < FIRST_USER_ID + users; userId++) {
+			userIds.add(userId);
+		}
+
+		insertExercises(injector, users, exercisesPerUser, typeMix);
+	}
+
+	/**
+	 * Closes the persistence unit, otherwise the connection pool keeps the forked JVM alive.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		injector.getInstance(ScoreIndex.class).stop();
+		injector.getInstance(PersistService.class).stop();
+	}
+
+	public <T> T getInstance(final Class<T> type) {
+		return injector.getInstance(type);
+	}
+
+	public UnitOfWork getUnitOfWork() {
+		return unitOfWork;
+	}
+
+	public List<Long> getUserIds() {
+		return userIds;
+	}
+
+	/**
+	 * Inserts the exercises of the users from {@link #FIRST_USER_ID} with the
+	 * {@link SyntheticDataGenerator}. The exercises of a user are spread over the 27 days before now
+	 * without overlapping, so all of them are inside the score window while the benchmark runs.
+	 */
+	public static void insertExercises(final Injector injector, final int users, final int exercisesPerUser,
+			final TypeMix typeMix) {
+		injector.getInstance(SyntheticDataGenerator.class).generate(new SyntheticDataSpec()
+				.setFirstUserId(FIRST_USER_ID)
+				.setUsers(users)
+				.setExercisesPerUser(exercisesPerUser)
+				.setDays(27)
+				.setTypeWeights(typeMix.getWeights()));
+	}
+}
@@ -0,0 +1,82 @@
+package com.letitbeat.fitracker.activity;
+
+import com.letitbeat.fitracker.BenchmarkDatabase;
+import com.letitbeat.fitracker.jpa.dao.ExerciseDao;
+import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
+import com.letitbeat.fitracker.score.ScoreCalculator;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The score and the statistics of a single user calculated from the {@link ActivityStore}, to be
+ * compared with userScoreFromDatabase and getStats of the ExerciseServiceBenchmark. The files of
+ * all users are built during the setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ActivityStoreBenchmark {
+
+	private Path directory;
+
+	private ActivityStore activityStore;
+
+	private int cursor;
+
+	@Setup(Level.Trial)
+	public void setup(final BenchmarkDatabase database) throws IOException {
+		directory = Files.createTempDirectory("activity-store");
+		activityStore = new ActivityStore(() -> database.getInstance(ExerciseDao.class), directory);
+
+		for (Long userId : database.getUserIds()) {
+			activityStore.countByType(userId, 0);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		try (Stream<Path> files = Files.walk(directory)) {
+			files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+		}
+	}
+
+	@Benchmark
+	public double userScore(final BenchmarkDatabase database) {
+		final long windowStart = ScoreCalculator.windowStart(new Date()).getTime();
+		return activityStore.score(nextUserId(database), windowStart);
+	}
+
+	@Benchmark
+	public Map<ExerciseType, Long> countByType(final BenchmarkDatabase database) {
+		final long fromTime = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(30);
+		return activityStore.countByType(nextUserId(database), fromTime);
+	}
+
+	private Long nextUserId(final BenchmarkDatabase database) {
+		final List<Long> userIds = database.getUserIds();
+		cursor = (cursor + 1) % userIds.size();
+		return userIds.get(cursor);
+	}
+}
@@ -0,0 +1,61 @@
+package com.letitbeat.fitracker.jpa.dao;
+
+import com.letitbeat.fitracker.BenchmarkDatabase;
+import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Queries of the {@link ExerciseDao}, every invocation runs in its own unit of work like a REST
+ * request does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ExerciseDaoBenchmark {
+
+	private int cursor;
+
+	@Benchmark
+	public List<Exercise> findByTypeAndDate(final BenchmarkDatabase database) {
+		final Long userId = nextUserId(database);
+		final Date yesterday = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1));
+		database.getUnitOfWork().begin();
+		try {
+			return database.getInstance(ExerciseDao.class).findByTypeAndDate(userId, ExerciseType.RUNNING, yesterday);
+		} finally {
+			database.getUnitOfWork().end();
+		}
+	}
+
+	@Benchmark
+	public List<Exercise> findByTypeAndDateAllTypes(final BenchmarkDatabase database) {
+		final Long userId = nextUserId(database);
+		database.getUnitOfWork().begin();
+		try {
+			return database.getInstance(ExerciseDao.class).findByTypeAndDate(userId, null, null);
+		} finally {
+			database.getUnitOfWork().end();
+		}
+	}
+
+	private Long nextUserId(final BenchmarkDatabase database) {
+		final List<Long> userIds = database.getUserIds();
+		cursor = (cursor + 1) % userIds.size();
+		return userIds.get(cursor);
+	}
+}
@@ -0,0 +1,140 @@
+package com.letitbeat.fitracker.rest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
+import com.letitbeat.fitracker.BenchmarkDatabase;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writes an exercise list like the list endpoints and reads an exercise batch like the batch
+ * endpoint, through the Jersey providers of JSON, CBOR and Smile. The size of both payloads is
+ * printed once per trial, the allocated bytes per operation are reported by the gc profiler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BinaryFormatBenchmark {
+
+	private static final Type EXERCISE_LIST = new TypeReference<List<Exercise>>() {
+	}.getType();
+
+	private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+	@Param({"json", "cbor", "smile"})
+	private String format;
+
+	@Param({"100", "1000"})
+	private int listSize;
+
+	private MediaType mediaType;
+
+	private MessageBodyWriter<Object> writer;
+
+	private MessageBodyReader<Object> reader;
+
+	private List<Exercise> exercises;
+
+	private byte[] batch;
+
+	@Setup
+	public void setup() throws IOException {
+		switch (format) {
+		case "json":
+			final JacksonJsonProvider jsonProvider = new JacksonJsonProvider(ObjectMapperProvider.getObjectMapper());
+			mediaType = MediaType.APPLICATION_JSON_TYPE;
+			writer = jsonProvider;
+			reader = jsonProvider;
+			break;
+		case "cbor":
+			final CborProvider cborProvider = new CborProvider();
+			mediaType = MediaType.valueOf(ExerciseService.APPLICATION_CBOR);
+			writer = cborProvider;
+			reader = cborProvider;
+			break;
+		case "smile":
+			final SmileProvider smileProvider = new SmileProvider();
+			mediaType = MediaType.valueOf(ExerciseService.APPLICATION_SMILE);
+			writer = smileProvider;
+			reader = smileProvider;
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown format " + format);
+		}
+
+		final Random random = new Random(42);
+		final long now = System.currentTimeMillis();
+		final List<Exercise> newExercises = new ArrayList<>(listSize);
+		exercises = new ArrayList<>(listSize);
+		for (int i = 0; i < listSize; i++) {
+			final Exercise exercise = new Exercise();
+			exercise.setUserId(BenchmarkDatabase.FIRST_USER_ID);
+			exercise.setDescription("Benchmark");
+			exercise.setType(BenchmarkDatabase.TypeMix.UNIFORM.next(random));
+			exercise.setStartTime(new Date(now - TimeUnit.HOURS.toMillis(i)));
+			exercise.setDuration(600 + random.nextInt(3000));
+			exercise.setCalories(50 + random.nextInt(700));
+			exercise.setDistance(random.nextInt(20000));
+			newExercises.add(exercise);
+
+			final Exercise persisted = new Exercise();
+			persisted.setId((long) i + 1);
+			persisted.setUserId(exercise.getUserId());
+			persisted.setDescription(exercise.getDescription());
+			persisted.setType(exercise.getType());
+			persisted.setStartTime(exercise.getStartTime());
+			persisted.setDuration(exercise.getDuration());
+			persisted.setCalories(exercise.getCalories());
+			persisted.setDistance(exercise.getDistance());
+			exercises.add(persisted);
+		}
+
+		batch = write(newExercises);
+		System.out.println(String.format("%s payload of %d exercises: list %d bytes, batch %d bytes", format,
+				listSize, writeList().length, batch.length));
+	}
+
+	@Benchmark
+	public byte[] writeList() throws IOException {
+		return write(exercises);
+	}
+
+	@Benchmark
+	@SuppressWarnings("unchecked")
+	public Object readBatch() throws IOException {
+		return reader.readFrom((Class<Object>) (Class<?>) List.class, EXERCISE_LIST, NO_ANNOTATIONS, mediaType,
+				null, new ByteArrayInputStream(batch));
+	}
+
+	private byte[] write(final List<Exercise> value) throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		writer.writeTo(value, value.getClass(), EXERCISE_LIST, NO_ANNOTATIONS, mediaType, null, output);
+		return output.toByteArray();
+	}
+}
@@ -0,0 +1,111 @@
+package com.letitbeat.fitracker.rest;
+
+import com.letitbeat.fitracker.BenchmarkDatabase;
+import com.letitbeat.fitracker.jpa.dao.ExerciseDao;
+import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import com.letitbeat.fitracker.jpa.domain.ExerciseActivity;
+import com.letitbeat.fitracker.score.ScoreCalculator;
+import com.letitbeat.fitracker.score.ScoreIndex;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Single user operations of the {@link ExerciseServiceImpl}, every invocation runs in its own unit
+ * of work like a REST request does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ExerciseServiceBenchmark {
+
+	private int cursor;
+
+	@Benchmark
+	public double userScoreFromDatabase(final BenchmarkDatabase database) {
+		final Long userId = nextUserId(database);
+		database.getUnitOfWork().begin();
+		try {
+			final Date windowStart = ScoreCalculator.windowStart(new Date());
+			final List<ExerciseActivity> activities = database.getInstance(ExerciseDao.class)
+					.findByDate(userId, windowStart).stream()
+					.map(ExerciseActivity::of)
+					.sorted(ScoreCalculator.NEWEST_FIRST)
+					.collect(Collectors.toList());
+			return ScoreCalculator.calculate(activities);
+		} finally {
+			database.getUnitOfWork().end();
+		}
+	}
+
+	@Benchmark
+	public double userScoreFromProjection(final BenchmarkDatabase database) {
+		final Long userId = nextUserId(database);
+		database.getUnitOfWork().begin();
+		try {
+			final Date windowStart = ScoreCalculator.windowStart(new Date());
+			final List<ExerciseActivity> activities = database.getInstance(ExerciseDao.class)
+					.findActivitiesByUserIdsAndDate(Collections.singletonList(userId), windowStart)
+					.getOrDefault(userId, Collections.emptyList());
+			return ScoreCalculator.calculate(activities);
+		} finally {
+			database.getUnitOfWork().end();
+		}
+	}
+
+	@Benchmark
+	public Map<Long, Double> userScoreFromIndex(final BenchmarkDatabase database) {
+		return database.getInstance(ScoreIndex.class).getScores(Collections.singletonList(nextUserId(database)));
+	}
+
+	@Benchmark
+	public Map<ExerciseType, Long> getStats(final BenchmarkDatabase database) {
+		final Long userId = nextUserId(database);
+		database.getUnitOfWork().begin();
+		try {
+			return database.getInstance(ExerciseServiceImpl.class).getStats(userId);
+		} finally {
+			database.getUnitOfWork().end();
+		}
+	}
+
+	@Benchmark
+	public Exercise validateTimespan(final BenchmarkDatabase database) {
+		final Exercise exercise = new Exercise();
+		exercise.setUserId(nextUserId(database));
+		exercise.setType(ExerciseType.RUNNING);
+		exercise.setDuration(600);
+		// lies in the gap between the two newest seeded exercises, so the check passes
+		exercise.setStartTime(new Date(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(90)));
+
+		database.getUnitOfWork().begin();
+		try {
+			database.getInstance(ExerciseServiceImpl.class).validateTimespan(exercise);
+			return exercise;
+		} finally {
+			database.getUnitOfWork().end();
+		}
+	}
+
+	private Long nextUserId(final BenchmarkDatabase database) {
+		final List<Long> userIds = database.getUserIds();
+		cursor = (cursor + 1) % userIds.size();
+		return userIds.get(cursor);
+	}
+}
@@ -0,0 +1,112 @@
+package com.letitbeat.fitracker.rest;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.letitbeat.fitracker.BenchmarkDatabase;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serialization of exercise lists the way the Jersey Jackson provider does it: the mapper is
+ * resolved through the {@link ObjectMapperProvider} for every response.
+ *
+ * The {@code perResponseMapper} benchmarks reproduce the former provider, which created a new
+ * indenting mapper with bean serializers for every response, the others use the shared compact
+ * mapper with the streaming serializers. The allocated bytes per operation are reported by the gc
+ * profiler, the size of the JSON is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonSerializationBenchmark {
+
+	@Param({"10", "100", "1000"})
+	private int listSize;
+
+	private final ObjectMapperProvider objectMapperProvider = new ObjectMapperProvider();
+
+	private List<Exercise> exercises;
+
+	private byte[] json;
+
+	@Setup
+	public void setup() {
+		final Random random = new Random(42);
+		final long now = System.currentTimeMillis();
+
+		exercises = new ArrayList<>(listSize);
+		for (int i = 0; i < listSize; i++) {
+			final Exercise exercise = new Exercise();
+			exercise.setId((long) i + 1);
+			exercise.setUserId(BenchmarkDatabase.FIRST_USER_ID);
+			exercise.setDescription("Benchmark");
+			exercise.setType(BenchmarkDatabase.TypeMix.UNIFORM.next(random));
+			exercise.setStartTime(new Date(now - TimeUnit.HOURS.toMillis(i)));
+			exercise.setDuration(600 + random.nextInt(3000));
+			exercise.setCalories(50 + random.nextInt(700));
+			exercise.setDistance(random.nextInt(20000));
+			exercises.add(exercise);
+		}
+
+		try {
+			json = serializeList();
+			System.out.println(String.format("JSON of %d exercises: %d bytes compact, %d bytes per response mapper",
+					listSize, json.length, serializeListPerResponseMapper().length));
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Benchmark
+	public byte[] serializeList() throws JsonProcessingException {
+		return objectMapperProvider.getContext(List.class).writeValueAsBytes(exercises);
+	}
+
+	@Benchmark
+	public byte[] serializeListPerResponseMapper() throws JsonProcessingException {
+		return newPerResponseMapper().writeValueAsBytes(exercises);
+	}
+
+	@Benchmark
+	public List<Exercise> deserializeList() throws IOException {
+		return objectMapperProvider.getContext(List.class).readValue(json, new TypeReference<List<Exercise>>() {
+		});
+	}
+
+	@Benchmark
+	public List<Exercise> deserializeListPerResponseMapper() throws IOException {
+		return newPerResponseMapper().readValue(json, new TypeReference<List<Exercise>>() {
+		});
+	}
+
+	private static ObjectMapper newPerResponseMapper() {
+		final ObjectMapper result = new ObjectMapper();
+		result.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		result.configure(SerializationFeature.INDENT_OUTPUT, true);
+		result.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+		return result;
+	}
+}
@@ -0,0 +1,147 @@
+package com.letitbeat.fitracker.rest;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.persist.PersistService;
+import com.google.inject.persist.UnitOfWork;
+import com.letitbeat.fitracker.BenchmarkDatabase;
+import com.letitbeat.fitracker.RootModule;
+import com.letitbeat.fitracker.jpa.dao.ExerciseDao;
+import com.letitbeat.fitracker.jpa.domain.ExerciseActivity;
+import com.letitbeat.fitracker.score.ScoreCalculator;
+import com.letitbeat.fitracker.score.ScoreIndex;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the latency of the ranking calculation for a growing number of user ids: one query per
+ * user (the former implementation), the chunked set-based query of
+ * {@link ExerciseDao#findActivitiesByUserIdsAndDate} and the lookup of the precomputed {@link ScoreIndex}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class RankingBenchmark {
+
+	private static final int EXERCISES_PER_USER = 10;
+
+	@Param({"10", "100", "1000"})
+	private int userCount;
+
+	private ExerciseServiceImpl exerciseService;
+
+	private ExerciseDao exerciseDao;
+
+	private PersistService persistService;
+
+	private ScoreIndex scoreIndex;
+
+	private UnitOfWork unitOfWork;
+
+	private List<Long> userIds;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		final Injector injector = Guice.createInjector(new RootModule());
+		exerciseService = injector.getInstance(ExerciseServiceImpl.class);
+		exerciseDao = injector.getInstance(ExerciseDao.class);
+		persistService = injector.getInstance(PersistService.class);
+		scoreIndex = injector.getInstance(ScoreIndex.class);
+		unitOfWork = injector.getInstance(UnitOfWork.class);
+
+		userIds = new ArrayList<>(userCount);
+		for (int i = 0; i < userCount; i++) {
+			userIds.add(BenchmarkDatabase.FIRST_USER_ID + i);
+		}
+
+		BenchmarkDatabase.insertExercises(injector, userCount, EXERCISES_PER_USER, BenchmarkDatabase.TypeMix.UNIFORM);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		scoreIndex.stop();
+		persistService.stop();
+	}
+
+	@Benchmark
+	public List<Long> queryPerUser() {
+		unitOfWork.begin();
+		try {
+			final Date initDate = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(30));
+			final Map<Long, Double> scoreByUser = new HashMap<>();
+
+			for (Long userId : userIds) {
+				final List<ExerciseActivity> userActivities = exerciseDao.findByDate(userId, initDate).stream()
+						.map(ExerciseActivity::of)
+						.sorted(ScoreCalculator.NEWEST_FIRST)
+						.collect(Collectors.toList());
+				final double score = ScoreCalculator.calculate(userActivities);
+				if (score > 0) {
+					scoreByUser.put(userId, score);
+				}
+			}
+
+			return sortByScore(scoreByUser);
+		} finally {
+			unitOfWork.end();
+		}
+	}
+
+	@Benchmark
+	public List<Long> setBasedQuery() {
+		unitOfWork.begin();
+		try {
+			final Date initDate = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(30));
+			final Map<Long, Double> scoreByUser = new HashMap<>();
+
+			exerciseDao.findActivitiesByUserIdsAndDate(userIds, initDate).forEach((userId, userActivities) -> {
+				final double score = ScoreCalculator.calculate(userActivities);
+				if (score > 0) {
+					scoreByUser.put(userId, score);
+				}
+			});
+
+			return sortByScore(scoreByUser);
+		} finally {
+			unitOfWork.end();
+		}
+	}
+
+	@Benchmark
+	public List<Long> scoreIndex() {
+		unitOfWork.begin();
+		try {
+			return exerciseService.getRanking(userIds);
+		} finally {
+			unitOfWork.end();
+		}
+	}
+
+	private static List<Long> sortByScore(final Map<Long, Double> scoreByUser) {
+		return scoreByUser.entrySet().stream()
+				.sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,73 @@
+package com.letitbeat.fitracker.score;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.persist.PersistService;
+import com.google.inject.persist.UnitOfWork;
+import com.letitbeat.fitracker.BenchmarkDatabase;
+import com.letitbeat.fitracker.RootModule;
+import com.letitbeat.fitracker.jpa.dao.ExerciseDao;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loads the score window of all users into the {@link ScoreIndex} with a growing number of
+ * threads. A parallelism of 1 is the single query load, above 1 the users are partitioned and
+ * scored on a ForkJoin pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ScoreIndexLoadBenchmark {
+
+	private static final int EXERCISES_PER_USER = 10;
+
+	@Param({"50000"})
+	private int userCount;
+
+	@Param({"1", "2", "4", "8"})
+	private int parallelism;
+
+	private PersistService persistService;
+
+	private ScoreIndex scoreIndex;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		final Injector injector = Guice.createInjector(new RootModule());
+		persistService = injector.getInstance(PersistService.class);
+		final UnitOfWork unitOfWork = injector.getInstance(UnitOfWork.class);
+
+		BenchmarkDatabase.insertExercises(injector, userCount, EXERCISES_PER_USER, BenchmarkDatabase.TypeMix.UNIFORM);
+
+		scoreIndex = new ScoreIndex(injector.getInstance(ExerciseDao.class), new Leaderboard(), unitOfWork,
+				parallelism);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		scoreIndex.stop();
+		persistService.stop();
+	}
+
+	@Benchmark
+	public int load() {
+		scoreIndex.reload();
+		return scoreIndex.getLeaderboard().size();
+	}
+}
@@ -0,0 +1,68 @@
+package com.letitbeat.fitracker.loadtest;
+
+import java.nio.file.Path;
+import javax.annotation.Nonnull;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.webapp.WebAppContext;
+
+/**
+ * Runs the WAR in an embedded Jetty on localhost, with the web.xml of the application like in a
+ * standalone servlet container.
+ */
+class EmbeddedServer implements AutoCloseable {
+
+	private final Server server;
+
+	private final ServerConnector connector;
+
+	/**
+	 * Starts the server and waits until the application is deployed.
+	 *
+	 * @param war the WAR file of the application
+	 * @param port the port to listen on, 0 for a free port
+	 * @throws Exception if the server or the application could not be started
+	 */
+	EmbeddedServer(@Nonnull final Path war, final int port) throws Exception {
+		server = new Server();
+		connector = new ServerConnector(server);
+		connector.setHost("127.0.0.1");
+		connector.setPort(port);
+		server.addConnector(connector);
+
+		final WebAppContext webApp = new WebAppContext();
+		webApp.setContextPath("/");
+		webApp.setWar(war.toString());
+		webApp.setThrowUnavailableOnStartupException(true);
+		server.setHandler(webApp);
+
+		try {
+			server.start();
+		} catch (Exception e) {
+			// the threads of a half started server would keep the JVM alive
+			server.stop();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return the base URL of the application, e.g. http://127.0.0.1:8080
+	 */
+	@Nonnull
+	String getBaseUrl() {
+		return "http://127.0.0.1:" + connector.getLocalPort();
+	}
+
+	/**
+	 * Stops the server. Declares no checked exception, as AutoCloseable.close() may throw an
+	 * InterruptedException which a try-with-resources would have to handle.
+	 */
+	@Override
+	public void close() {
+		try {
+			server.stop();
+		} catch (Exception e) {
+			throw new IllegalStateException("Cannot stop the embedded server", e);
+		}
+	}
+}
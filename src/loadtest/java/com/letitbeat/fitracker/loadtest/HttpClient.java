@@ -0,0 +1,59 @@
+package com.letitbeat.fitracker.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Minimal blocking HTTP client on the connections of the JDK, which are kept alive and reused per
+ * host as long as every response body is read completely.
+ */
+class HttpClient {
+
+	private static final int TIMEOUT_MILLIS = 30000;
+
+	private final String baseUrl;
+
+	HttpClient(@Nonnull final String baseUrl) {
+		this.baseUrl = baseUrl;
+	}
+
+	/**
+	 * @param method the HTTP method
+	 * @param path the path below the base URL, including the query
+	 * @param json the JSON request body or null
+	 * @return the status code of the response, the body is discarded
+	 * @throws IOException if the request could not be sent or the response could not be read
+	 */
+	int send(@Nonnull final String method, @Nonnull final String path, @Nullable final byte[] json)
+			throws IOException {
+		final HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+		connection.setRequestMethod(method);
+		connection.setConnectTimeout(TIMEOUT_MILLIS);
+		connection.setReadTimeout(TIMEOUT_MILLIS);
+		connection.setRequestProperty("Accept", "application/json");
+		if (json != null) {
+			connection.setDoOutput(true);
+			connection.setRequestProperty("Content-Type", "application/json");
+			connection.setFixedLengthStreamingMode(json.length);
+			try (OutputStream output = connection.getOutputStream()) {
+				output.write(json);
+			}
+		}
+
+		final int status = connection.getResponseCode();
+		try (InputStream input = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+			if (input != null) {
+				final byte[] buffer = new byte[8192];
+				while (input.read(buffer) >= 0) {
+					// the connection is only reused once the body was read
+				}
+			}
+		}
+		return status;
+	}
+}
@@ -0,0 +1,193 @@
+package com.letitbeat.fitracker.loadtest;
+
+import com.letitbeat.fitracker.metrics.LatencyHistogram;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Closed-loop load: every thread sends its next request as soon as the previous response was read,
+ * so the throughput is limited by the latency of the application and not by an arrival rate. The
+ * operation of every request is drawn from the weighted mix.
+ *
+ * The latencies are recorded after the warmup, per operation and in total. A request with a status
+ * of 400 or above or without response is counted as error and not recorded.
+ */
+class LoadGenerator {
+
+	private static final Logger log = LoggerFactory.getLogger(LoadGenerator.class);
+
+	private static final int RANKING_USERS = 10;
+
+	enum Operation {
+		CREATE,
+		LIST,
+		RANKING,
+		STATS
+	}
+
+	private final HttpClient client;
+
+	private final SyntheticDataset dataset;
+
+	private final Map<Operation, Integer> mix;
+
+	private final int totalWeight;
+
+	private final int threads;
+
+	private final long seed;
+
+	private final Map<Operation, LatencyHistogram> histograms = new EnumMap<>(Operation.class);
+
+	private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+	private final LatencyHistogram total = new LatencyHistogram();
+
+	private volatile boolean measuring;
+
+	private volatile boolean stopped;
+
+	/**
+	 * @param client the client of the application
+	 * @param dataset the seeded users
+	 * @param mix the weight of every operation, operations without weight are not sent
+	 * @param threads the number of concurrent clients
+	 * @param seed the seed of the random operations, every thread uses its own sequence
+	 */
+	LoadGenerator(@Nonnull final HttpClient client, @Nonnull final SyntheticDataset dataset,
+			@Nonnull final Map<Operation, Integer> mix, final int threads, final long seed) {
+		this.client = client;
+		this.dataset = dataset;
+		this.mix = new EnumMap<>(mix);
+		this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+		this.threads = threads;
+		this.seed = seed;
+		if (totalWeight <= 0) {
+			throw new IllegalArgumentException("The operation mix has no positive weight: " + mix);
+		}
+		for (Operation operation : Operation.values()) {
+			histograms.put(operation, new LatencyHistogram());
+			errors.put(operation, new LongAdder());
+		}
+	}
+
+	/**
+	 * Runs the load and waits until all threads finished their last request.
+	 *
+	 * @param warmupNanos time before the latencies are recorded
+	 * @param durationNanos time the latencies are recorded
+	 * @return the measured time in nanoseconds
+	 * @throws InterruptedException if the calling thread is interrupted
+	 */
+	long run(final long warmupNanos, final long durationNanos) throws InterruptedException {
+		final List<Thread> workers = new ArrayList<>(threads);
+		for (int i = 0; i < threads; i++) {
+			final Random random = new Random(seed + i);
+			final Thread worker = new Thread(() -> loop(random), "load-" + i);
+			worker.setDaemon(true);
+			workers.add(worker);
+			worker.start();
+		}
+
+		TimeUnit.NANOSECONDS.sleep(warmupNanos);
+		measuring = true;
+		final long start = System.nanoTime();
+		TimeUnit.NANOSECONDS.sleep(durationNanos);
+		measuring = false;
+		final long measured = System.nanoTime() - start;
+		stopped = true;
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		return measured;
+	}
+
+	/**
+	 * @param operation the operation
+	 * @return the latencies of the successful requests after the warmup
+	 */
+	@Nonnull
+	LatencyHistogram getHistogram(@Nonnull final Operation operation) {
+		return histograms.get(operation);
+	}
+
+	/**
+	 * @param operation the operation
+	 * @return the number of failed requests after the warmup
+	 */
+	long getErrors(@Nonnull final Operation operation) {
+		return errors.get(operation).sum();
+	}
+
+	/**
+	 * @return the latencies of all successful requests after the warmup
+	 */
+	@Nonnull
+	LatencyHistogram getTotalHistogram() {
+		return total;
+	}
+
+	private void loop(@Nonnull final Random random) {
+		while (!stopped) {
+			final Operation operation = nextOperation(random);
+			final long start = System.nanoTime();
+			boolean success;
+			try {
+				success = send(operation, random) < 400;
+			} catch (IOException e) {
+				log.debug(String.format("%s failed: %s", operation, e));
+				success = false;
+			}
+			final long latency = System.nanoTime() - start;
+			if (measuring) {
+				if (success) {
+					histograms.get(operation).record(latency);
+					total.record(latency);
+				} else {
+					errors.get(operation).increment();
+				}
+			}
+		}
+	}
+
+	@Nonnull
+	private Operation nextOperation(@Nonnull final Random random) {
+		int value = random.nextInt(totalWeight);
+		for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+			value -= entry.getValue();
+			if (value < 0) {
+				return entry.getKey();
+			}
+		}
+		throw new IllegalStateException("No operation for the mix " + mix);
+	}
+
+	private int send(@Nonnull final Operation operation, @Nonnull final Random random) throws IOException {
+		switch (operation) {
+			case CREATE:
+				return client.send("POST", "/rest/api/v1/exercise", dataset.newExerciseJson(random));
+			case LIST:
+				return client.send("GET", "/rest/api/v1/exercise/user/" + dataset.randomUserId(random), null);
+			case RANKING:
+				final StringBuilder query = new StringBuilder("/rest/api/v1/exercise/ranking");
+				for (int i = 0; i < RANKING_USERS; i++) {
+					query.append(i == 0 ? '?' : '&').append("userIds=").append(dataset.randomUserId(random));
+				}
+				return client.send("GET", query.toString(), null);
+			case STATS:
+				return client.send("GET", "/rest/api/v1/exercise/user/" + dataset.randomUserId(random) + "/stats",
+						null);
+			default:
+				throw new IllegalArgumentException("Unknown operation " + operation);
+		}
+	}
+}
@@ -0,0 +1,205 @@
+package com.letitbeat.fitracker.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.letitbeat.fitracker.loadtest.LoadGenerator.Operation;
+import com.letitbeat.fitracker.metrics.LatencyHistogram;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Starts the WAR in an embedded Jetty, seeds a {@link SyntheticDataset} and drives a
+ * {@link LoadGenerator} against it. The throughput and the 50th and 99th percentile latency per
+ * operation are printed and written to a JSON report with sorted keys, which can be diffed between
+ * builds. The run fails if any request failed. Run it with {@code ./gradlew loadTest}, the settings
+ * are system properties:
+ *
+ * <ul>
+ * <li>{@value #WAR_PROPERTY}: the WAR file (required)</li>
+ * <li>{@value #PORT_PROPERTY}: the port of the server (default: a free port)</li>
+ * <li>{@value #USERS_PROPERTY}: number of seeded users (default 1000)</li>
+ * <li>{@value #EXERCISES_PER_USER_PROPERTY}: seeded exercises per user (default 20)</li>
+ * <li>{@value #THREADS_PROPERTY}: concurrent clients (default 16)</li>
+ * <li>{@value #WARMUP_SECONDS_PROPERTY}: time before the latencies are recorded (default 10)</li>
+ * <li>{@value #DURATION_SECONDS_PROPERTY}: time the latencies are recorded (default 30)</li>
+ * <li>{@value #MIX_PROPERTY}: weights of the operations (default {@value #DEFAULT_MIX})</li>
+ * <li>{@value #SEED_PROPERTY}: seed of the dataset and the operations (default 42)</li>
+ * <li>{@value #REPORT_PROPERTY}: the JSON report file (default: no report)</li>
+ * </ul>
+ */
+public final class LoadTest {
+
+	private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+	public static final String WAR_PROPERTY = "loadtest.war";
+
+	public static final String PORT_PROPERTY = "loadtest.port";
+
+	public static final String USERS_PROPERTY = "loadtest.users";
+
+	public static final String EXERCISES_PER_USER_PROPERTY = "loadtest.exercisesPerUser";
+
+	public static final String THREADS_PROPERTY = "loadtest.threads";
+
+	public static final String WARMUP_SECONDS_PROPERTY = "loadtest.warmupSeconds";
+
+	public static final String DURATION_SECONDS_PROPERTY = "loadtest.durationSeconds";
+
+	public static final String MIX_PROPERTY = "loadtest.mix";
+
+	public static final String SEED_PROPERTY = "loadtest.seed";
+
+	public static final String REPORT_PROPERTY = "loadtest.report";
+
+	public static final String DEFAULT_MIX = "create=10,list=40,ranking=20,stats=30";
+
+	private LoadTest() {
+	}
+
+	/**
+	 * Exits with 1 if the application could not be started or any request failed.
+	 */
+	public static void main(final String[] args) {
+		int status;
+		try {
+			final long errors = run();
+			if (errors > 0) {
+				log.error(String.format("%d requests failed", errors));
+			}
+			status = errors > 0 ? 1 : 0;
+		} catch (Exception e) {
+			log.error("The load test failed", e);
+			status = 1;
+		}
+		// threads left behind by the application must not keep the JVM alive
+		System.exit(status);
+	}
+
+	/**
+	 * @return the number of failed requests
+	 */
+	private static long run() throws Exception {
+		final String war = System.getProperty(WAR_PROPERTY);
+		if (war == null) {
+			throw new IllegalArgumentException("The WAR file is missing, set -D" + WAR_PROPERTY);
+		}
+		final int users = Integer.getInteger(USERS_PROPERTY, 1000);
+		final int exercisesPerUser = Integer.getInteger(EXERCISES_PER_USER_PROPERTY, 20);
+		final int threads = Integer.getInteger(THREADS_PROPERTY, 16);
+		final int warmupSeconds = Integer.getInteger(WARMUP_SECONDS_PROPERTY, 10);
+		final int durationSeconds = Integer.getInteger(DURATION_SECONDS_PROPERTY, 30);
+		final String mixProperty = System.getProperty(MIX_PROPERTY, DEFAULT_MIX);
+		final Map<Operation, Integer> mix = parseMix(mixProperty);
+		final long seed = Long.getLong(SEED_PROPERTY, 42);
+
+		final SyntheticDataset dataset = new SyntheticDataset(users, exercisesPerUser, seed);
+		dataset.configureApplication();
+
+		final long startupStart = System.nanoTime();
+		try (EmbeddedServer server = new EmbeddedServer(Paths.get(war), Integer.getInteger(PORT_PROPERTY, 0))) {
+			log.info(String.format("Started the application with %d exercises of %d users in %d ms",
+					users * exercisesPerUser, users, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startupStart)));
+
+			final HttpClient client = new HttpClient(server.getBaseUrl());
+
+			final LoadGenerator generator = new LoadGenerator(client, dataset, mix, threads, seed);
+			final long measuredNanos = generator.run(TimeUnit.SECONDS.toNanos(warmupSeconds),
+					TimeUnit.SECONDS.toNanos(durationSeconds));
+
+			final Map<String, Object> configuration = new LinkedHashMap<>();
+			configuration.put("users", users);
+			configuration.put("exercisesPerUser", exercisesPerUser);
+			configuration.put("threads", threads);
+			configuration.put("warmupSeconds", warmupSeconds);
+			configuration.put("durationSeconds", durationSeconds);
+			configuration.put("mix", mixProperty);
+			configuration.put("seed", seed);
+
+			final Map<String, Object> operations = new LinkedHashMap<>();
+			long totalErrors = 0;
+			for (Operation operation : mix.keySet()) {
+				operations.put(operation.name().toLowerCase(Locale.ROOT),
+						summary(generator.getHistogram(operation), generator.getErrors(operation), measuredNanos));
+				totalErrors += generator.getErrors(operation);
+			}
+
+			final Map<String, Object> report = new LinkedHashMap<>();
+			report.put("configuration", configuration);
+			report.put("operations", operations);
+			report.put("total", summary(generator.getTotalHistogram(), totalErrors, measuredNanos));
+
+			final ObjectMapper objectMapper = new ObjectMapper()
+					.enable(SerializationFeature.INDENT_OUTPUT)
+					.enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+			System.out.println(objectMapper.writeValueAsString(report));
+
+			final String reportFile = System.getProperty(REPORT_PROPERTY);
+			if (reportFile != null) {
+				writeReport(objectMapper, report, Paths.get(reportFile));
+			}
+			return totalErrors;
+		}
+	}
+
+	/**
+	 * @param mix the weights of the operations, e.g. {@value #DEFAULT_MIX}
+	 * @return the weight of every operation in the mix
+	 * @throws IllegalArgumentException if an operation or weight is invalid
+	 */
+	@Nonnull
+	static Map<Operation, Integer> parseMix(@Nonnull final String mix) {
+		final Map<Operation, Integer> result = new EnumMap<>(Operation.class);
+		for (String entry : mix.split(",")) {
+			final String[] parts = entry.trim().split("=");
+			if (parts.length != 2) {
+				throw new IllegalArgumentException("Invalid operation weight, expected name=weight: " + entry);
+			}
+			final int weight = Integer.parseInt(parts[1].trim());
+			if (weight < 0) {
+				throw new IllegalArgumentException("Negative operation weight: " + entry);
+			}
+			if (weight > 0) {
+				result.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), weight);
+			}
+		}
+		return result;
+	}
+
+	@Nonnull
+	private static Map<String, Object> summary(@Nonnull final LatencyHistogram histogram, final long errors,
+			final long measuredNanos) {
+		final Map<String, Object> result = new LinkedHashMap<>();
+		result.put("requests", histogram.getCount());
+		result.put("errors", errors);
+		result.put("throughputPerSecond", round(histogram.getCount() / (measuredNanos / 1e9)));
+		result.put("p50Millis", millis(histogram.getValueAtPercentile(50)));
+		result.put("p99Millis", millis(histogram.getValueAtPercentile(99)));
+		result.put("maxMillis", millis(histogram.getMax()));
+		return result;
+	}
+
+	private static double millis(final long nanos) {
+		return round(nanos / 1e6);
+	}
+
+	private static double round(final double value) {
+		return Math.round(value * 1000) / 1000.0;
+	}
+
+	private static void writeReport(@Nonnull final ObjectMapper objectMapper, @Nonnull final Map<String, Object> report,
+			@Nonnull final Path file) throws IOException {
+		Files.createDirectories(file.toAbsolutePath().getParent());
+		objectMapper.writeValue(file.toFile(), report);
+		log.info(String.format("Wrote the report to %s", file));
+	}
+}
@@ -0,0 +1,101 @@
+package com.letitbeat.fitracker.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.letitbeat.fitracker.ingest.SyntheticDataSpec;
+import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+
+/**
+ * Exercises of a range of users over the past 4 weeks, so all of them count for the ranking and
+ * the statistics. The application generates them at startup with its dev profile, configured by
+ * the system properties of the {@link SyntheticDataSpec}. The exercises of a user never overlap,
+ * neither the seeded ones nor the ones created during the load test, so every create is expected
+ * to succeed.
+ *
+ * The same seed gives the same exercises, only the reference time is the start of the load test.
+ */
+class SyntheticDataset {
+
+	/**
+	 * Far above the user ids of manually created exercises.
+	 */
+	static final long FIRST_USER_ID = 1000000;
+
+	private static final String[] DESCRIPTIONS = {"Morning run", "Lunch break", "After work", "Weekend session",
+			"Interval training", "Long distance"};
+
+	private static final int DAYS = 28;
+
+	private static final long CREATE_SLOT_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+	private final ObjectMapper objectMapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+	private final int users;
+
+	private final int exercisesPerUser;
+
+	private final long seed;
+
+	private final long referenceTime = System.currentTimeMillis();
+
+	/**
+	 * Slots of an hour after the reference time for the created exercises, shared by all users so
+	 * they never overlap.
+	 */
+	private final AtomicLong nextCreateSlot = new AtomicLong();
+
+	SyntheticDataset(final int users, final int exercisesPerUser, final long seed) {
+		this.users = users;
+		this.exercisesPerUser = exercisesPerUser;
+		this.seed = seed;
+	}
+
+	/**
+	 * Sets the system properties of the dev profile, which the application reads at startup. The
+	 * application runs in this JVM, so this must be called before the server is started.
+	 */
+	void configureApplication() {
+		System.setProperty(SyntheticDataSpec.USERS_PROPERTY, String.valueOf(users));
+		System.setProperty(SyntheticDataSpec.FIRST_USER_ID_PROPERTY, String.valueOf(FIRST_USER_ID));
+		System.setProperty(SyntheticDataSpec.EXERCISES_PER_USER_PROPERTY, String.valueOf(exercisesPerUser));
+		System.setProperty(SyntheticDataSpec.DAYS_PROPERTY, String.valueOf(DAYS));
+		System.setProperty(SyntheticDataSpec.END_TIME_PROPERTY, String.valueOf(referenceTime));
+		System.setProperty(SyntheticDataSpec.SEED_PROPERTY, String.valueOf(seed));
+	}
+
+	/**
+	 * @param random the random source of the calling thread
+	 * @return a user id of the dataset
+	 */
+	long randomUserId(@Nonnull final Random random) {
+		return FIRST_USER_ID + random.nextInt(users);
+	}
+
+	/**
+	 * @param random the random source of the calling thread
+	 * @return the JSON of a new exercise of a random user, which overlaps no other exercise
+	 */
+	@Nonnull
+	byte[] newExerciseJson(@Nonnull final Random random) {
+		final Exercise exercise = new Exercise();
+		exercise.setUserId(randomUserId(random));
+		exercise.setDescription(DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)]);
+		exercise.setType(ExerciseType.values()[random.nextInt(ExerciseType.values().length)]);
+		exercise.setStartTime(new Date(referenceTime + nextCreateSlot.incrementAndGet() * CREATE_SLOT_MILLIS));
+		exercise.setDuration(60 + random.nextInt(3000));
+		exercise.setDistance(random.nextInt(20000));
+		exercise.setCalories(random.nextInt(1000));
+		try {
+			return objectMapper.writeValueAsBytes(exercise);
+		} catch (JsonProcessingException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+}
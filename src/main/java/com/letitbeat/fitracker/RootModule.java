@@ -1,17 +1,58 @@
 package com.letitbeat.fitracker;
 
+import java.util.Properties;
+
 import com.google.inject.AbstractModule;
 
+import com.letitbeat.fitracker.activity.ActivityModule;
 import com.letitbeat.fitracker.jpa.JpaModule;
+import com.letitbeat.fitracker.metrics.MetricsModule;
 import com.letitbeat.fitracker.rest.RestServiceModule;
+import com.letitbeat.fitracker.rest.SwaggerSpecModule;
+import com.letitbeat.fitracker.score.ScoreModule;
 
 public class RootModule extends AbstractModule {
 
+	private final StartupProfile profile;
+
+	private final Properties persistenceProperties;
+
+	public RootModule() {
+		this(new Properties());
+	}
+
+	/**
+	 * @param persistenceProperties overrides the properties of the persistence unit
+	 */
+	public RootModule(final Properties persistenceProperties) {
+		this(StartupProfile.current(), persistenceProperties);
+	}
+
+	/**
+	 * @param profile the startup profile
+	 * @param persistenceProperties overrides the properties of the persistence unit and the ones set
+	 * by the profile
+	 */
+	public RootModule(final StartupProfile profile, final Properties persistenceProperties) {
+		this.profile = profile;
+		this.persistenceProperties = persistenceProperties;
+	}
+
 	@Override
 	protected void configure() {
-		install(new JpaModule());
+		// before the JPA module, so the DAO latencies include the transaction
+		install(new MetricsModule());
+		final Properties properties = profile.getPersistenceProperties();
+		properties.putAll(persistenceProperties);
+		install(new JpaModule(properties));
 		install(new RestServiceModule());
+		install(new ScoreModule());
+		install(new ActivityModule());
 
-		bind(TestData.class).asEagerSingleton();
+		if (profile == StartupProfile.PRODUCTION) {
+			install(new SwaggerSpecModule());
+		} else {
+			bind(TestData.class).asEagerSingleton();
+		}
 	}
 }
@@ -3,13 +3,34 @@ package com.letitbeat.fitracker;
 import java.util.Arrays;
 import java.util.List;
 
+import javax.servlet.ServletContextEvent;
+
 import com.google.inject.Module;
 import com.squarespace.jersey2.guice.JerseyGuiceServletContextListener;
 
+import com.letitbeat.fitracker.rest.AsyncRequestExecutor;
+import com.letitbeat.fitracker.score.ScoreIndex;
+
 public class ServletContextListener extends JerseyGuiceServletContextListener {
 
+	private static final String INJECTOR_PHASE = "Guice injector";
+
+	public ServletContextListener() {
+		// the constructor of the super class creates the injector right after calling modules()
+		StartupTimer.end(INJECTOR_PHASE);
+	}
+
 	@Override
 	protected List<? extends Module> modules() {
+		StartupTimer.start();
+		StartupTimer.begin(INJECTOR_PHASE);
 		return Arrays.asList(new RootModule());
 	}
+
+	@Override
+	public void contextDestroyed(final ServletContextEvent event) {
+		injector.getInstance(ScoreIndex.class).stop();
+		injector.getInstance(AsyncRequestExecutor.class).shutdown();
+		super.contextDestroyed(event);
+	}
 }
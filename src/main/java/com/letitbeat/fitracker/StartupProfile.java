@@ -0,0 +1,55 @@
+package com.letitbeat.fitracker;
+
+import java.util.Locale;
+import java.util.Properties;
+
+import javax.annotation.Nonnull;
+
+import org.hibernate.cfg.AvailableSettings;
+
+import com.letitbeat.fitracker.jpa.SchemaScript;
+
+/**
+ * The startup profile of the application, selected with the system property {@value #PROPERTY},
+ * e.g. -Dfitracker.profile=production. Defaults to {@link #DEV}.
+ */
+public enum StartupProfile {
+
+	/**
+	 * Updates the schema from the entity mapping, scans the resource classes for the Swagger
+	 * specification and inserts test data.
+	 */
+	DEV,
+
+	/**
+	 * Creates the schema from the pre-generated script if the database is empty and only validates
+	 * it against the entity mapping, serves the pre-built Swagger specification and inserts no data.
+	 */
+	PRODUCTION;
+
+	/**
+	 * System property with the name of the profile.
+	 */
+	public static final String PROPERTY = "fitracker.profile";
+
+	/**
+	 * @return the profile selected with the system property {@value #PROPERTY}
+	 */
+	@Nonnull
+	public static StartupProfile current() {
+		return valueOf(System.getProperty(PROPERTY, DEV.name()).toUpperCase(Locale.ROOT));
+	}
+
+	/**
+	 * @return the properties of the persistence unit overridden by this profile
+	 */
+	@Nonnull
+	public Properties getPersistenceProperties() {
+		final Properties properties = new Properties();
+		if (this == PRODUCTION) {
+			properties.setProperty(AvailableSettings.HBM2DDL_AUTO, "validate");
+			properties.setProperty(SchemaScript.PROPERTY, SchemaScript.RESOURCE);
+		}
+		return properties;
+	}
+}
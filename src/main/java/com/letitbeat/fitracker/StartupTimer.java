@@ -0,0 +1,143 @@
+package com.letitbeat.fitracker;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the phases of the web application startup, e.g. the creation of the Guice injector or
+ * the initialization of Jersey, and logs their durations when the last servlet is started, to keep
+ * track of the time until the first request can be served.
+ *
+ * Phases may be nested, e.g. the EntityManagerFactory is started while the injector is created, a
+ * phase is reported without the time of the phases inside it. Phases outside of {@link #start()}
+ * and {@link #report(StartupProfile)}, e.g. of a command or test creating an injector, are not
+ * recorded.
+ */
+public final class StartupTimer {
+
+	private static final Logger log = LoggerFactory.getLogger(StartupTimer.class);
+
+	private static final Deque<Phase> running = new ArrayDeque<>();
+
+	private static final Map<String, Long> finishedNanos = new LinkedHashMap<>();
+
+	private static boolean recording;
+
+	private static long startNanos;
+
+	private static volatile boolean firstRequestLogged;
+
+	private StartupTimer() {
+	}
+
+	/**
+	 * Starts recording the phases of a startup.
+	 */
+	public static synchronized void start() {
+		running.clear();
+		finishedNanos.clear();
+		recording = true;
+		startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Begins a phase, which must be ended with {@link #end(String)} in the same thread.
+	 *
+	 * @param phase the name of the phase
+	 */
+	public static synchronized void begin(@Nonnull final String phase) {
+		if (recording) {
+			running.push(new Phase(phase, System.nanoTime()));
+		}
+	}
+
+	/**
+	 * Ends the innermost running phase.
+	 *
+	 * @param phase the name of the phase
+	 * @throws IllegalStateException if the innermost running phase has another name
+	 */
+	public static synchronized void end(@Nonnull final String phase) {
+		if (!recording) {
+			return;
+		}
+		final Phase finished = running.peek();
+		if (finished == null || !finished.name.equals(phase)) {
+			throw new IllegalStateException(String.format("Phase %s is not running", phase));
+		}
+		running.pop();
+
+		final long elapsed = System.nanoTime() - finished.startNanos;
+		if (!running.isEmpty()) {
+			running.peek().nestedNanos += elapsed;
+		}
+		finishedNanos.merge(phase, elapsed - finished.nestedNanos, Long::sum);
+	}
+
+	/**
+	 * Logs the duration of every finished phase and stops recording.
+	 *
+	 * @param profile the profile which was started
+	 * @return the milliseconds of every phase without its nested phases, in the order the phases
+	 * finished
+	 */
+	@Nonnull
+	public static synchronized Map<String, Long> report(@Nonnull final StartupProfile profile) {
+		if (!recording) {
+			return Collections.emptyMap();
+		}
+		recording = false;
+
+		final Map<String, Long> phaseMillis = new LinkedHashMap<>();
+		finishedNanos.forEach((phase, nanos) -> phaseMillis.put(phase, TimeUnit.NANOSECONDS.toMillis(nanos)));
+
+		final StringBuilder report = new StringBuilder(String.format(
+				"Started the %s profile in %d ms, %d ms after the JVM start", profile.name().toLowerCase(Locale.ROOT),
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+				ManagementFactory.getRuntimeMXBean().getUptime()));
+		phaseMillis.forEach((phase, millis) -> report.append(String.format("%n  %-22s %6d ms", phase, millis)));
+		log.info(report.toString());
+		return phaseMillis;
+	}
+
+	/**
+	 * Logs the time since the JVM start when called for the first time.
+	 */
+	public static void requestStarted() {
+		if (firstRequestLogged) {
+			return;
+		}
+		synchronized (StartupTimer.class) {
+			if (!firstRequestLogged) {
+				firstRequestLogged = true;
+				log.info(String.format("First request %d ms after the JVM start",
+						ManagementFactory.getRuntimeMXBean().getUptime()));
+			}
+		}
+	}
+
+	private static final class Phase {
+
+		private final String name;
+
+		private final long startNanos;
+
+		private long nestedNanos;
+
+		Phase(final String name, final long startNanos) {
+			this.name = name;
+			this.startNanos = startNanos;
+		}
+	}
+}
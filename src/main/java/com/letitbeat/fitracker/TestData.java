@@ -1,5 +1,7 @@
 package com.letitbeat.fitracker;
 
+import com.letitbeat.fitracker.ingest.SyntheticDataGenerator;
+import com.letitbeat.fitracker.ingest.SyntheticDataSpec;
 import com.letitbeat.fitracker.jpa.domain.Exercise;
 import java.text.ParseException;
 import java.util.TimeZone;
@@ -14,6 +16,12 @@ import com.google.inject.persist.Transactional;
 import com.letitbeat.fitracker.jpa.dao.ExerciseDao;
 import com.letitbeat.fitracker.jpa.domain.Enums;
 
+/**
+ * Inserts a few hand-written exercises at startup or, in the dev profile with
+ * {@value SyntheticDataSpec#USERS_PROPERTY} set to a positive number, a synthetic dataset described
+ * by the fitracker.synthetic.* system properties instead, see {@link SyntheticDataSpec}. Not used
+ * in the production profile.
+ */
 @Transactional
 public class TestData {
 
@@ -21,20 +29,35 @@ public class TestData {
 
 	private static final String TIME_PATTERN = "yyyy-MM-dd'T'HH:mm:ss";
 
+	private static final String STARTUP_PHASE = "Test data";
+
 	private final ExerciseDao exerciseDao;
 
+	private final SyntheticDataGenerator syntheticDataGenerator;
+
 	@Inject
-	public TestData(final ExerciseDao exerciseDao) {
+	public TestData(final ExerciseDao exerciseDao, final SyntheticDataGenerator syntheticDataGenerator) {
 		this.exerciseDao = exerciseDao;
+		this.syntheticDataGenerator = syntheticDataGenerator;
 
-		insertTestData();
+		StartupTimer.begin(STARTUP_PHASE);
+		try {
+			insertTestData();
+		} finally {
+			StartupTimer.end(STARTUP_PHASE);
+		}
 	}
 
 	public void insertTestData() {
 		// For convenience set the default time zone to UTC
 		TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
-		// Create the test exercise data for the user accounts
-		insertTestExercises();
+		final SyntheticDataSpec spec = SyntheticDataSpec.fromSystemProperties();
+		if (spec.getUsers() > 0) {
+			syntheticDataGenerator.generate(spec);
+		} else {
+			// Create the test exercise data for the user accounts
+			insertTestExercises();
+		}
 	}
 
 	private void insertTestExercises() {
@@ -0,0 +1,284 @@
+package com.letitbeat.fitracker.activity;
+
+import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The activities of a single user in a memory-mapped file, one column per field and the rows
+ * sorted by start time and id. Reading a row does not create any object.
+ *
+ * File layout: a header of magic number, version, row count and capacity (4 ints) followed by the
+ * columns id (long), start time (long), duration (int), calories (int) and type ordinal (byte),
+ * each sized for the capacity. A full file is copied into a new file of twice the capacity.
+ *
+ * The file is unmapped right away when the columns are closed or grown, instead of when the
+ * garbage collector finds the buffer, so the number of mappings of the process stays bounded. The
+ * columns must not be used after {@link #close()}, the callers check {@link #isOpen()} while they
+ * hold the monitor of the columns.
+ */
+final class ActivityColumns {
+
+	private static final int MAGIC = 0x46414354;
+
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 16;
+
+	private static final int COUNT_OFFSET = 8;
+
+	private static final int ROW_SIZE = 8 + 8 + 4 + 4 + 1;
+
+	private static final ExerciseType[] TYPES = ExerciseType.values();
+
+	private static final Logger log = LoggerFactory.getLogger(ActivityColumns.class);
+
+	private final Path file;
+
+	private MappedByteBuffer buffer;
+
+	private int count;
+
+	private int capacity;
+
+	private boolean open = true;
+
+	/**
+	 * Tick of the last read, maintained by the {@link ActivityStore}.
+	 */
+	private volatile long lastAccess;
+
+	private ActivityColumns(final Path file, final MappedByteBuffer buffer, final int count, final int capacity) {
+		this.file = file;
+		this.buffer = buffer;
+		this.count = count;
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Creates an empty file, an existing file is replaced.
+	 */
+	static ActivityColumns create(final Path file, final int capacity) throws IOException {
+		final MappedByteBuffer buffer = map(file, capacity);
+		buffer.putInt(0, MAGIC);
+		buffer.putInt(4, VERSION);
+		buffer.putInt(COUNT_OFFSET, 0);
+		buffer.putInt(12, capacity);
+		return new ActivityColumns(file, buffer, 0, capacity);
+	}
+
+	Path getFile() {
+		return file;
+	}
+
+	synchronized int size() {
+		return count;
+	}
+
+	synchronized boolean isOpen() {
+		return open;
+	}
+
+	long getLastAccess() {
+		return lastAccess;
+	}
+
+	void setLastAccess(final long lastAccess) {
+		this.lastAccess = lastAccess;
+	}
+
+	/**
+	 * Inserts an activity or replaces the activity with the same id, so applying a write twice does
+	 * not duplicate it.
+	 */
+	synchronized void put(final long id, final long startTime, final int duration, final int calories,
+			final ExerciseType type) throws IOException {
+		remove(id);
+		insert(id, startTime, duration, calories, type);
+	}
+
+	/**
+	 * Inserts an activity at the position of its start time and id.
+	 */
+	synchronized void insert(final long id, final long startTime, final int duration, final int calories,
+			final ExerciseType type) throws IOException {
+		if (count == capacity) {
+			grow();
+		}
+		final int position = insertionPoint(startTime, id);
+		for (int i = count - 1; i >= position; i--) {
+			copyRow(i, i + 1);
+		}
+		writeRow(position, id, startTime, duration, calories, type);
+		setCount(count + 1);
+	}
+
+	/**
+	 * Removes the activity with the given id.
+	 *
+	 * @return true if the activity was contained
+	 */
+	synchronized boolean remove(final long id) {
+		for (int i = count - 1; i >= 0; i--) {
+			if (id(i) == id) {
+				for (int j = i + 1; j < count; j++) {
+					copyRow(j, j - 1);
+				}
+				setCount(count - 1);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Calculates the score like the ScoreCalculator, walking the activities from the newest to the
+	 * oldest within the score window.
+	 *
+	 * @param windowStart the oldest start time which counts
+	 * @return the score
+	 */
+	synchronized double score(final long windowStart) {
+		final double[] weights = new double[TYPES.length];
+		Arrays.fill(weights, 1.0);
+
+		double score = 0;
+		for (int i = count - 1; i >= 0 && startTime(i) >= windowStart; i--) {
+			final int type = type(i);
+			final double points = (double) (duration(i) / 60) + calories(i); // duration to mins
+			score += points * TYPES[type].getMultiplier() * weights[type];
+			weights[type] -= 0.1;
+		}
+		return score;
+	}
+
+	/**
+	 * Counts the activities per type from the given start time on.
+	 *
+	 * @param fromTime the oldest start time which counts
+	 * @return the number of activities indexed by the type ordinal
+	 */
+	synchronized long[] countByType(final long fromTime) {
+		final long[] counts = new long[TYPES.length];
+		for (int i = count - 1; i >= 0 && startTime(i) >= fromTime; i--) {
+			counts[type(i)]++;
+		}
+		return counts;
+	}
+
+	/**
+	 * Unmaps the file, the file itself is left to the caller.
+	 */
+	synchronized void close() {
+		if (open) {
+			open = false;
+			unmap(buffer);
+			buffer = null;
+		}
+	}
+
+	private int insertionPoint(final long startTime, final long id) {
+		int low = 0;
+		int high = count;
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			final long middleStartTime = startTime(middle);
+			if (middleStartTime < startTime || (middleStartTime == startTime && id(middle) < id)) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private void grow() throws IOException {
+		final Path grownFile = file.resolveSibling(file.getFileName() + ".grow");
+		final ActivityColumns grown = create(grownFile, capacity * 2);
+		for (int i = 0; i < count; i++) {
+			grown.writeRow(i, id(i), startTime(i), duration(i), calories(i), TYPES[type(i)]);
+		}
+		grown.setCount(count);
+		grown.buffer.force();
+		Files.move(grownFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		unmap(buffer);
+		buffer = grown.buffer;
+		capacity = grown.capacity;
+	}
+
+	private void copyRow(final int from, final int to) {
+		writeRow(to, id(from), startTime(from), duration(from), calories(from), TYPES[type(from)]);
+	}
+
+	private void writeRow(final int row, final long id, final long startTime, final int duration,
+			final int calories, final ExerciseType type) {
+		buffer.putLong(HEADER_SIZE + row * 8, id);
+		buffer.putLong(HEADER_SIZE + capacity * 8 + row * 8, startTime);
+		buffer.putInt(HEADER_SIZE + capacity * 16 + row * 4, duration);
+		buffer.putInt(HEADER_SIZE + capacity * 20 + row * 4, calories);
+		buffer.put(HEADER_SIZE + capacity * 24 + row, (byte) type.ordinal());
+	}
+
+	private long id(final int row) {
+		return buffer.getLong(HEADER_SIZE + row * 8);
+	}
+
+	private long startTime(final int row) {
+		return buffer.getLong(HEADER_SIZE + capacity * 8 + row * 8);
+	}
+
+	private int duration(final int row) {
+		return buffer.getInt(HEADER_SIZE + capacity * 16 + row * 4);
+	}
+
+	private int calories(final int row) {
+		return buffer.getInt(HEADER_SIZE + capacity * 20 + row * 4);
+	}
+
+	private int type(final int row) {
+		return buffer.get(HEADER_SIZE + capacity * 24 + row);
+	}
+
+	private void setCount(final int count) {
+		this.count = count;
+		buffer.putInt(COUNT_OFFSET, count);
+	}
+
+	private static long fileSize(final int capacity) {
+		return HEADER_SIZE + (long) capacity * ROW_SIZE;
+	}
+
+	private static MappedByteBuffer map(final Path file, final int capacity) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			return channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(capacity));
+		}
+	}
+
+	/**
+	 * Releases the mapping with the cleaner of the buffer. The cleaner is not public API, if it is
+	 * not accessible the mapping is left to the garbage collector.
+	 */
+	private static void unmap(final MappedByteBuffer buffer) {
+		try {
+			final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+			cleanerMethod.setAccessible(true);
+			final Object cleaner = cleanerMethod.invoke(buffer);
+			if (cleaner != null) {
+				cleaner.getClass().getMethod("clean").invoke(cleaner);
+			}
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			log.debug("Cannot unmap an activity file, it is unmapped by the garbage collector", e);
+		}
+	}
+}
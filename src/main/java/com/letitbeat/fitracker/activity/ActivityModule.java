@@ -0,0 +1,11 @@
+package com.letitbeat.fitracker.activity;
+
+import com.google.inject.AbstractModule;
+
+public class ActivityModule extends AbstractModule {
+
+	@Override
+	protected void configure() {
+		bind(ActivityStore.class);
+	}
+}
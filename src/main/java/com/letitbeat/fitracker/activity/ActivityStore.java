@@ -0,0 +1,447 @@
+package com.letitbeat.fitracker.activity;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import com.letitbeat.fitracker.jpa.dao.ExerciseDao;
+import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Optional read-side copy of the activities used for the score and the statistics: start time,
+ * duration, calories and type of every exercise, stored per user in a memory-mapped file of
+ * primitive columns (see {@link ActivityColumns}). Scanning the columns neither loads entities nor
+ * allocates per exercise.
+ *
+ * The store is enabled by setting the system property {@value #DIRECTORY_PROPERTY} to the
+ * directory of the files. The file of a user is built from the database on first access and then
+ * kept up to date by the committed exercise writes. Writes for users without a file are ignored,
+ * their file is built with the current data when it is first read. The files are never reused
+ * across stores, the ones left in the directory by an earlier run are deleted at startup, as the
+ * database may have changed in between.
+ *
+ * At most {@value #MAX_USERS_PROPERTY} users (default {@value #DEFAULT_MAX_USERS}) are mapped at a
+ * time, every mapping counts against the limit of the operating system (vm.max_map_count on
+ * Linux). Reading another user unmaps and deletes the file of the least recently read one.
+ */
+@Singleton
+public class ActivityStore {
+
+	private static final Logger log = LoggerFactory.getLogger(ActivityStore.class);
+
+	/**
+	 * System property with the directory of the activity files, the store is disabled if not set.
+	 */
+	public static final String DIRECTORY_PROPERTY = "fitracker.activityStore.dir";
+
+	/**
+	 * System property with the maximum number of users whose file is mapped at the same time.
+	 */
+	public static final String MAX_USERS_PROPERTY = "fitracker.activityStore.maxUsers";
+
+	static final int DEFAULT_MAX_USERS = 10000;
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private static final String FILE_PATTERN = "*.act*";
+
+	private final Provider<ExerciseDao> exerciseDaoProvider;
+
+	private final Path directory;
+
+	private final int maxUsers;
+
+	private final ConcurrentMap<Long, ActivityColumns> columnsByUser = new ConcurrentHashMap<>();
+
+	/**
+	 * The files which are built right now. They are built outside of {@link #columnsByUser}, so
+	 * building a file does not block the other users which hash to the same bin.
+	 */
+	private final ConcurrentMap<Long, Loading> loadingByUser = new ConcurrentHashMap<>();
+
+	/**
+	 * Orders the reads for the eviction and numbers the files.
+	 */
+	private final AtomicLong clock = new AtomicLong();
+
+	@Inject
+	ActivityStore(final Provider<ExerciseDao> exerciseDaoProvider) {
+		this(exerciseDaoProvider, directoryOf(System.getProperty(DIRECTORY_PROPERTY)),
+				Integer.getInteger(MAX_USERS_PROPERTY, DEFAULT_MAX_USERS));
+	}
+
+	/**
+	 * @param exerciseDaoProvider reads the activities of a user on first access
+	 * @param directory directory of the activity files, null to disable the store
+	 */
+	ActivityStore(final Provider<ExerciseDao> exerciseDaoProvider, @Nullable final Path directory) {
+		this(exerciseDaoProvider, directory, DEFAULT_MAX_USERS);
+	}
+
+	/**
+	 * @param exerciseDaoProvider reads the activities of a user on first access
+	 * @param directory directory of the activity files, null to disable the store
+	 * @param maxUsers maximum number of users whose file is mapped at the same time
+	 */
+	ActivityStore(final Provider<ExerciseDao> exerciseDaoProvider, @Nullable final Path directory,
+			final int maxUsers) {
+		if (maxUsers < 1) {
+			throw new IllegalArgumentException("The activity store needs at least one user, provided: " + maxUsers);
+		}
+		this.exerciseDaoProvider = exerciseDaoProvider;
+		this.directory = directory;
+		this.maxUsers = maxUsers;
+
+		if (directory != null) {
+			try {
+				Files.createDirectories(directory);
+				deleteFiles(directory);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Cannot prepare the activity store directory " + directory, e);
+			}
+			log.info(String.format("Activity store enabled in %s for %d users", directory, maxUsers));
+		}
+	}
+
+	/**
+	 * @return true if the activity store is configured
+	 */
+	public boolean isEnabled() {
+		return directory != null;
+	}
+
+	/**
+	 * Adds created or updated exercises to the files of their users. Must be called after the
+	 * exercises were committed, an exercise which is already contained is replaced.
+	 *
+	 * @param exercises the committed exercises
+	 */
+	public void add(@Nonnull final Collection<Exercise> exercises) {
+		if (!isEnabled()) {
+			return;
+		}
+		for (Exercise exercise : exercises) {
+			write(exercise.getUserId(), columns -> columns.put(exercise.getId(), exercise.getStartTime().getTime(),
+					exercise.getDuration(), exercise.getCalories(), exercise.getType()));
+		}
+	}
+
+	/**
+	 * Removes an exercise from the file of its user. Must be called after the update or deletion
+	 * was committed.
+	 *
+	 * @param userId the user of the exercise before the update or deletion
+	 * @param exerciseId the id of the exercise
+	 */
+	public void remove(@Nonnull final Long userId, @Nonnull final Long exerciseId) {
+		if (!isEnabled()) {
+			return;
+		}
+		write(userId, columns -> columns.remove(exerciseId));
+	}
+
+	/**
+	 * Calculates the score of a user like {@link com.letitbeat.fitracker.score.ScoreCalculator}.
+	 *
+	 * @param userId the user to calculate the score for
+	 * @param windowStart the oldest start time in milliseconds which counts for the score
+	 * @return the score of the user
+	 */
+	public double score(@Nonnull final Long userId, final long windowStart) {
+		return read(userId, columns -> columns.score(windowStart));
+	}
+
+	/**
+	 * Counts the exercises of a user per type.
+	 *
+	 * @param userId who did the exercises
+	 * @param fromTime the oldest start time in milliseconds which counts
+	 * @return the number of exercises per type, types without exercises are left out
+	 */
+	@Nonnull
+	public Map<ExerciseType, Long> countByType(@Nonnull final Long userId, final long fromTime) {
+		final long[] counts = read(userId, columns -> columns.countByType(fromTime));
+
+		final Map<ExerciseType, Long> countByType = new EnumMap<>(ExerciseType.class);
+		for (ExerciseType type : ExerciseType.values()) {
+			if (counts[type.ordinal()] > 0) {
+				countByType.put(type, counts[type.ordinal()]);
+			}
+		}
+		return countByType;
+	}
+
+	/**
+	 * Drops the file of a user, the next access reads the activities from the database again.
+	 *
+	 * @param userId the user to rebuild
+	 */
+	public void rebuild(@Nonnull final Long userId) {
+		if (!isEnabled()) {
+			return;
+		}
+		final Loading loading = loadingByUser.get(userId);
+		if (loading != null) {
+			loading.discardResult();
+		}
+		final ActivityColumns columns = columnsByUser.remove(userId);
+		if (columns != null) {
+			discard(columns);
+		}
+	}
+
+	/**
+	 * @return the number of users whose file is mapped
+	 */
+	int mappedUsers() {
+		return columnsByUser.size();
+	}
+
+	/**
+	 * Applies a committed write to the file of a user. A file which is built right now gets the
+	 * write once it is built, as its scroll may have missed the exercise.
+	 */
+	private void write(final Long userId, final ColumnsWrite write) {
+		final Loading loading = loadingByUser.get(userId);
+		if (loading != null && loading.defer(write)) {
+			return;
+		}
+		columnsByUser.computeIfPresent(userId, (id, columns) -> {
+			try {
+				write.apply(columns);
+				return columns;
+			} catch (IOException e) {
+				log.error(String.format("Cannot update the activity file of user %s, it is rebuilt on next access",
+						id), e);
+				discard(columns);
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Reads the columns of a user, building them first if needed. The columns may be evicted
+	 * between the lookup and the read, then they are looked up again.
+	 */
+	private <T> T read(final Long userId, final Function<ActivityColumns, T> reader) {
+		if (!isEnabled()) {
+			throw new IllegalStateException("The activity store is not enabled");
+		}
+		while (true) {
+			ActivityColumns columns = columnsByUser.get(userId);
+			if (columns == null) {
+				columns = loadOnce(userId);
+			}
+			columns.setLastAccess(clock.incrementAndGet());
+			if (columnsByUser.size() > maxUsers) {
+				evictLeastRecentlyRead();
+			}
+			synchronized (columns) {
+				if (columns.isOpen()) {
+					return reader.apply(columns);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Builds the file of a user, or waits for the thread which builds it already.
+	 *
+	 * @return the published columns, closed if they were discarded while being built
+	 */
+	private ActivityColumns loadOnce(final Long userId) {
+		final Loading loading = new Loading(userId);
+		final Loading running = loadingByUser.putIfAbsent(userId, loading);
+		if (running != null) {
+			return running.await();
+		}
+		try {
+			loading.task.run();
+		} finally {
+			loadingByUser.remove(userId, loading);
+		}
+		return loading.await();
+	}
+
+	private ActivityColumns load(final Long userId) {
+		final Path file = directory.resolve(userId + "-" + clock.incrementAndGet() + ".act");
+		try {
+			log.debug(String.format("Build activity file for user: %s", userId));
+			final ActivityColumns columns = ActivityColumns.create(file, INITIAL_CAPACITY);
+			try {
+				exerciseDaoProvider.get().scrollActivitiesByUserId(userId, activity -> {
+					try {
+						columns.insert(activity.getId(), activity.getStartTime(), activity.getDuration(),
+								activity.getCalories(), activity.getType());
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			} catch (RuntimeException e) {
+				discard(columns);
+				throw e;
+			}
+			return columns;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot build the activity file " + file, e);
+		}
+	}
+
+	/**
+	 * Unmaps the users which were read least recently until at most the maximum number of users
+	 * is mapped. The scan over all users only happens when a new user exceeds the maximum.
+	 */
+	private void evictLeastRecentlyRead() {
+		while (columnsByUser.size() > maxUsers) {
+			Map.Entry<Long, ActivityColumns> eldest = null;
+			for (Map.Entry<Long, ActivityColumns> entry : columnsByUser.entrySet()) {
+				if (eldest == null || entry.getValue().getLastAccess() < eldest.getValue().getLastAccess()) {
+					eldest = entry;
+				}
+			}
+			if (eldest != null && columnsByUser.remove(eldest.getKey(), eldest.getValue())) {
+				log.debug(String.format("Evict activity file of user: %s", eldest.getKey()));
+				discard(eldest.getValue());
+			}
+		}
+	}
+
+	/**
+	 * A write to the columns of a user.
+	 */
+	private interface ColumnsWrite {
+
+		void apply(ActivityColumns columns) throws IOException;
+	}
+
+	/**
+	 * Builds the file of a user once, the other readers of the user wait for the result. The
+	 * writes committed in the meantime are applied before the columns are published.
+	 */
+	private final class Loading {
+
+		private final Long userId;
+
+		private final FutureTask<ActivityColumns> task = new FutureTask<>(this::build);
+
+		/**
+		 * The writes to apply before publishing, null once the columns are published.
+		 */
+		private List<ColumnsWrite> pendingWrites = new ArrayList<>();
+
+		private boolean discarded;
+
+		Loading(final Long userId) {
+			this.userId = userId;
+		}
+
+		private ActivityColumns build() {
+			// published by a load which finished after the lookup
+			final ActivityColumns published = columnsByUser.get(userId);
+			if (published != null) {
+				return published;
+			}
+			final ActivityColumns columns = load(userId);
+			synchronized (this) {
+				try {
+					if (discarded) {
+						discard(columns);
+						return columns;
+					}
+					for (ColumnsWrite write : pendingWrites) {
+						write.apply(columns);
+					}
+				} catch (IOException e) {
+					log.error(String.format("Cannot update the activity file of user %s, it is rebuilt on next access",
+							userId), e);
+					discard(columns);
+					return columns;
+				} finally {
+					pendingWrites = null;
+				}
+				columnsByUser.put(userId, columns);
+				return columns;
+			}
+		}
+
+		/**
+		 * @return false if the columns are published already and the write must go to them
+		 */
+		synchronized boolean defer(final ColumnsWrite write) {
+			if (pendingWrites == null) {
+				return false;
+			}
+			pendingWrites.add(write);
+			return true;
+		}
+
+		/**
+		 * Drops the columns once they are built instead of publishing them.
+		 */
+		synchronized void discardResult() {
+			discarded = true;
+		}
+
+		ActivityColumns await() {
+			try {
+				return task.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for the activity file of user " + userId, e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				if (e.getCause() instanceof Error) {
+					throw (Error) e.getCause();
+				}
+				throw new IllegalStateException("Cannot build the activity file of user " + userId, e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Unmaps and deletes the file of columns which are no longer in the store.
+	 */
+	private static void discard(final ActivityColumns columns) {
+		columns.close();
+		try {
+			Files.deleteIfExists(columns.getFile());
+		} catch (IOException e) {
+			log.warn(String.format("Cannot delete the activity file %s", columns.getFile()), e);
+		}
+	}
+
+	private static void deleteFiles(final Path directory) throws IOException {
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PATTERN)) {
+			for (Path file : files) {
+				Files.delete(file);
+			}
+		}
+	}
+
+	private static Path directoryOf(@Nullable final String directory) {
+		return directory == null || directory.isEmpty() ? null : Paths.get(directory);
+	}
+}
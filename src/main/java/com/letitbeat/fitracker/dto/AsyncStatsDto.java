@@ -0,0 +1,145 @@
+package com.letitbeat.fitracker.dto;
+
+/**
+ * This Data Transfer Object (DTO) is used to pass the state of the worker pool of the asynchronous
+ * requests via the REST interface from the server to the client.
+ */
+public class AsyncStatsDto {
+
+	/**
+	 * The number of worker threads.
+	 */
+	private int threads;
+
+	/**
+	 * The number of requests which may wait for a worker.
+	 */
+	private int queueSize;
+
+	/**
+	 * The number of requests being calculated.
+	 */
+	private int active;
+
+	/**
+	 * The number of requests waiting for a worker.
+	 */
+	private int queued;
+
+	/**
+	 * The number of requests taken by a worker since the start.
+	 */
+	private long executed;
+
+	/**
+	 * The number of requests answered with 503 because the queue was full.
+	 */
+	private long rejected;
+
+	/**
+	 * The number of requests answered with 503 because they were not finished in time.
+	 */
+	private long timedOut;
+
+	/**
+	 * The mean time in milliseconds a request waited for a worker.
+	 */
+	private double queueWaitMean;
+
+	/**
+	 * The longest time in milliseconds a request waited for a worker.
+	 */
+	private double queueWaitMax;
+
+	/**
+	 * Used for serialization only.
+	 */
+	AsyncStatsDto() {
+		super();
+	}
+
+	public AsyncStatsDto(int threads, int queueSize, int active, int queued, long executed, long rejected,
+			long timedOut, double queueWaitMean, double queueWaitMax) {
+		this.threads = threads;
+		this.queueSize = queueSize;
+		this.active = active;
+		this.queued = queued;
+		this.executed = executed;
+		this.rejected = rejected;
+		this.timedOut = timedOut;
+		this.queueWaitMean = queueWaitMean;
+		this.queueWaitMax = queueWaitMax;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+	public int getQueueSize() {
+		return queueSize;
+	}
+
+	void setQueueSize(int queueSize) {
+		this.queueSize = queueSize;
+	}
+
+	public int getActive() {
+		return active;
+	}
+
+	void setActive(int active) {
+		this.active = active;
+	}
+
+	public int getQueued() {
+		return queued;
+	}
+
+	void setQueued(int queued) {
+		this.queued = queued;
+	}
+
+	public long getExecuted() {
+		return executed;
+	}
+
+	void setExecuted(long executed) {
+		this.executed = executed;
+	}
+
+	public long getRejected() {
+		return rejected;
+	}
+
+	void setRejected(long rejected) {
+		this.rejected = rejected;
+	}
+
+	public long getTimedOut() {
+		return timedOut;
+	}
+
+	void setTimedOut(long timedOut) {
+		this.timedOut = timedOut;
+	}
+
+	public double getQueueWaitMean() {
+		return queueWaitMean;
+	}
+
+	void setQueueWaitMean(double queueWaitMean) {
+		this.queueWaitMean = queueWaitMean;
+	}
+
+	public double getQueueWaitMax() {
+		return queueWaitMax;
+	}
+
+	void setQueueWaitMax(double queueWaitMax) {
+		this.queueWaitMax = queueWaitMax;
+	}
+}
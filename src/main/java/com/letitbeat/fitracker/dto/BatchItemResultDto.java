@@ -0,0 +1,74 @@
+package com.letitbeat.fitracker.dto;
+
+/**
+ * This Data Transfer Object (DTO) is used to pass the outcome of a single exercise of a batch
+ * request via the REST interface from the server to the client.
+ */
+public class BatchItemResultDto {
+
+	/**
+	 * The position of the exercise in the batch request, starting with 0.
+	 */
+	private int index;
+
+	/**
+	 * The HTTP status code the exercise would have got as a single request.
+	 */
+	private int status;
+
+	/**
+	 * (Optional) The id of the persisted exercise.
+	 */
+	private Long id;
+
+	/**
+	 * (Optional) The reason why the exercise was rejected.
+	 */
+	private String message;
+
+	/**
+	 * Used for serialization only.
+	 */
+	BatchItemResultDto() {
+		super();
+	}
+
+	public BatchItemResultDto(int index, int status, Long id, String message) {
+		this.index = index;
+		this.status = status;
+		this.id = id;
+		this.message = message;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	void setIndex(int index) {
+		this.index = index;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	void setStatus(int status) {
+		this.status = status;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	void setMessage(String message) {
+		this.message = message;
+	}
+}
@@ -0,0 +1,108 @@
+package com.letitbeat.fitracker.dto;
+
+/**
+ * This Data Transfer Object (DTO) is used to pass the hit and miss counts of the Hibernate
+ * second-level and query cache via the REST interface from the server to the client.
+ */
+public class CacheStatsDto {
+
+	private boolean secondLevelCacheEnabled;
+
+	private long secondLevelCacheHitCount;
+
+	private long secondLevelCacheMissCount;
+
+	private long secondLevelCachePutCount;
+
+	private boolean queryCacheEnabled;
+
+	private long queryCacheHitCount;
+
+	private long queryCacheMissCount;
+
+	private long queryCachePutCount;
+
+	/**
+	 * Used for serialization only.
+	 */
+	CacheStatsDto() {
+		super();
+	}
+
+	public CacheStatsDto(boolean secondLevelCacheEnabled, long secondLevelCacheHitCount,
+			long secondLevelCacheMissCount, long secondLevelCachePutCount, boolean queryCacheEnabled,
+			long queryCacheHitCount, long queryCacheMissCount, long queryCachePutCount) {
+		this.secondLevelCacheEnabled = secondLevelCacheEnabled;
+		this.secondLevelCacheHitCount = secondLevelCacheHitCount;
+		this.secondLevelCacheMissCount = secondLevelCacheMissCount;
+		this.secondLevelCachePutCount = secondLevelCachePutCount;
+		this.queryCacheEnabled = queryCacheEnabled;
+		this.queryCacheHitCount = queryCacheHitCount;
+		this.queryCacheMissCount = queryCacheMissCount;
+		this.queryCachePutCount = queryCachePutCount;
+	}
+
+	public boolean isSecondLevelCacheEnabled() {
+		return secondLevelCacheEnabled;
+	}
+
+	void setSecondLevelCacheEnabled(boolean secondLevelCacheEnabled) {
+		this.secondLevelCacheEnabled = secondLevelCacheEnabled;
+	}
+
+	public long getSecondLevelCacheHitCount() {
+		return secondLevelCacheHitCount;
+	}
+
+	void setSecondLevelCacheHitCount(long secondLevelCacheHitCount) {
+		this.secondLevelCacheHitCount = secondLevelCacheHitCount;
+	}
+
+	public long getSecondLevelCacheMissCount() {
+		return secondLevelCacheMissCount;
+	}
+
+	void setSecondLevelCacheMissCount(long secondLevelCacheMissCount) {
+		this.secondLevelCacheMissCount = secondLevelCacheMissCount;
+	}
+
+	public long getSecondLevelCachePutCount() {
+		return secondLevelCachePutCount;
+	}
+
+	void setSecondLevelCachePutCount(long secondLevelCachePutCount) {
+		this.secondLevelCachePutCount = secondLevelCachePutCount;
+	}
+
+	public boolean isQueryCacheEnabled() {
+		return queryCacheEnabled;
+	}
+
+	void setQueryCacheEnabled(boolean queryCacheEnabled) {
+		this.queryCacheEnabled = queryCacheEnabled;
+	}
+
+	public long getQueryCacheHitCount() {
+		return queryCacheHitCount;
+	}
+
+	void setQueryCacheHitCount(long queryCacheHitCount) {
+		this.queryCacheHitCount = queryCacheHitCount;
+	}
+
+	public long getQueryCacheMissCount() {
+		return queryCacheMissCount;
+	}
+
+	void setQueryCacheMissCount(long queryCacheMissCount) {
+		this.queryCacheMissCount = queryCacheMissCount;
+	}
+
+	public long getQueryCachePutCount() {
+		return queryCachePutCount;
+	}
+
+	void setQueryCachePutCount(long queryCachePutCount) {
+		this.queryCachePutCount = queryCachePutCount;
+	}
+}
@@ -0,0 +1,74 @@
+package com.letitbeat.fitracker.dto;
+
+/**
+ * This Data Transfer Object (DTO) is used to pass the outcome of an exercise import via the REST
+ * interface from the server to the client.
+ */
+public class ImportResultDto {
+
+	/**
+	 * The number of persisted exercises.
+	 */
+	private long imported;
+
+	/**
+	 * The number of skipped exercises, because they could not be mapped or were invalid.
+	 */
+	private long rejected;
+
+	/**
+	 * The duration of the import in milliseconds.
+	 */
+	private long duration;
+
+	/**
+	 * The number of read exercises per second.
+	 */
+	private double rowsPerSecond;
+
+	/**
+	 * Used for serialization only.
+	 */
+	ImportResultDto() {
+		super();
+	}
+
+	public ImportResultDto(long imported, long rejected, long duration, double rowsPerSecond) {
+		this.imported = imported;
+		this.rejected = rejected;
+		this.duration = duration;
+		this.rowsPerSecond = rowsPerSecond;
+	}
+
+	public long getImported() {
+		return imported;
+	}
+
+	void setImported(long imported) {
+		this.imported = imported;
+	}
+
+	public long getRejected() {
+		return rejected;
+	}
+
+	void setRejected(long rejected) {
+		this.rejected = rejected;
+	}
+
+	public long getDuration() {
+		return duration;
+	}
+
+	void setDuration(long duration) {
+		this.duration = duration;
+	}
+
+	public double getRowsPerSecond() {
+		return rowsPerSecond;
+	}
+
+	void setRowsPerSecond(double rowsPerSecond) {
+		this.rowsPerSecond = rowsPerSecond;
+	}
+}
@@ -0,0 +1,57 @@
+package com.letitbeat.fitracker.dto;
+
+/**
+ * This Data Transfer Object (DTO) is used to pass a single position of the global leaderboard via
+ * the REST interface from the server to the client.
+ */
+public class LeaderboardEntryDto {
+
+	/**
+	 * The rank of the user, starting with 1 for the user with the highest score.
+	 */
+	private int rank;
+
+	private long userId;
+
+	/**
+	 * The points of the user in the past 4 weeks.
+	 */
+	private double score;
+
+	/**
+	 * Used for serialization only.
+	 */
+	LeaderboardEntryDto() {
+		super();
+	}
+
+	public LeaderboardEntryDto(int rank, long userId, double score) {
+		this.rank = rank;
+		this.userId = userId;
+		this.score = score;
+	}
+
+	public int getRank() {
+		return rank;
+	}
+
+	void setRank(int rank) {
+		this.rank = rank;
+	}
+
+	public long getUserId() {
+		return userId;
+	}
+
+	void setUserId(long userId) {
+		this.userId = userId;
+	}
+
+	public double getScore() {
+		return score;
+	}
+
+	void setScore(double score) {
+		this.score = score;
+	}
+}
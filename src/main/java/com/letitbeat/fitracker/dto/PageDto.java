@@ -0,0 +1,47 @@
+package com.letitbeat.fitracker.dto;
+
+import java.util.List;
+
+/**
+ * This Data Transfer Object (DTO) is used to pass a page of a list via the REST interface from the
+ * server to the client.
+ *
+ * @param <T> the type of the items
+ */
+public class PageDto<T> {
+
+	private List<T> items;
+
+	/**
+	 * (Optional) The cursor of the following page, not set on the last page.
+	 */
+	private String nextCursor;
+
+	/**
+	 * Used for serialization only.
+	 */
+	PageDto() {
+		super();
+	}
+
+	public PageDto(List<T> items, String nextCursor) {
+		this.items = items;
+		this.nextCursor = nextCursor;
+	}
+
+	public List<T> getItems() {
+		return items;
+	}
+
+	void setItems(List<T> items) {
+		this.items = items;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	void setNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+}
@@ -0,0 +1,125 @@
+package com.letitbeat.fitracker.dto;
+
+/**
+ * This Data Transfer Object (DTO) is used to pass the state of the database connection pool via
+ * the REST interface from the server to the client.
+ */
+public class PoolStatsDto {
+
+	private String poolName;
+
+	private int maximumPoolSize;
+
+	/**
+	 * The number of connections in use.
+	 */
+	private int active;
+
+	/**
+	 * The number of open connections waiting to be used.
+	 */
+	private int idle;
+
+	/**
+	 * The number of threads waiting for a connection.
+	 */
+	private int waiting;
+
+	/**
+	 * The number of connections handed out since the start.
+	 */
+	private long acquireCount;
+
+	/**
+	 * The mean time in milliseconds to get a connection from the pool.
+	 */
+	private double acquireTimeMean;
+
+	/**
+	 * The longest time in milliseconds to get a connection from the pool.
+	 */
+	private double acquireTimeMax;
+
+	/**
+	 * Used for serialization only.
+	 */
+	PoolStatsDto() {
+		super();
+	}
+
+	public PoolStatsDto(String poolName, int maximumPoolSize, int active, int idle, int waiting,
+			long acquireCount, double acquireTimeMean, double acquireTimeMax) {
+		this.poolName = poolName;
+		this.maximumPoolSize = maximumPoolSize;
+		this.active = active;
+		this.idle = idle;
+		this.waiting = waiting;
+		this.acquireCount = acquireCount;
+		this.acquireTimeMean = acquireTimeMean;
+		this.acquireTimeMax = acquireTimeMax;
+	}
+
+	public String getPoolName() {
+		return poolName;
+	}
+
+	void setPoolName(String poolName) {
+		this.poolName = poolName;
+	}
+
+	public int getMaximumPoolSize() {
+		return maximumPoolSize;
+	}
+
+	void setMaximumPoolSize(int maximumPoolSize) {
+		this.maximumPoolSize = maximumPoolSize;
+	}
+
+	public int getActive() {
+		return active;
+	}
+
+	void setActive(int active) {
+		this.active = active;
+	}
+
+	public int getIdle() {
+		return idle;
+	}
+
+	void setIdle(int idle) {
+		this.idle = idle;
+	}
+
+	public int getWaiting() {
+		return waiting;
+	}
+
+	void setWaiting(int waiting) {
+		this.waiting = waiting;
+	}
+
+	public long getAcquireCount() {
+		return acquireCount;
+	}
+
+	void setAcquireCount(long acquireCount) {
+		this.acquireCount = acquireCount;
+	}
+
+	public double getAcquireTimeMean() {
+		return acquireTimeMean;
+	}
+
+	void setAcquireTimeMean(double acquireTimeMean) {
+		this.acquireTimeMean = acquireTimeMean;
+	}
+
+	public double getAcquireTimeMax() {
+		return acquireTimeMax;
+	}
+
+	void setAcquireTimeMax(double acquireTimeMax) {
+		this.acquireTimeMax = acquireTimeMax;
+	}
+}
@@ -0,0 +1,57 @@
+package com.letitbeat.fitracker.ingest;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.persist.PersistService;
+import com.google.inject.persist.UnitOfWork;
+import com.letitbeat.fitracker.RootModule;
+import com.letitbeat.fitracker.StartupProfile;
+import com.letitbeat.fitracker.dto.ImportResultDto;
+import com.letitbeat.fitracker.rest.ExerciseService;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Imports a local newline delimited JSON file into the database of the persistence unit:
+ *
+ * <pre>
+ * java -Dhibernate.connection.url=jdbc:hsqldb:file:data/fitracker -cp ... \
+ *     com.letitbeat.fitracker.ingest.ExerciseImportCommand exercises.ndjson [chunkSize]
+ * </pre>
+ *
+ * The command runs with the production profile, so it inserts no test data into the database. The
+ * default database of the persistence unit is in memory, the database to import into is set with
+ * the system property hibernate.connection.url.
+ */
+public final class ExerciseImportCommand {
+
+	private ExerciseImportCommand() {
+	}
+
+	public static void main(final String[] args) throws IOException {
+		if (args.length < 1 || args.length > 2) {
+			System.err.println("Usage: ExerciseImportCommand <file> [chunkSize]");
+			System.exit(1);
+		}
+
+		final Integer chunkSize = args.length > 1 ? Integer.valueOf(args[1]) : null;
+
+		final Injector injector = Guice.createInjector(new RootModule(StartupProfile.PRODUCTION, new Properties()));
+		final UnitOfWork unitOfWork = injector.getInstance(UnitOfWork.class);
+
+		unitOfWork.begin();
+		try (InputStream input = Files.newInputStream(Paths.get(args[0]))) {
+			final ImportResultDto result = injector.getInstance(ExerciseService.class)
+					.importExercises(input, chunkSize);
+
+			System.out.println(String.format("Imported %d exercises, rejected %d in %d ms (%.0f rows/sec)",
+					result.getImported(), result.getRejected(), result.getDuration(), result.getRowsPerSecond()));
+		} finally {
+			unitOfWork.end();
+			injector.getInstance(PersistService.class).stop();
+		}
+	}
+}
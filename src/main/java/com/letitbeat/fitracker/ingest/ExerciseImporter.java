@@ -0,0 +1,175 @@
+package com.letitbeat.fitracker.ingest;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.letitbeat.fitracker.dto.ImportResultDto;
+import com.letitbeat.fitracker.jpa.dao.ExerciseDao;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import com.letitbeat.fitracker.rest.ObjectMapperProvider;
+import com.letitbeat.fitracker.rest.UserVersions;
+import com.letitbeat.fitracker.score.ScoreCalculator;
+import com.letitbeat.fitracker.score.ScoreIndex;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Imports exercises from newline delimited JSON, one exercise object per line.
+ *
+ * The input is read incrementally with the Jackson streaming parser and every chunk of exercises
+ * is persisted in its own transaction, so only a single chunk is kept in memory regardless of the
+ * size of the input. Exercises which can not be mapped or do not pass the validation are skipped,
+ * the ids of the input are ignored and new ones are generated. Unlike a single created exercise,
+ * imported exercises are not checked for start time conflicts.
+ */
+@Singleton
+public class ExerciseImporter {
+
+	private static final Logger log = LoggerFactory.getLogger(ExerciseImporter.class);
+
+	/**
+	 * Minimum interval between two progress log messages.
+	 */
+	private static final long PROGRESS_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+	private final ExerciseDao exerciseDao;
+
+	private final ScoreIndex scoreIndex;
+
+	private final ObjectMapperProvider objectMapperProvider;
+
+	private final UserVersions userVersions;
+
+	@Inject
+	ExerciseImporter(final ExerciseDao exerciseDao, final ScoreIndex scoreIndex,
+			final ObjectMapperProvider objectMapperProvider, final UserVersions userVersions) {
+		this.exerciseDao = exerciseDao;
+		this.scoreIndex = scoreIndex;
+		this.objectMapperProvider = objectMapperProvider;
+		this.userVersions = userVersions;
+	}
+
+	/**
+	 * Imports all exercises of the given input. If the input is malformed the import stops, the
+	 * chunks committed up to then stay persisted.
+	 *
+	 * @param input the newline delimited JSON
+	 * @param chunkSize number of exercises per transaction
+	 * @param validator rejects an exercise by throwing an {@link IllegalArgumentException}
+	 * @return the number of imported and rejected exercises
+	 * @throws IllegalArgumentException if the input is not valid JSON
+	 * @throws IOException if the input could not be read
+	 */
+	@Nonnull
+	public ImportResultDto importExercises(@Nonnull final InputStream input, final int chunkSize,
+			@Nonnull final Consumer<Exercise> validator) throws IOException {
+
+		final ObjectMapper objectMapper = objectMapperProvider.getContext(Exercise.class);
+		final Progress progress = new Progress();
+		final List<Exercise> chunk = new ArrayList<>(chunkSize);
+
+		try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+			JsonToken token;
+			while ((token = parser.nextToken()) != null) {
+				final int line = parser.getCurrentLocation().getLineNr();
+
+				if (token != JsonToken.START_OBJECT) {
+					throw new JsonParseException("Expected an exercise object but found " + token,
+							parser.getCurrentLocation());
+				}
+
+				try {
+					final Exercise exercise = objectMapper.readValue(parser, Exercise.class);
+					exercise.setId(null);
+					validator.accept(exercise);
+					chunk.add(exercise);
+				} catch (JsonMappingException | IllegalArgumentException e) {
+					log.warn(String.format("Skipping the exercise in line %d: %s", line, e.getMessage()));
+					skipToRoot(parser);
+					progress.rejected++;
+				}
+
+				if (chunk.size() >= chunkSize) {
+					commit(chunk, progress);
+				}
+			}
+			commit(chunk, progress);
+		} catch (JsonParseException e) {
+			throw new IllegalArgumentException(String.format(
+					"Malformed JSON in line %d, %d exercises were imported before: %s",
+					e.getLocation().getLineNr(), progress.imported, e.getOriginalMessage()), e);
+		}
+
+		final long duration = System.currentTimeMillis() - progress.startTime;
+		log.info(String.format("Imported %d exercises, rejected %d in %d ms (%.0f rows/sec)",
+				progress.imported, progress.rejected, duration, progress.getRowsPerSecond()));
+
+		return new ImportResultDto(progress.imported, progress.rejected, duration,
+				progress.getRowsPerSecond());
+	}
+
+	/**
+	 * Persists the chunk in its own transaction, adds the exercises inside the score window to the
+	 * score index and increments the versions of their users.
+	 */
+	private void commit(final List<Exercise> chunk, final Progress progress) {
+		if (chunk.isEmpty()) {
+			return;
+		}
+
+		final long windowStart = ScoreCalculator.windowStart(new Date()).getTime();
+		for (Exercise exercise : exerciseDao.createAll(chunk)) {
+			if (exercise.getStartTime().getTime() >= windowStart) {
+				scoreIndex.exerciseCreated(exercise);
+			}
+			userVersions.increment(exercise.getUserId());
+		}
+
+		progress.imported += chunk.size();
+		chunk.clear();
+
+		final long now = System.currentTimeMillis();
+		if (now - progress.lastLogTime >= PROGRESS_INTERVAL_MILLIS) {
+			progress.lastLogTime = now;
+			log.info(String.format("Imported %d exercises so far (%.0f rows/sec)", progress.imported,
+					progress.getRowsPerSecond()));
+		}
+	}
+
+	/**
+	 * Moves the parser behind the root level object it is currently in.
+	 */
+	private void skipToRoot(final JsonParser parser) throws IOException {
+		while (!parser.getParsingContext().inRoot() && parser.nextToken() != null) {
+			// skip the remaining tokens of the object
+		}
+	}
+
+	private static final class Progress {
+
+		private final long startTime = System.currentTimeMillis();
+
+		private long lastLogTime = startTime;
+
+		private long imported;
+
+		private long rejected;
+
+		double getRowsPerSecond() {
+			final long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+			return (imported + rejected) * 1000.0 / elapsed;
+		}
+	}
+}
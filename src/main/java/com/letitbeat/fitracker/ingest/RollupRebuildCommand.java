@@ -0,0 +1,38 @@
+package com.letitbeat.fitracker.ingest;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.persist.PersistService;
+import com.letitbeat.fitracker.RootModule;
+import com.letitbeat.fitracker.StartupProfile;
+import com.letitbeat.fitracker.jpa.dao.ExerciseRollupDao;
+import java.util.Properties;
+
+/**
+ * Recalculates the daily exercise totals of all users from the exercise table, e.g. after the
+ * exercises were changed directly in the database:
+ *
+ * <pre>
+ * java -Dhibernate.connection.url=jdbc:hsqldb:file:data/fitracker -cp ... \
+ *     com.letitbeat.fitracker.ingest.RollupRebuildCommand
+ * </pre>
+ *
+ * The command runs with the production profile, so it inserts no test data into the database. The
+ * database is set with the system property hibernate.connection.url.
+ */
+public final class RollupRebuildCommand {
+
+	private RollupRebuildCommand() {
+	}
+
+	public static void main(final String[] args) {
+		final Injector injector = Guice.createInjector(new RootModule(StartupProfile.PRODUCTION, new Properties()));
+		try {
+			final int rows = injector.getInstance(ExerciseRollupDao.class).rebuild();
+
+			System.out.println(String.format("Rebuilt %d rollup rows", rows));
+		} finally {
+			injector.getInstance(PersistService.class).stop();
+		}
+	}
+}
@@ -0,0 +1,257 @@
+package com.letitbeat.fitracker.ingest;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.letitbeat.fitracker.jpa.dao.ExerciseDao;
+import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import com.letitbeat.fitracker.rest.UserVersions;
+import com.letitbeat.fitracker.score.ScoreIndex;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates the exercises of a {@link SyntheticDataSpec} and bulk loads them with
+ * {@link ExerciseDao#insertAll(List)}, one transaction per chunk.
+ *
+ * The time span is divided into one slot per exercise of a user, every exercise starts and ends
+ * within its own slot, so the exercises of a user never overlap and pass the overlap check of the
+ * REST interface. A slot of a day or more gets an exercise during the day, shorter slots give
+ * several exercises on the same day. The exercises of a user are drawn from a random source seeded
+ * with the seed of the spec and the user id, so they do not depend on the chunk size or the other
+ * users.
+ */
+@Singleton
+public class SyntheticDataGenerator {
+
+	private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+	/**
+	 * Number of exercises per transaction.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 10000;
+
+	private static final long PROGRESS_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+	private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+	/**
+	 * Exercises of a slot of at least a day start between 6:00 and 21:00 UTC.
+	 */
+	private static final long FIRST_START_OF_DAY_MILLIS = TimeUnit.HOURS.toMillis(6);
+
+	private static final long LAST_START_OF_DAY_MILLIS = TimeUnit.HOURS.toMillis(21);
+
+	private static final int MIN_DURATION_SECONDS = 300;
+
+	private static final int MAX_DURATION_SECONDS = 7200;
+
+	private static final String[] TIMES_OF_DAY = {"Morning", "Lunch", "Afternoon", "Evening"};
+
+	private final ExerciseDao exerciseDao;
+
+	private final ScoreIndex scoreIndex;
+
+	private final UserVersions userVersions;
+
+	@Inject
+	SyntheticDataGenerator(final ExerciseDao exerciseDao, final ScoreIndex scoreIndex,
+			final UserVersions userVersions) {
+		this.exerciseDao = exerciseDao;
+		this.scoreIndex = scoreIndex;
+		this.userVersions = userVersions;
+	}
+
+	/**
+	 * Generates and stores the exercises of the spec with the default chunk size.
+	 *
+	 * @param spec the dataset to generate
+	 * @return the number of stored exercises
+	 * @throws IllegalArgumentException if the spec is invalid
+	 */
+	public long generate(@Nonnull final SyntheticDataSpec spec) {
+		return generate(spec, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Generates and stores the exercises of the spec. The score index is loaded again on the next
+	 * access.
+	 *
+	 * @param spec the dataset to generate
+	 * @param chunkSize number of exercises per transaction
+	 * @return the number of stored exercises
+	 * @throws IllegalArgumentException if the spec is invalid
+	 */
+	public long generate(@Nonnull final SyntheticDataSpec spec, final int chunkSize) {
+		spec.validate();
+		log.info(String.format("Generating %s", spec));
+
+		final long startTime = System.currentTimeMillis();
+		long lastLogTime = startTime;
+		long generated = 0;
+		final List<Exercise> chunk = new ArrayList<>(chunkSize);
+		try {
+			for (long userId = spec.getFirstUserId(); userId < spec.getFirstUserId() + spec.getUsers(); userId++) {
+				final UserExercises exercises = new UserExercises(spec, userId);
+				for (int i = 0; i < spec.getExercisesPerUser(); i++) {
+					chunk.add(exercises.next(i));
+					if (chunk.size() >= chunkSize) {
+						generated += insert(chunk);
+
+						final long now = System.currentTimeMillis();
+						if (now - lastLogTime >= PROGRESS_INTERVAL_MILLIS) {
+							lastLogTime = now;
+							log.info(String.format("Generated %d exercises so far (%.0f rows/sec)", generated,
+									generated * 1000.0 / Math.max(1, now - startTime)));
+						}
+					}
+				}
+			}
+			generated += insert(chunk);
+		} finally {
+			scoreIndex.invalidate();
+		}
+
+		final long duration = System.currentTimeMillis() - startTime;
+		log.info(String.format("Generated %d exercises in %d ms (%.0f rows/sec)", generated, duration,
+				generated * 1000.0 / Math.max(1, duration)));
+		return generated;
+	}
+
+	private int insert(@Nonnull final List<Exercise> chunk) {
+		if (chunk.isEmpty()) {
+			return 0;
+		}
+		exerciseDao.insertAll(chunk);
+
+		Long previousUserId = null;
+		for (Exercise exercise : chunk) {
+			if (!exercise.getUserId().equals(previousUserId)) {
+				previousUserId = exercise.getUserId();
+				userVersions.increment(previousUserId);
+			}
+		}
+
+		final int size = chunk.size();
+		chunk.clear();
+		return size;
+	}
+
+	/**
+	 * The exercises of one user in the order of their start time.
+	 */
+	private static final class UserExercises {
+
+		private final SyntheticDataSpec spec;
+
+		private final long userId;
+
+		private final Random random;
+
+		private final ExerciseType[] types;
+
+		private final int[] cumulativeWeights;
+
+		private final long slotMillis;
+
+		private final long firstStart;
+
+		UserExercises(@Nonnull final SyntheticDataSpec spec, final long userId) {
+			this.spec = spec;
+			this.userId = userId;
+			this.random = new Random(spec.getSeed() * 31 + userId);
+			this.slotMillis = spec.getSpanMillis() / spec.getExercisesPerUser();
+			this.firstStart = spec.getEndTime().getTime() - spec.getSpanMillis();
+
+			final Map<ExerciseType, Integer> weights = spec.getTypeWeights();
+			types = weights.keySet().toArray(new ExerciseType[weights.size()]);
+			cumulativeWeights = new int[types.length];
+			int total = 0;
+			for (int i = 0; i < types.length; i++) {
+				total += weights.get(types[i]);
+				cumulativeWeights[i] = total;
+			}
+		}
+
+		@Nonnull
+		Exercise next(final int index) {
+			final long slotStart = firstStart + index * slotMillis;
+			final long slotEnd = slotStart + slotMillis;
+			final ExerciseType type = nextType();
+
+			// at most half of the slot, so there is a gap between the exercises of short slots
+			final int maxDuration = (int) Math.min(MAX_DURATION_SECONDS,
+					TimeUnit.MILLISECONDS.toSeconds(slotMillis) / 2);
+			final int duration = maxDuration <= MIN_DURATION_SECONDS
+					? maxDuration
+					: MIN_DURATION_SECONDS + random.nextInt(maxDuration - MIN_DURATION_SECONDS + 1);
+			final long durationMillis = TimeUnit.SECONDS.toMillis(duration);
+
+			final long firstDay = (slotStart + DAY_MILLIS - 1) / DAY_MILLIS * DAY_MILLIS;
+			final long days = (slotEnd - firstDay) / DAY_MILLIS;
+			final long start;
+			if (days >= 1) {
+				// a whole day within the slot, at a time of the day people exercise
+				start = firstDay + nextLong(days) * DAY_MILLIS + FIRST_START_OF_DAY_MILLIS
+						+ nextLong(LAST_START_OF_DAY_MILLIS - FIRST_START_OF_DAY_MILLIS);
+			} else {
+				start = slotStart + nextLong(slotMillis - durationMillis);
+			}
+
+			final Exercise exercise = new Exercise();
+			exercise.setUserId(userId);
+			exercise.setType(type);
+			exercise.setDescription(TIMES_OF_DAY[random.nextInt(TIMES_OF_DAY.length)] + " "
+					+ type.name().replace('_', ' ').toLowerCase(Locale.ROOT));
+			exercise.setStartTime(new Date(start));
+			exercise.setDuration(duration);
+			exercise.setDistance((int) (duration * metersPerSecond(type) * (0.8 + random.nextDouble() * 0.4)));
+			exercise.setCalories((int) (duration / 60.0 * (3 + 2 * type.getMultiplier())
+					* (0.8 + random.nextDouble() * 0.4)));
+			return exercise;
+		}
+
+		@Nonnull
+		private ExerciseType nextType() {
+			final int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+			for (int i = 0; i < types.length; i++) {
+				if (value < cumulativeWeights[i]) {
+					return types[i];
+				}
+			}
+			throw new IllegalStateException("No exercise type for the weights " + spec.getTypeWeights());
+		}
+
+		/**
+		 * @return a random value from 0 (inclusive) to the bound (exclusive), 0 for a bound below 1
+		 */
+		private long nextLong(final long bound) {
+			return bound < 1 ? 0 : (long) (random.nextDouble() * bound);
+		}
+
+		private static double metersPerSecond(@Nonnull final ExerciseType type) {
+			switch (type) {
+				case RUNNING:
+					return 3.0;
+				case CYCLING:
+					return 7.0;
+				case SWIMMING:
+					return 0.8;
+				case ROWING:
+					return 3.5;
+				case WALKING:
+					return 1.4;
+				default:
+					return 0.0;
+			}
+		}
+	}
+}
@@ -0,0 +1,217 @@
+package com.letitbeat.fitracker.ingest;
+
+import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+/**
+ * Describes a synthetic dataset for the {@link SyntheticDataGenerator}: a range of users with the
+ * same number of exercises each, spread over a time span which ends at a fixed time, with the types
+ * drawn from weights. The same spec, including the seed and the end time, always gives the same
+ * exercises.
+ *
+ * The dev startup profile reads the spec from system properties, see
+ * {@link #fromSystemProperties()}.
+ */
+public class SyntheticDataSpec {
+
+	/**
+	 * Number of users, the synthetic dataset is only generated at startup if it is positive.
+	 */
+	public static final String USERS_PROPERTY = "fitracker.synthetic.users";
+
+	public static final String FIRST_USER_ID_PROPERTY = "fitracker.synthetic.firstUserId";
+
+	public static final String EXERCISES_PER_USER_PROPERTY = "fitracker.synthetic.exercisesPerUser";
+
+	/**
+	 * Length of the time span in days.
+	 */
+	public static final String DAYS_PROPERTY = "fitracker.synthetic.days";
+
+	/**
+	 * End of the time span in epoch milliseconds, default is the current time.
+	 */
+	public static final String END_TIME_PROPERTY = "fitracker.synthetic.endTime";
+
+	/**
+	 * Weights of the exercise types, e.g. "RUNNING=5,CYCLING=3,SWIMMING=2". Default is the same
+	 * weight for every type.
+	 */
+	public static final String TYPES_PROPERTY = "fitracker.synthetic.types";
+
+	public static final String SEED_PROPERTY = "fitracker.synthetic.seed";
+
+	/**
+	 * Minimum time per exercise, so a user has room for the shortest exercise between two others.
+	 */
+	static final long MIN_SLOT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+	private long firstUserId = 1;
+
+	private int users = 1000;
+
+	private int exercisesPerUser = 100;
+
+	private int days = 28;
+
+	private Date endTime = new Date();
+
+	private Map<ExerciseType, Integer> typeWeights = uniformWeights();
+
+	private long seed = 42;
+
+	/**
+	 * Reads the spec from the system properties, the defaults are used for missing properties
+	 * except for the number of users, which is 0.
+	 *
+	 * @return the spec of the dev startup profile
+	 * @throws IllegalArgumentException if a property is invalid
+	 */
+	@Nonnull
+	public static SyntheticDataSpec fromSystemProperties() {
+		final SyntheticDataSpec spec = new SyntheticDataSpec()
+				.setUsers(Integer.getInteger(USERS_PROPERTY, 0))
+				.setFirstUserId(Long.getLong(FIRST_USER_ID_PROPERTY, 1))
+				.setExercisesPerUser(Integer.getInteger(EXERCISES_PER_USER_PROPERTY, 100))
+				.setDays(Integer.getInteger(DAYS_PROPERTY, 28))
+				.setSeed(Long.getLong(SEED_PROPERTY, 42));
+
+		final Long endTime = Long.getLong(END_TIME_PROPERTY);
+		if (endTime != null) {
+			spec.setEndTime(new Date(endTime));
+		}
+		final String types = System.getProperty(TYPES_PROPERTY);
+		if (types != null) {
+			spec.setTypeWeights(parseTypeWeights(types));
+		}
+		return spec;
+	}
+
+	/**
+	 * @param weights e.g. "RUNNING=5,CYCLING=3", types without weight are not generated
+	 * @return the weight of every type
+	 * @throws IllegalArgumentException if a type or weight is invalid
+	 */
+	@Nonnull
+	public static Map<ExerciseType, Integer> parseTypeWeights(@Nonnull final String weights) {
+		final Map<ExerciseType, Integer> result = new EnumMap<>(ExerciseType.class);
+		for (String entry : weights.split(",")) {
+			final String[] parts = entry.trim().split("=");
+			if (parts.length != 2) {
+				throw new IllegalArgumentException("Invalid type weight, expected TYPE=weight: " + entry);
+			}
+			result.put(ExerciseType.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)),
+					Integer.valueOf(parts[1].trim()));
+		}
+		return result;
+	}
+
+	@Nonnull
+	public static Map<ExerciseType, Integer> uniformWeights() {
+		final Map<ExerciseType, Integer> result = new EnumMap<>(ExerciseType.class);
+		for (ExerciseType type : ExerciseType.values()) {
+			result.put(type, 1);
+		}
+		return result;
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the exercises of a user do not fit into the time span or
+	 * no type has a positive weight
+	 */
+	void validate() {
+		if (users < 0 || exercisesPerUser < 0 || days <= 0) {
+			throw new IllegalArgumentException(String.format(
+					"Invalid synthetic dataset: %d users, %d exercises per user, %d days", users,
+					exercisesPerUser, days));
+		}
+		if (exercisesPerUser > 0 && getSpanMillis() / exercisesPerUser < MIN_SLOT_MILLIS) {
+			throw new IllegalArgumentException(String.format(
+					"%d exercises per user do not fit into %d days without overlapping", exercisesPerUser, days));
+		}
+		if (typeWeights.values().stream().anyMatch(weight -> weight < 0)
+				|| typeWeights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+			throw new IllegalArgumentException("Invalid exercise type weights: " + typeWeights);
+		}
+	}
+
+	long getSpanMillis() {
+		return TimeUnit.DAYS.toMillis(days);
+	}
+
+	public long getFirstUserId() {
+		return firstUserId;
+	}
+
+	public SyntheticDataSpec setFirstUserId(final long firstUserId) {
+		this.firstUserId = firstUserId;
+		return this;
+	}
+
+	public int getUsers() {
+		return users;
+	}
+
+	public SyntheticDataSpec setUsers(final int users) {
+		this.users = users;
+		return this;
+	}
+
+	public int getExercisesPerUser() {
+		return exercisesPerUser;
+	}
+
+	public SyntheticDataSpec setExercisesPerUser(final int exercisesPerUser) {
+		this.exercisesPerUser = exercisesPerUser;
+		return this;
+	}
+
+	public int getDays() {
+		return days;
+	}
+
+	public SyntheticDataSpec setDays(final int days) {
+		this.days = days;
+		return this;
+	}
+
+	@Nonnull
+	public Date getEndTime() {
+		return endTime;
+	}
+
+	public SyntheticDataSpec setEndTime(@Nonnull final Date endTime) {
+		this.endTime = endTime;
+		return this;
+	}
+
+	@Nonnull
+	public Map<ExerciseType, Integer> getTypeWeights() {
+		return typeWeights;
+	}
+
+	public SyntheticDataSpec setTypeWeights(@Nonnull final Map<ExerciseType, Integer> typeWeights) {
+		this.typeWeights = new EnumMap<>(typeWeights);
+		return this;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public SyntheticDataSpec setSeed(final long seed) {
+		this.seed = seed;
+		return this;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d users from %d with %d exercises each over %d days until %tFT%<tT, types %s, seed %d",
+				users, firstUserId, exercisesPerUser, days, endTime, typeWeights, seed);
+	}
+}
@@ -0,0 +1,35 @@
+package com.letitbeat.fitracker.jpa;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Measures every statement and batch Hibernate executes for the {@link StatementBudget}, configured
+ * as hibernate.session.events.auto in the persistence.xml. Hibernate creates a listener per session
+ * and a session is used by a single thread.
+ */
+public class JdbcTimingListener extends BaseSessionEventListener {
+
+	private static final long serialVersionUID = 1L;
+
+	private long startTime;
+
+	@Override
+	public void jdbcExecuteStatementStart() {
+		startTime = System.nanoTime();
+	}
+
+	@Override
+	public void jdbcExecuteStatementEnd() {
+		StatementBudget.statementExecuted(System.nanoTime() - startTime);
+	}
+
+	@Override
+	public void jdbcExecuteBatchStart() {
+		startTime = System.nanoTime();
+	}
+
+	@Override
+	public void jdbcExecuteBatchEnd() {
+		StatementBudget.statementExecuted(System.nanoTime() - startTime);
+	}
+}
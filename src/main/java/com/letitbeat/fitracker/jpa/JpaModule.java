@@ -1,27 +1,69 @@
 package com.letitbeat.fitracker.jpa;
 
+import java.util.Properties;
+
 import com.google.inject.Singleton;
 import com.google.inject.persist.jpa.JpaPersistModule;
 import com.google.inject.servlet.ServletModule;
 
 import com.letitbeat.fitracker.jpa.dao.ExerciseDao;
 import com.letitbeat.fitracker.jpa.dao.ExerciseDaoImpl;
+import com.letitbeat.fitracker.jpa.dao.ExerciseRollupDao;
+import com.letitbeat.fitracker.jpa.dao.ExerciseRollupDaoImpl;
 
 public class JpaModule extends ServletModule {
 
 	/**
 	 * The name of the JPA persistence unit, must be the same as in the persistence.xml.
 	 */
-	private static final String PERSISTENCE_UNIT_NAME = "hsqldb";
+	static final String PERSISTENCE_UNIT_NAME = "hsqldb";
+
+	/**
+	 * Prefixes of the persistence unit properties which can be overridden with system properties.
+	 */
+	private static final String[] OVERRIDABLE_PREFIXES = {"hibernate.connection.",
+			PooledConnectionProvider.PROPERTY_PREFIX, "hibernate.cache."};
+
+	private final Properties properties;
+
+	public JpaModule() {
+		this(new Properties());
+	}
+
+	/**
+	 * @param properties overrides the properties of the persistence unit
+	 */
+	public JpaModule(final Properties properties) {
+		this.properties = properties;
+	}
 
 	@Override
 	protected void configureServlets() {
 		super.configureServlets();
 
-		install(new JpaPersistModule(PERSISTENCE_UNIT_NAME));
+		install(new JpaPersistModule(PERSISTENCE_UNIT_NAME).properties(withSystemOverrides(properties)));
 		filter("/*").through(JpaPersistFilter.class);
 		bind(JpaPersistenceInitializer.class).asEagerSingleton();
 
 		bind(ExerciseDao.class).to(ExerciseDaoImpl.class).in(Singleton.class);
+		bind(ExerciseRollupDao.class).to(ExerciseRollupDaoImpl.class).in(Singleton.class);
+	}
+
+	/**
+	 * Adds the connection, pool and cache settings given as system properties, e.g.
+	 * -Dhibernate.hikari.maximumPoolSize=20, unless the given properties set them already. Hibernate
+	 * itself lets the persistence.xml win over system properties.
+	 */
+	private static Properties withSystemOverrides(final Properties properties) {
+		final Properties merged = new Properties();
+		for (String name : System.getProperties().stringPropertyNames()) {
+			for (String prefix : OVERRIDABLE_PREFIXES) {
+				if (name.startsWith(prefix)) {
+					merged.setProperty(name, System.getProperty(name));
+				}
+			}
+		}
+		merged.putAll(properties);
+		return merged;
 	}
 }
@@ -8,6 +8,7 @@ import javax.servlet.FilterConfig;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
@@ -17,6 +18,8 @@ import com.google.inject.persist.UnitOfWork;
 /**
  * Overrides Guice implementation to handle when the persistence service is already started.
  *
+ * The SQL statements of the unit of work of a request are counted by the {@link StatementBudget}.
+ *
  * https://stackoverflow.com/questions/17402081/how-to-start-jpa-in-a-guice-quartz-web-application
  */
 @Singleton
@@ -46,11 +49,14 @@ final class JpaPersistFilter implements Filter {
 
 	public void doFilter(final ServletRequest servletRequest, final ServletResponse servletResponse, final FilterChain filterChain)
 			throws IOException, ServletException {
+		final HttpServletRequest request = (HttpServletRequest) servletRequest;
+		StatementBudget.begin(request.getMethod() + " " + request.getRequestURI());
 		unitOfWork.begin();
 		try {
 			filterChain.doFilter(servletRequest, servletResponse);
 		} finally {
 			unitOfWork.end();
+			StatementBudget.end();
 		}
 	}
 }
@@ -4,11 +4,20 @@ import com.google.inject.Inject;
 import com.google.inject.persist.PersistService;
 import com.google.inject.persist.Transactional;
 
+import com.letitbeat.fitracker.StartupTimer;
+
 @Transactional
 class JpaPersistenceInitializer {
 
+	private static final String STARTUP_PHASE = "EntityManagerFactory";
+
 	@Inject
 	public JpaPersistenceInitializer(final PersistService persistenceService) {
-		persistenceService.start();
+		StartupTimer.begin(STARTUP_PHASE);
+		try {
+			persistenceService.start();
+		} finally {
+			StartupTimer.end(STARTUP_PHASE);
+		}
 	}
 }
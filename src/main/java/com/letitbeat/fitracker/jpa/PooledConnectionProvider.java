@@ -0,0 +1,182 @@
+package com.letitbeat.fitracker.jpa;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.HibernateException;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.service.UnknownUnwrapTypeException;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.Stoppable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import com.letitbeat.fitracker.dto.PoolStatsDto;
+
+/**
+ * Hands out the JDBC connections of Hibernate from a HikariCP pool instead of the built-in
+ * connection provider, which is not meant for production use.
+ *
+ * The pool is configured with the hibernate.hikari.* properties of the persistence unit, the
+ * prefix is removed and the remaining name is set on the {@link HikariConfig}, for example
+ * hibernate.hikari.maximumPoolSize or hibernate.hikari.dataSource.cachePrepStmts for a driver
+ * property. The url, user and driver default to the hibernate.connection.* properties. Besides the
+ * pool state the provider measures how long Hibernate waits for a connection.
+ *
+ * With the property {@value SchemaScript#PROPERTY} the provider creates the schema of an empty
+ * database from a {@link SchemaScript}. It is the first component of Hibernate with a connection,
+ * so the schema exists before Hibernate validates it.
+ */
+public class PooledConnectionProvider implements ConnectionProvider, Configurable, Stoppable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final Logger log = LoggerFactory.getLogger(PooledConnectionProvider.class);
+
+	/**
+	 * Prefix of the persistence unit properties passed to the pool.
+	 */
+	public static final String PROPERTY_PREFIX = "hibernate.hikari.";
+
+	private HikariDataSource dataSource;
+
+	private final LongAdder acquireCount = new LongAdder();
+
+	private final LongAdder acquireNanos = new LongAdder();
+
+	private final LongAccumulator maxAcquireNanos = new LongAccumulator(Long::max, 0);
+
+	/**
+	 * Returns the connection provider of a persistence unit.
+	 *
+	 * @param entityManagerFactory the started persistence unit
+	 * @return the provider or null if the persistence unit does not use a pool
+	 */
+	@Nullable
+	public static PooledConnectionProvider of(@Nonnull final EntityManagerFactory entityManagerFactory) {
+		final ConnectionProvider connectionProvider = entityManagerFactory
+				.unwrap(SessionFactoryImplementor.class)
+				.getServiceRegistry()
+				.getService(ConnectionProvider.class);
+
+		return connectionProvider instanceof PooledConnectionProvider
+				? (PooledConnectionProvider) connectionProvider : null;
+	}
+
+	@Override
+	@SuppressWarnings("rawtypes")
+	public void configure(final Map configurationValues) {
+		final Properties poolProperties = new Properties();
+		for (Object entry : configurationValues.entrySet()) {
+			final Map.Entry property = (Map.Entry) entry;
+			final String key = String.valueOf(property.getKey());
+			if (key.startsWith(PROPERTY_PREFIX)) {
+				poolProperties.setProperty(key.substring(PROPERTY_PREFIX.length()), String.valueOf(property.getValue()));
+			}
+		}
+
+		final HikariConfig config = new HikariConfig(poolProperties);
+		if (config.getJdbcUrl() == null) {
+			config.setJdbcUrl((String) configurationValues.get(AvailableSettings.URL));
+		}
+		if (config.getUsername() == null) {
+			config.setUsername((String) configurationValues.get(AvailableSettings.USER));
+			config.setPassword((String) configurationValues.get(AvailableSettings.PASS));
+		}
+		if (config.getDriverClassName() == null) {
+			config.setDriverClassName((String) configurationValues.get(AvailableSettings.DRIVER));
+		}
+
+		dataSource = new HikariDataSource(config);
+		log.info(String.format("Started connection pool %s with at most %d connections", dataSource.getPoolName(),
+				dataSource.getMaximumPoolSize()));
+
+		final Object schemaScript = configurationValues.get(SchemaScript.PROPERTY);
+		if (schemaScript != null) {
+			try {
+				SchemaScript.applyIfEmpty(dataSource, String.valueOf(schemaScript));
+			} catch (SQLException e) {
+				throw new HibernateException(String.format("Could not run the schema script %s", schemaScript), e);
+			}
+		}
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		final long start = System.nanoTime();
+		final Connection connection = dataSource.getConnection();
+		final long elapsed = System.nanoTime() - start;
+
+		acquireCount.increment();
+		acquireNanos.add(elapsed);
+		maxAcquireNanos.accumulate(elapsed);
+		return connection;
+	}
+
+	@Override
+	public void closeConnection(final Connection connection) throws SQLException {
+		connection.close();
+	}
+
+	@Override
+	public boolean supportsAggressiveRelease() {
+		return false;
+	}
+
+	@Override
+	public void stop() {
+		if (dataSource != null) {
+			dataSource.close();
+		}
+	}
+
+	/**
+	 * @return the current state of the pool and the connection acquire times since the start
+	 */
+	@Nonnull
+	public PoolStatsDto getStats() {
+		final HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+		final long count = acquireCount.sum();
+
+		return new PoolStatsDto(dataSource.getPoolName(), dataSource.getMaximumPoolSize(),
+				pool.getActiveConnections(), pool.getIdleConnections(), pool.getThreadsAwaitingConnection(),
+				count, count > 0 ? toMillis(acquireNanos.sum()) / count : 0.0, toMillis(maxAcquireNanos.get()));
+	}
+
+	@Override
+	@SuppressWarnings("rawtypes")
+	public boolean isUnwrappableAs(final Class unwrapType) {
+		return unwrapType.isInstance(this) || unwrapType.isInstance(dataSource);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T unwrap(final Class<T> unwrapType) {
+		if (unwrapType.isInstance(this)) {
+			return (T) this;
+		}
+		if (unwrapType.isInstance(dataSource)) {
+			return (T) dataSource;
+		}
+		throw new UnknownUnwrapTypeException(unwrapType);
+	}
+
+	private static double toMillis(final long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+}
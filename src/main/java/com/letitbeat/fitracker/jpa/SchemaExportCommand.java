@@ -0,0 +1,84 @@
+package com.letitbeat.fitracker.jpa;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.persistence.Persistence;
+
+import org.hibernate.cfg.AvailableSettings;
+
+/**
+ * Writes the DDL of the entity mapping to the {@link SchemaScript} of the production profile, run
+ * it after changing an entity:
+ *
+ * <pre>
+ * java -cp ... com.letitbeat.fitracker.jpa.SchemaExportCommand src/main/resources/META-INF/schema.sql
+ * </pre>
+ */
+public final class SchemaExportCommand {
+
+	private SchemaExportCommand() {
+	}
+
+	public static void main(final String[] args) throws IOException {
+		if (args.length != 1) {
+			System.err.println("Usage: SchemaExportCommand <file>");
+			System.exit(1);
+		}
+
+		final List<String> lines = new ArrayList<>();
+		lines.add(SchemaScript.COMMENT_PREFIX + " Generated from the entity mapping by SchemaExportCommand, do not edit");
+		for (String statement : export()) {
+			lines.add(statement + SchemaScript.DELIMITER);
+		}
+		Files.write(Paths.get(args[0]), lines, StandardCharsets.UTF_8);
+
+		System.out.println(String.format("Wrote %d statements to %s", lines.size() - 1, args[0]));
+	}
+
+	/**
+	 * Generates the DDL of the persistence unit without touching the database.
+	 *
+	 * @return the statements without the delimiter
+	 */
+	@Nonnull
+	static List<String> export() {
+		try {
+			final Path target = Files.createTempFile("schema", ".sql");
+			try {
+				// Hibernate appends to an existing file
+				Files.delete(target);
+
+				final Properties properties = new Properties();
+				properties.setProperty(AvailableSettings.HBM2DDL_DATABASE_ACTION, "none");
+				properties.setProperty(AvailableSettings.HBM2DDL_SCRIPTS_ACTION, "create");
+				properties.setProperty(AvailableSettings.HBM2DDL_SCRIPTS_CREATE_TARGET, target.toString());
+				properties.setProperty(AvailableSettings.HBM2DDL_DELIMITER, SchemaScript.DELIMITER);
+				Persistence.generateSchema(JpaModule.PERSISTENCE_UNIT_NAME, properties);
+
+				// Hibernate 5.1 writes every statement twice
+				final Set<String> statements = new LinkedHashSet<>();
+				for (String line : Files.readAllLines(target, StandardCharsets.UTF_8)) {
+					if (!line.trim().isEmpty()) {
+						statements.add(line.trim().replaceAll(SchemaScript.DELIMITER + "$", ""));
+					}
+				}
+				return new ArrayList<>(statements);
+			} finally {
+				Files.deleteIfExists(target);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
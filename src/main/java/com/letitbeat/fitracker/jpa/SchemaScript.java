@@ -0,0 +1,126 @@
+package com.letitbeat.fitracker.jpa;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The DDL of the persistence unit generated ahead of time by {@link SchemaExportCommand}. With the
+ * persistence unit property {@value #PROPERTY} the {@link PooledConnectionProvider} runs the script
+ * on an empty database, before Hibernate validates the schema instead of comparing it with the
+ * entity mapping and updating it.
+ */
+public final class SchemaScript {
+
+	private static final Logger log = LoggerFactory.getLogger(SchemaScript.class);
+
+	/**
+	 * Persistence unit property with the class path resource of the script.
+	 */
+	public static final String PROPERTY = "fitracker.schema.script";
+
+	/**
+	 * Class path resource of the script of the persistence unit.
+	 */
+	public static final String RESOURCE = "META-INF/schema.sql";
+
+	/**
+	 * Statements are separated by this delimiter, lines starting with the comment prefix are ignored.
+	 */
+	static final String DELIMITER = ";";
+
+	static final String COMMENT_PREFIX = "--";
+
+	private SchemaScript() {
+	}
+
+	/**
+	 * Runs the statements of a script if the current schema of the database has no tables.
+	 *
+	 * @param dataSource the database
+	 * @param resource class path resource of the script
+	 * @return whether the script was run
+	 * @throws SQLException if a statement fails
+	 */
+	static boolean applyIfEmpty(@Nonnull final DataSource dataSource, @Nonnull final String resource)
+			throws SQLException {
+		try (Connection connection = dataSource.getConnection()) {
+			try (ResultSet tables = connection.getMetaData().getTables(connection.getCatalog(),
+					connection.getSchema(), "%", new String[] {"TABLE"})) {
+				if (tables.next()) {
+					return false;
+				}
+			}
+
+			final long start = System.currentTimeMillis();
+			final List<String> statements = read(resource);
+			try (Statement statement = connection.createStatement()) {
+				for (String sql : statements) {
+					statement.execute(sql);
+				}
+			}
+			if (!connection.getAutoCommit()) {
+				connection.commit();
+			}
+			log.info(String.format("Created the schema with the %d statements of %s in %d ms", statements.size(),
+					resource, System.currentTimeMillis() - start));
+			return true;
+		}
+	}
+
+	/**
+	 * Reads the statements of a script.
+	 *
+	 * @param resource class path resource of the script
+	 * @return the statements without the delimiter
+	 * @throws IllegalArgumentException if the resource does not exist
+	 */
+	@Nonnull
+	static List<String> read(@Nonnull final String resource) {
+		final StringBuilder script = new StringBuilder();
+		for (String line : readResource(resource).split("\\R")) {
+			if (!line.trim().startsWith(COMMENT_PREFIX)) {
+				script.append(line).append('\n');
+			}
+		}
+
+		final List<String> statements = new ArrayList<>();
+		for (String statement : script.toString().split(DELIMITER)) {
+			if (!statement.trim().isEmpty()) {
+				statements.add(statement.trim());
+			}
+		}
+		return statements;
+	}
+
+	private static String readResource(final String resource) {
+		try (InputStream input = SchemaScript.class.getClassLoader().getResourceAsStream(resource)) {
+			if (input == null) {
+				throw new IllegalArgumentException(String.format("Schema script %s not found", resource));
+			}
+			final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			final byte[] buffer = new byte[4096];
+			int read;
+			while ((read = input.read(buffer)) != -1) {
+				bytes.write(buffer, 0, read);
+			}
+			return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
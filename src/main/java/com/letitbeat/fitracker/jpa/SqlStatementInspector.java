@@ -0,0 +1,18 @@
+package com.letitbeat.fitracker.jpa;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Passes the SQL of every statement Hibernate prepares to the {@link StatementBudget}, configured
+ * as hibernate.session_factory.statement_inspector in the persistence.xml.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public String inspect(final String sql) {
+		StatementBudget.statementPrepared(sql);
+		return sql;
+	}
+}
@@ -0,0 +1,197 @@
+package com.letitbeat.fitracker.jpa;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Counts the SQL statements and the JDBC time of a request, from {@link #begin(String)} to
+ * {@link #end()} on the same thread. The {@link JpaPersistFilter} opens a scope for the unit of
+ * work of every HTTP request, the asynchronous requests open their own scope on the worker thread.
+ * The statements are reported by Hibernate to the {@link SqlStatementInspector} and the
+ * {@link JdbcTimingListener}, plain JDBC work of a DAO is not counted.
+ *
+ * A request with more statements than {@value #BUDGET_PROPERTY} (default
+ * {@value #DEFAULT_BUDGET}) is logged with a warning, or fails at the first statement over the
+ * budget if {@value #FAIL_PROPERTY} is true, which the tests do to catch a query per user. A
+ * statement slower than {@value #SLOW_THRESHOLD_PROPERTY} milliseconds (default
+ * {@value #DEFAULT_SLOW_THRESHOLD_MILLIS}) is logged with its SQL and number of parameters, also
+ * outside of a request.
+ */
+public final class StatementBudget {
+
+	private static final Logger log = LoggerFactory.getLogger(StatementBudget.class);
+
+	/**
+	 * System property with the number of SQL statements a request may execute.
+	 */
+	public static final String BUDGET_PROPERTY = "fitracker.sql.statementBudget";
+
+	/**
+	 * System property which lets a request over the budget fail instead of logging a warning.
+	 */
+	public static final String FAIL_PROPERTY = "fitracker.sql.failOverBudget";
+
+	/**
+	 * System property with the milliseconds after which a statement is logged as slow.
+	 */
+	public static final String SLOW_THRESHOLD_PROPERTY = "fitracker.sql.slowThresholdMillis";
+
+	private static final int DEFAULT_BUDGET = 100;
+
+	private static final long DEFAULT_SLOW_THRESHOLD_MILLIS = 200;
+
+	private static final long SLOW_THRESHOLD_NANOS = TimeUnit.MILLISECONDS
+			.toNanos(Long.getLong(SLOW_THRESHOLD_PROPERTY, DEFAULT_SLOW_THRESHOLD_MILLIS));
+
+	private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+
+	/**
+	 * The SQL of the statement prepared last on the thread, for the slow statement log.
+	 */
+	private static final ThreadLocal<String> CURRENT_SQL = new ThreadLocal<>();
+
+	private StatementBudget() {
+	}
+
+	/**
+	 * Starts counting the statements of the current thread with the configured budget.
+	 *
+	 * @param name describes the request in the log, e.g. "GET /rest/api/v1/exercise/ranking"
+	 */
+	public static void begin(@Nonnull final String name) {
+		begin(name, Integer.getInteger(BUDGET_PROPERTY, DEFAULT_BUDGET), Boolean.getBoolean(FAIL_PROPERTY));
+	}
+
+	static void begin(@Nonnull final String name, final int budget, final boolean failOverBudget) {
+		SCOPE.set(new Scope(name, budget, failOverBudget));
+	}
+
+	/**
+	 * Stops counting and logs a warning if the request went over the budget.
+	 *
+	 * @return the statements of the request, null if no scope was open
+	 */
+	@Nullable
+	public static Usage end() {
+		final Scope scope = SCOPE.get();
+		SCOPE.remove();
+		CURRENT_SQL.remove();
+		if (scope == null) {
+			return null;
+		}
+
+		final Usage usage = new Usage(scope.statements, scope.jdbcNanos);
+		if (scope.statements > scope.budget) {
+			log.warn(String.format("%s executed %d SQL statements, the budget is %d (%d ms JDBC time)",
+					scope.name, usage.getStatements(), scope.budget, usage.getJdbcMillis()));
+		} else if (log.isDebugEnabled()) {
+			log.debug(String.format("%s executed %d SQL statements in %d ms", scope.name, usage.getStatements(),
+					usage.getJdbcMillis()));
+		}
+		return usage;
+	}
+
+	/**
+	 * @return the name of the scope open on the current thread, to continue it on another thread
+	 */
+	@Nullable
+	public static String getName() {
+		final Scope scope = SCOPE.get();
+		return scope != null ? scope.name : null;
+	}
+
+	static void statementPrepared(final String sql) {
+		CURRENT_SQL.set(sql);
+	}
+
+	/**
+	 * Counts an executed statement or batch.
+	 *
+	 * @throws IllegalStateException if the statement is over the budget and a request over the
+	 * budget fails
+	 */
+	static void statementExecuted(final long nanos) {
+		final Scope scope = SCOPE.get();
+		if (nanos >= SLOW_THRESHOLD_NANOS) {
+			final String sql = CURRENT_SQL.get();
+			log.warn(String.format("Slow SQL statement in %s: %d ms, %d parameters: %s",
+					scope != null ? scope.name : "background work", TimeUnit.NANOSECONDS.toMillis(nanos),
+					countParameters(sql), sql));
+		}
+		if (scope == null) {
+			return;
+		}
+
+		scope.statements++;
+		scope.jdbcNanos += nanos;
+		if (scope.failOverBudget && scope.statements > scope.budget) {
+			throw new IllegalStateException(String.format("%s exceeded the budget of %d SQL statements with: %s",
+					scope.name, scope.budget, CURRENT_SQL.get()));
+		}
+	}
+
+	private static int countParameters(@Nullable final String sql) {
+		int parameters = 0;
+		if (sql != null) {
+			for (int i = 0; i < sql.length(); i++) {
+				if (sql.charAt(i) == '?') {
+					parameters++;
+				}
+			}
+		}
+		return parameters;
+	}
+
+	private static final class Scope {
+
+		private final String name;
+
+		private final int budget;
+
+		private final boolean failOverBudget;
+
+		private int statements;
+
+		private long jdbcNanos;
+
+		Scope(final String name, final int budget, final boolean failOverBudget) {
+			this.name = name;
+			this.budget = budget;
+			this.failOverBudget = failOverBudget;
+		}
+	}
+
+	/**
+	 * The SQL statements executed in a scope.
+	 */
+	public static final class Usage {
+
+		private final int statements;
+
+		private final long jdbcNanos;
+
+		Usage(final int statements, final long jdbcNanos) {
+			this.statements = statements;
+			this.jdbcNanos = jdbcNanos;
+		}
+
+		/**
+		 * @return the number of executed statements and batches
+		 */
+		public int getStatements() {
+			return statements;
+		}
+
+		/**
+		 * @return the time spent executing the statements in milliseconds
+		 */
+		public long getJdbcMillis() {
+			return TimeUnit.NANOSECONDS.toMillis(jdbcNanos);
+		}
+	}
+}
@@ -2,8 +2,12 @@ package com.letitbeat.fitracker.jpa.dao;
 
 import com.letitbeat.fitracker.jpa.domain.Exercise;
 import com.letitbeat.fitracker.jpa.domain.Enums;
+import com.letitbeat.fitracker.jpa.domain.ExerciseActivity;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -18,6 +22,21 @@ public interface ExerciseDao extends BaseDao<Exercise> {
 	@Nonnull
 	List<Exercise> findByDescription(@Nullable String description);
 
+	/**
+	 * Returns a page of the exercises with the given description, ordered by start time and id. The
+	 * page starts after the given start time and id, so every page costs the same regardless of
+	 * how many pages precede it.
+	 *
+	 * @param description of the exercise
+	 * @param afterStartTime start time of the last exercise of the previous page, null for the first page
+	 * @param afterId id of the last exercise of the previous page, null for the first page
+	 * @param limit maximum number of exercises to return
+	 * @return the page of exercises
+	 */
+	@Nonnull
+	List<Exercise> findPageByDescription(@Nullable String description, @Nullable Date afterStartTime,
+			@Nullable Long afterId, int limit);
+
 	/**
 	 * Returns a list of exercises for a specific user and from specific date.
 	 *
@@ -28,6 +47,89 @@ public interface ExerciseDao extends BaseDao<Exercise> {
 	@Nonnull
 	List<Exercise> findByDate(@Nonnull Long userId, @Nonnull Date fromDate);
 
+	/**
+	 * Returns the exercises of a user starting within a period, both bounds are inclusive.
+	 *
+	 * @param userId who did the exercises
+	 * @param fromDate filter: earliest start time of the exercises
+	 * @param toDate filter: latest start time of the exercises
+	 * @return list of exercises
+	 */
+	@Nonnull
+	List<Exercise> findByDateRange(@Nonnull Long userId, @Nonnull Date fromDate, @Nonnull Date toDate);
+
+	/**
+	 * Returns the number of exercises per type of a user starting within a period.
+	 *
+	 * @param userId who did the exercises
+	 * @param fromDate filter: earliest start time of the exercises, inclusive
+	 * @param toDate filter: end of the period, exclusive
+	 * @return the number of exercises of each type, types without exercises are missing
+	 */
+	@Nonnull
+	Map<Enums.ExerciseType, Long> countByType(@Nonnull Long userId, @Nonnull Date fromDate, @Nonnull Date toDate);
+
+	/**
+	 * Returns the exercise of a user with the latest start time not after the given time. The lookup
+	 * descends the (userId, startTime) index, so it costs the same regardless of the history length.
+	 *
+	 * @param userId who did the exercise
+	 * @param maxStartTime filter: latest start time of the exercise, inclusive
+	 * @param excludedId id of an exercise to ignore, e.g. the one being updated, may be null
+	 * @return the exercise or null if the user has none starting until then
+	 */
+	@Nullable
+	Exercise findLatestByStartTime(@Nonnull Long userId, @Nonnull Date maxStartTime,
+			@Nullable Long excludedId);
+
+	/**
+	 * Returns the score relevant fields of the exercises for a set of users from a specific date,
+	 * grouped by user. The activities of each user are sorted by start time, newest first. Users
+	 * without exercises are not contained in the result. Only the selected columns are read, no
+	 * entity is loaded into the persistence context.
+	 *
+	 * @param userIds who did the exercises
+	 * @param fromDate filter: from the date of the exercises
+	 * @return the activities of each user
+	 */
+	@Nonnull
+	Map<Long, List<ExerciseActivity>> findActivitiesByUserIdsAndDate(@Nonnull Collection<Long> userIds,
+			@Nonnull Date fromDate);
+
+	/**
+	 * Returns the score relevant fields of the exercises of all users from a specific date, grouped
+	 * by user. The activities of each user are sorted by start time, newest first. Only the selected
+	 * columns are read, no entity is loaded into the persistence context.
+	 *
+	 * @param fromDate filter: from the date of the exercises
+	 * @return the activities of each user
+	 */
+	@Nonnull
+	Map<Long, List<ExerciseActivity>> findActivitiesByDate(@Nonnull Date fromDate);
+
+	/**
+	 * Returns the score relevant fields of the exercises of a range of users from a specific date,
+	 * grouped by user. The activities of each user are sorted by start time, newest first. Only the
+	 * selected columns are read, no entity is loaded into the persistence context.
+	 *
+	 * @param fromUserId the first user of the range
+	 * @param toUserId the last user of the range, inclusive
+	 * @param fromDate filter: from the date of the exercises
+	 * @return the activities of each user
+	 */
+	@Nonnull
+	Map<Long, List<ExerciseActivity>> findActivitiesByUserIdRangeAndDate(@Nonnull Long fromUserId,
+			@Nonnull Long toUserId, @Nonnull Date fromDate);
+
+	/**
+	 * Returns the users with exercises from a specific date.
+	 *
+	 * @param fromDate filter: from the date of the exercises
+	 * @return the ids of the users, ascending
+	 */
+	@Nonnull
+	List<Long> findUserIdsByDate(@Nonnull Date fromDate);
+
 	/**
 	 * Returns a list of exercises for a specific user and some filter items (type + date).
 	 *
@@ -39,4 +141,64 @@ public interface ExerciseDao extends BaseDao<Exercise> {
 	@Nonnull
 	List<Exercise> findByTypeAndDate(@Nonnull Long userId, @Nullable Enums.ExerciseType exerciseType,
 			@Nullable Date date);
+
+	/**
+	 * Returns a page of the exercises for a specific user and some filter items (type + date),
+	 * ordered by start time and id. The page starts after the given start time and id.
+	 *
+	 * @param userId who did the exercise
+	 * @param exerciseType filter: type of the exercise
+	 * @param date filter: date ("yyyy-MM-dd") of the exercise
+	 * @param afterStartTime start time of the last exercise of the previous page, null for the first page
+	 * @param afterId id of the last exercise of the previous page, null for the first page
+	 * @param limit maximum number of exercises to return
+	 * @return the page of exercises
+	 */
+	@Nonnull
+	List<Exercise> findPageByTypeAndDate(@Nonnull Long userId, @Nullable Enums.ExerciseType exerciseType,
+			@Nullable Date date, @Nullable Date afterStartTime, @Nullable Long afterId, int limit);
+
+	/**
+	 * Passes all exercises of a user ordered by start time to the consumer. The exercises are read
+	 * through a database cursor and detached once consumed, so the whole history of the user is
+	 * never held in memory.
+	 *
+	 * @param userId who did the exercises
+	 * @param consumer receives the exercises one by one
+	 */
+	void scrollByUserId(@Nonnull Long userId, @Nonnull Consumer<Exercise> consumer);
+
+	/**
+	 * Passes the score relevant fields of all exercises of a user ordered by start time and id to
+	 * the consumer. Like {@link #scrollByUserId} the rows are read through a database cursor, but no
+	 * entity is loaded.
+	 *
+	 * @param userId who did the exercises
+	 * @param consumer receives the activities one by one
+	 */
+	void scrollActivitiesByUserId(@Nonnull Long userId, @Nonnull Consumer<ExerciseActivity> consumer);
+
+	/**
+	 * Persists the given exercises in a single transaction. The inserts are sent to the database in
+	 * JDBC batches and the persistence context is cleared after every batch, so the returned
+	 * exercises are detached.
+	 *
+	 * @param exercises the exercises to create
+	 * @return the created exercises with their ids
+	 */
+	@Nonnull
+	List<Exercise> createAll(@Nonnull List<Exercise> exercises);
+
+	/**
+	 * Inserts the given exercises with plain JDBC batches in a single transaction, bypassing the
+	 * persistence context, for loading large amounts of exercises. The ids are reserved from the
+	 * entity sequence like Hibernate does, the rollup totals and the activity store are updated like
+	 * by {@link #createAll(List)}. The exercises are not checked for overlaps and the score index is
+	 * not updated.
+	 *
+	 * @param exercises the exercises to insert
+	 * @return the given exercises with their ids
+	 */
+	@Nonnull
+	List<Exercise> insertAll(@Nonnull List<Exercise> exercises);
 }
@@ -3,25 +3,141 @@ package com.letitbeat.fitracker.jpa.dao;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.persist.Transactional;
+import com.letitbeat.fitracker.activity.ActivityStore;
+import com.letitbeat.fitracker.jpa.domain.AbstractEntity;
 import com.letitbeat.fitracker.jpa.domain.Exercise;
 import com.letitbeat.fitracker.jpa.domain.Enums;
+import com.letitbeat.fitracker.jpa.domain.ExerciseActivity;
+import com.letitbeat.fitracker.metrics.Timed;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.Query;
 import javax.persistence.TemporalType;
+import javax.persistence.TypedQuery;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.QueryHints;
+import org.hibernate.resource.transaction.spi.TransactionStatus;
 import org.joda.time.DateTime;
 
+@Timed
 @Transactional
 public class ExerciseDaoImpl extends AbstractBaseDao<Exercise> implements ExerciseDao {
 
+	/**
+	 * Maximum number of user ids bound to a single IN clause, larger id sets are split up.
+	 */
+	private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
+	/**
+	 * Number of inserts per JDBC batch, same as hibernate.jdbc.batch_size in the persistence.xml.
+	 */
+	private static final int BATCH_SIZE = 50;
+
+	/**
+	 * Number of inserts per JDBC batch of the bulk insert.
+	 */
+	private static final int BULK_BATCH_SIZE = 1000;
+
+	private static final String BULK_INSERT_SQL = "INSERT INTO Exercise "
+			+ "(id, userId, description, descriptionKey, type, startTime, duration, endTime, distance, calories) "
+			+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	/**
+	 * Number of rows the JDBC driver fetches per round trip while scrolling.
+	 */
+	private static final int SCROLL_FETCH_SIZE = 500;
+
+	/**
+	 * Continues a list ordered by start time and id after the last exercise of the previous page.
+	 */
+	private static final String KEYSET_CONDITION = "AND (startTime > :afterStartTime "
+			+ "OR (startTime = :afterStartTime AND id > :afterId)) ";
+
+	private static final String KEYSET_ORDER = "ORDER BY startTime, id";
+
+	/**
+	 * Selects the score relevant columns into an {@link ExerciseActivity} instead of an entity, so
+	 * the persistence context neither keeps a snapshot of the row nor dirty checks it.
+	 */
+	private static final String ACTIVITY_PROJECTION = "SELECT NEW com.letitbeat.fitracker.jpa.domain.ExerciseActivity("
+			+ "e.id, e.userId, e.type, e.startTime, e.duration, e.calories) ";
+
+	/**
+	 * Query cache region of the exercise lists, only used if the query cache is enabled. Hibernate
+	 * invalidates the cached results on every write to the exercise table.
+	 */
+	private static final String QUERY_CACHE_REGION = "exerciseQueries";
+
+	private final ExerciseRollupDao exerciseRollupDao;
+
+	private final ActivityStore activityStore;
+
 	@Inject
-	ExerciseDaoImpl(final Provider<EntityManager> entityManagerProvider) {
+	ExerciseDaoImpl(final Provider<EntityManager> entityManagerProvider, final ExerciseRollupDao exerciseRollupDao,
+			final ActivityStore activityStore) {
 		super(entityManagerProvider, Exercise.class);
+		this.exerciseRollupDao = exerciseRollupDao;
+		this.activityStore = activityStore;
+	}
+
+	@Override
+	public Exercise create(final Exercise item) {
+		final Exercise createdExercise = super.create(item);
+		exerciseRollupDao.add(Collections.singletonList(createdExercise));
+		afterCommit(() -> activityStore.add(Collections.singletonList(createdExercise)));
+		return createdExercise;
+	}
+
+	@Override
+	public Exercise update(final Exercise item) {
+		if (item == null) {
+			return null;
+		}
+		final Exercise previousExercise = findById(item.getId());
+		if (previousExercise != null) {
+			exerciseRollupDao.remove(previousExercise);
+			// the merge below changes the managed previous exercise
+			final Long previousUserId = previousExercise.getUserId();
+			afterCommit(() -> activityStore.remove(previousUserId, item.getId()));
+		}
+		final Exercise updatedExercise = super.update(item);
+		exerciseRollupDao.add(Collections.singletonList(updatedExercise));
+		afterCommit(() -> activityStore.add(Collections.singletonList(updatedExercise)));
+		return updatedExercise;
+	}
+
+	@Override
+	public void deleteById(final Long id) {
+		final Exercise exercise = findById(id);
+		if (exercise != null) {
+			exerciseRollupDao.remove(exercise);
+			final Long userId = exercise.getUserId();
+			afterCommit(() -> activityStore.remove(userId, id));
+		}
+		super.deleteById(id);
 	}
 
 	@Nonnull
@@ -35,7 +151,7 @@ public class ExerciseDaoImpl extends AbstractBaseDao<Exercise> implements Exerci
 
 		try {
 			return getEntityManager()
-					.createQuery("SELECT e FROM Exercise e WHERE LOWER(e.description) = :description")
+					.createQuery("SELECT e FROM Exercise e WHERE e.descriptionKey = :description")
 					.setParameter("description", description)
 					.getResultList();
 		} catch (NoResultException e) {
@@ -43,6 +159,38 @@ public class ExerciseDaoImpl extends AbstractBaseDao<Exercise> implements Exerci
 		}
 	}
 
+	@Nonnull
+	@Override
+	public List<Exercise> findPageByDescription(@Nullable String description,
+			@Nullable Date afterStartTime, @Nullable Long afterId, int limit) {
+		if (description == null) {
+			return Collections.emptyList();
+		}
+
+		String queryString = "SELECT e FROM Exercise e WHERE e.descriptionKey = :description ";
+
+		if (afterStartTime != null) {
+			queryString += KEYSET_CONDITION;
+		}
+		queryString += KEYSET_ORDER;
+
+		TypedQuery<Exercise> query = getEntityManager()
+				.createQuery(queryString, Exercise.class)
+				.setParameter("description", description.toLowerCase())
+				.setMaxResults(limit);
+
+		if (afterStartTime != null) {
+			query.setParameter("afterStartTime", afterStartTime);
+			query.setParameter("afterId", afterId);
+		}
+
+		try {
+			return query.getResultList();
+		} catch (NoResultException e) {
+			return Collections.emptyList();
+		}
+	}
+
 	@Nonnull
 	@Override
 	public List<Exercise> findByDate(@Nonnull Long userId, @Nonnull Date fromDate) {
@@ -54,6 +202,184 @@ public class ExerciseDaoImpl extends AbstractBaseDao<Exercise> implements Exerci
 		Query query = getEntityManager()
 				.createQuery(queryString)
 				.setParameter("userId", userId)
+				.setParameter("startTime", fromDate)
+				.setHint(QueryHints.HINT_CACHEABLE, true)
+				.setHint(QueryHints.HINT_CACHE_REGION, QUERY_CACHE_REGION);
+
+		try {
+			return query.getResultList();
+		} catch (NoResultException e) {
+			return Collections.emptyList();
+		}
+	}
+
+	@Nonnull
+	@Override
+	public List<Exercise> findByDateRange(@Nonnull Long userId, @Nonnull Date fromDate,
+			@Nonnull Date toDate) {
+
+		String queryString = "SELECT e "
+				+ "FROM Exercise e "
+				+ "WHERE userId = :userId AND startTime BETWEEN :fromTime AND :toTime";
+
+		Query query = getEntityManager()
+				.createQuery(queryString)
+				.setParameter("userId", userId)
+				.setParameter("fromTime", fromDate)
+				.setParameter("toTime", toDate);
+
+		try {
+			return query.getResultList();
+		} catch (NoResultException e) {
+			return Collections.emptyList();
+		}
+	}
+
+	@Nonnull
+	@Override
+	@SuppressWarnings("unchecked")
+	public Map<Enums.ExerciseType, Long> countByType(@Nonnull Long userId, @Nonnull Date fromDate,
+			@Nonnull Date toDate) {
+
+		String queryString = "SELECT e.type, COUNT(e) "
+				+ "FROM Exercise e "
+				+ "WHERE userId = :userId AND startTime >= :fromTime AND startTime < :toTime "
+				+ "GROUP BY e.type";
+
+		Query query = getEntityManager()
+				.createQuery(queryString)
+				.setParameter("userId", userId)
+				.setParameter("fromTime", fromDate)
+				.setParameter("toTime", toDate);
+
+		final Map<Enums.ExerciseType, Long> counts = new EnumMap<>(Enums.ExerciseType.class);
+		for (Object[] row : (List<Object[]>) query.getResultList()) {
+			counts.put((Enums.ExerciseType) row[0], (Long) row[1]);
+		}
+		return counts;
+	}
+
+	@Nullable
+	@Override
+	public Exercise findLatestByStartTime(@Nonnull Long userId, @Nonnull Date maxStartTime,
+			@Nullable Long excludedId) {
+
+		String queryString = "SELECT e "
+				+ "FROM Exercise e "
+				+ "WHERE userId = :userId AND startTime <= :maxStartTime ";
+
+		if (excludedId != null) {
+			queryString += "AND id <> :excludedId ";
+		}
+		queryString += "ORDER BY startTime DESC";
+
+		TypedQuery<Exercise> query = getEntityManager()
+				.createQuery(queryString, Exercise.class)
+				.setParameter("userId", userId)
+				.setParameter("maxStartTime", maxStartTime)
+				.setMaxResults(1);
+
+		if (excludedId != null) {
+			query.setParameter("excludedId", excludedId);
+		}
+
+		try {
+			return query.getSingleResult();
+		} catch (NoResultException e) {
+			return null;
+		}
+	}
+
+	@Nonnull
+	@Override
+	@SuppressWarnings("unchecked")
+	public Map<Long, List<ExerciseActivity>> findActivitiesByUserIdsAndDate(@Nonnull Collection<Long> userIds,
+			@Nonnull Date fromDate) {
+
+		String queryString = ACTIVITY_PROJECTION
+				+ "FROM Exercise e "
+				+ "WHERE userId IN :userIds AND startTime >= :startTime "
+				+ "ORDER BY userId, startTime DESC";
+
+		final List<Long> distinctUserIds = new ArrayList<>(new LinkedHashSet<>(userIds));
+		final Map<Long, List<ExerciseActivity>> activitiesByUser = new LinkedHashMap<>();
+
+		for (int from = 0; from < distinctUserIds.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+			final List<Long> chunk = distinctUserIds
+					.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinctUserIds.size()));
+
+			Query query = getEntityManager()
+					.createQuery(queryString)
+					.setParameter("userIds", chunk)
+					.setParameter("startTime", fromDate);
+
+			for (ExerciseActivity activity : (List<ExerciseActivity>) query.getResultList()) {
+				activitiesByUser.computeIfAbsent(activity.getUserId(), k -> new ArrayList<>()).add(activity);
+			}
+		}
+
+		return activitiesByUser;
+	}
+
+	@Nonnull
+	@Override
+	@SuppressWarnings("unchecked")
+	public Map<Long, List<ExerciseActivity>> findActivitiesByDate(@Nonnull Date fromDate) {
+
+		String queryString = ACTIVITY_PROJECTION
+				+ "FROM Exercise e "
+				+ "WHERE startTime >= :startTime "
+				+ "ORDER BY userId, startTime DESC";
+
+		Query query = getEntityManager()
+				.createQuery(queryString)
+				.setParameter("startTime", fromDate);
+
+		final Map<Long, List<ExerciseActivity>> activitiesByUser = new LinkedHashMap<>();
+		for (ExerciseActivity activity : (List<ExerciseActivity>) query.getResultList()) {
+			activitiesByUser.computeIfAbsent(activity.getUserId(), k -> new ArrayList<>()).add(activity);
+		}
+
+		return activitiesByUser;
+	}
+
+	@Nonnull
+	@Override
+	@SuppressWarnings("unchecked")
+	public Map<Long, List<ExerciseActivity>> findActivitiesByUserIdRangeAndDate(@Nonnull Long fromUserId,
+			@Nonnull Long toUserId, @Nonnull Date fromDate) {
+
+		String queryString = ACTIVITY_PROJECTION
+				+ "FROM Exercise e "
+				+ "WHERE userId BETWEEN :fromUserId AND :toUserId AND startTime >= :startTime "
+				+ "ORDER BY userId, startTime DESC";
+
+		Query query = getEntityManager()
+				.createQuery(queryString)
+				.setParameter("fromUserId", fromUserId)
+				.setParameter("toUserId", toUserId)
+				.setParameter("startTime", fromDate);
+
+		final Map<Long, List<ExerciseActivity>> activitiesByUser = new LinkedHashMap<>();
+		for (ExerciseActivity activity : (List<ExerciseActivity>) query.getResultList()) {
+			activitiesByUser.computeIfAbsent(activity.getUserId(), k -> new ArrayList<>()).add(activity);
+		}
+
+		return activitiesByUser;
+	}
+
+	@Nonnull
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Long> findUserIdsByDate(@Nonnull Date fromDate) {
+
+		String queryString = "SELECT DISTINCT e.userId "
+				+ "FROM Exercise e "
+				+ "WHERE startTime >= :startTime "
+				+ "ORDER BY e.userId";
+
+		Query query = getEntityManager()
+				.createQuery(queryString)
 				.setParameter("startTime", fromDate);
 
 		try {
@@ -79,9 +405,56 @@ public class ExerciseDaoImpl extends AbstractBaseDao<Exercise> implements Exerci
 			queryString += "AND startTime BETWEEN :startTime AND :endTime ";
 		}
 
-		Query query = getEntityManager()
-				.createQuery(queryString)
-				.setParameter("userId", userId);
+		TypedQuery<Exercise> query = getEntityManager()
+				.createQuery(queryString, Exercise.class)
+				.setParameter("userId", userId)
+				.setHint(QueryHints.HINT_CACHEABLE, true)
+				.setHint(QueryHints.HINT_CACHE_REGION, QUERY_CACHE_REGION);
+
+		if (exerciseType != null) {
+			query.setParameter("type", exerciseType);
+		}
+
+		if (date != null) {
+			DateTime startTime = new DateTime(date.getTime());
+			DateTime endTime = startTime.plusDays(1);
+
+			query.setParameter("startTime", startTime.toDate(), TemporalType.DATE);
+			query.setParameter("endTime", endTime.toDate(), TemporalType.DATE);
+		}
+
+		try {
+			return query.getResultList();
+		} catch (NoResultException e) {
+			return Collections.emptyList();
+		}
+	}
+
+	@Nonnull
+	@Override
+	public List<Exercise> findPageByTypeAndDate(@Nonnull Long userId,
+			@Nullable Enums.ExerciseType exerciseType, @Nullable Date date,
+			@Nullable Date afterStartTime, @Nullable Long afterId, int limit) {
+
+		String queryString = "SELECT e FROM Exercise e WHERE userId = :userId ";
+
+		if (exerciseType != null) {
+			queryString += "AND type = :type ";
+		}
+
+		if (date != null) {
+			queryString += "AND startTime BETWEEN :startTime AND :endTime ";
+		}
+
+		if (afterStartTime != null) {
+			queryString += KEYSET_CONDITION;
+		}
+		queryString += KEYSET_ORDER;
+
+		TypedQuery<Exercise> query = getEntityManager()
+				.createQuery(queryString, Exercise.class)
+				.setParameter("userId", userId)
+				.setMaxResults(limit);
 
 		if (exerciseType != null) {
 			query.setParameter("type", exerciseType);
@@ -95,6 +468,11 @@ public class ExerciseDaoImpl extends AbstractBaseDao<Exercise> implements Exerci
 			query.setParameter("endTime", endTime.toDate(), TemporalType.DATE);
 		}
 
+		if (afterStartTime != null) {
+			query.setParameter("afterStartTime", afterStartTime);
+			query.setParameter("afterId", afterId);
+		}
+
 		try {
 			return query.getResultList();
 		} catch (NoResultException e) {
@@ -102,4 +480,163 @@ public class ExerciseDaoImpl extends AbstractBaseDao<Exercise> implements Exerci
 		}
 	}
 
+	@Override
+	public void scrollByUserId(@Nonnull Long userId, @Nonnull Consumer<Exercise> consumer) {
+		final Session session = getEntityManager().unwrap(Session.class);
+
+		String queryString = "SELECT e "
+				+ "FROM Exercise e "
+				+ "WHERE userId = :userId "
+				+ "ORDER BY startTime, id";
+
+		final ScrollableResults results = session
+				.createQuery(queryString)
+				.setParameter("userId", userId)
+				.setFetchSize(SCROLL_FETCH_SIZE)
+				.setReadOnly(true)
+				.setCacheMode(CacheMode.IGNORE)
+				.scroll(ScrollMode.FORWARD_ONLY);
+
+		try {
+			while (results.next()) {
+				final Exercise exercise = (Exercise) results.get(0);
+				consumer.accept(exercise);
+				session.evict(exercise);
+			}
+		} finally {
+			results.close();
+		}
+	}
+
+	@Override
+	public void scrollActivitiesByUserId(@Nonnull Long userId, @Nonnull Consumer<ExerciseActivity> consumer) {
+		String queryString = ACTIVITY_PROJECTION
+				+ "FROM Exercise e "
+				+ "WHERE userId = :userId "
+				+ "ORDER BY startTime, id";
+
+		final ScrollableResults results = getEntityManager().unwrap(Session.class)
+				.createQuery(queryString)
+				.setParameter("userId", userId)
+				.setFetchSize(SCROLL_FETCH_SIZE)
+				.setCacheMode(CacheMode.IGNORE)
+				.scroll(ScrollMode.FORWARD_ONLY);
+
+		try {
+			while (results.next()) {
+				consumer.accept((ExerciseActivity) results.get(0));
+			}
+		} finally {
+			results.close();
+		}
+	}
+
+	@Nonnull
+	@Override
+	public List<Exercise> createAll(@Nonnull List<Exercise> exercises) {
+		final EntityManager entityManager = getEntityManager();
+
+		for (int i = 0; i < exercises.size(); i++) {
+			entityManager.persist(exercises.get(i));
+
+			if ((i + 1) % BATCH_SIZE == 0) {
+				entityManager.flush();
+				entityManager.clear();
+			}
+		}
+		exerciseRollupDao.add(exercises);
+		final List<Exercise> committedExercises = new ArrayList<>(exercises);
+		afterCommit(() -> activityStore.add(committedExercises));
+
+		entityManager.flush();
+		entityManager.clear();
+
+		return exercises;
+	}
+
+	@Nonnull
+	@Override
+	public List<Exercise> insertAll(@Nonnull final List<Exercise> exercises) {
+		if (exercises.isEmpty()) {
+			return exercises;
+		}
+
+		final Session session = getEntityManager().unwrap(Session.class);
+		final String nextValueSql = ((SessionFactoryImplementor) session.getSessionFactory()).getDialect()
+				.getSequenceNextValString(AbstractEntity.SEQUENCE_NAME);
+
+		session.doWork(connection -> {
+			try (PreparedStatement sequence = connection.prepareStatement(nextValueSql);
+					PreparedStatement insert = connection.prepareStatement(BULK_INSERT_SQL)) {
+				long nextId = 0;
+				long lastId = -1;
+				for (int i = 0; i < exercises.size(); i++) {
+					if (nextId > lastId) {
+						// the pooled optimizer of Hibernate uses the ids up to the sequence value
+						try (ResultSet resultSet = sequence.executeQuery()) {
+							resultSet.next();
+							lastId = resultSet.getLong(1);
+						}
+						nextId = Math.max(1, lastId - AbstractEntity.SEQUENCE_ALLOCATION_SIZE + 1);
+					}
+
+					final Exercise exercise = exercises.get(i);
+					exercise.setId(nextId++);
+					exercise.updateDerivedFields();
+
+					insert.setLong(1, exercise.getId());
+					insert.setLong(2, exercise.getUserId());
+					insert.setString(3, exercise.getDescription());
+					insert.setString(4, exercise.getDescriptionKey());
+					insert.setString(5, exercise.getType().name());
+					insert.setTimestamp(6, new Timestamp(exercise.getStartTime().getTime()));
+					insert.setInt(7, exercise.getDuration());
+					insert.setTimestamp(8, new Timestamp(exercise.getEndTime().getTime()));
+					insert.setObject(9, exercise.getDistance(), Types.INTEGER);
+					insert.setObject(10, exercise.getCalories(), Types.INTEGER);
+					insert.addBatch();
+
+					if ((i + 1) % BULK_BATCH_SIZE == 0 || i == exercises.size() - 1) {
+						insert.executeBatch();
+					}
+				}
+			}
+		});
+		exerciseRollupDao.add(exercises);
+		final List<Exercise> committedExercises = new ArrayList<>(exercises);
+		afterCommit(() -> activityStore.add(committedExercises));
+
+		// Hibernate does not see the inserts, so it can not invalidate the cached lists itself
+		session.getSessionFactory().getCache().evictQueryRegion(QUERY_CACHE_REGION);
+
+		return exercises;
+	}
+
+	/**
+	 * Runs an update of the {@link ActivityStore} once the current transaction is committed, right
+	 * away without a transaction. The store is not transactional, so a rolled back write must not
+	 * reach it, and a file built before the commit would miss the write.
+	 */
+	private void afterCommit(final Runnable storeUpdate) {
+		if (!activityStore.isEnabled()) {
+			return;
+		}
+		final Transaction transaction = getEntityManager().unwrap(Session.class).getTransaction();
+		if (transaction.getStatus() != TransactionStatus.ACTIVE) {
+			storeUpdate.run();
+			return;
+		}
+		transaction.registerSynchronization(new Synchronization() {
+			@Override
+			public void beforeCompletion() {
+			}
+
+			@Override
+			public void afterCompletion(final int status) {
+				if (status == Status.STATUS_COMMITTED) {
+					storeUpdate.run();
+				}
+			}
+		});
+	}
 }
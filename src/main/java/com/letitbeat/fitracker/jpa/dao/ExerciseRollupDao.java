@@ -0,0 +1,56 @@
+package com.letitbeat.fitracker.jpa.dao;
+
+import com.letitbeat.fitracker.jpa.domain.Enums;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.TimeZone;
+import javax.annotation.Nonnull;
+
+/**
+ * Maintains the daily totals per user and exercise type in the ExerciseRollup table. The
+ * ExerciseDao calls it on every exercise write, so the totals are committed or rolled back together
+ * with the exercises. The days are days in {@link #TIME_ZONE}.
+ */
+public interface ExerciseRollupDao {
+
+	/**
+	 * Time zone of the days of the rollup rows, independent of the time zones of the JVM and the
+	 * database session.
+	 */
+	TimeZone TIME_ZONE = TimeZone.getTimeZone("UTC");
+
+	/**
+	 * Adds exercises to the totals of their user, day and type.
+	 *
+	 * @param exercises the created exercises or the new state of updated exercises
+	 */
+	void add(@Nonnull Collection<Exercise> exercises);
+
+	/**
+	 * Removes an exercise from the totals of its user, day and type.
+	 *
+	 * @param exercise the deleted exercise or the previous state of an updated exercise
+	 */
+	void remove(@Nonnull Exercise exercise);
+
+	/**
+	 * Returns the number of exercises per type of a user from a specific day, reading one row per
+	 * day and type.
+	 *
+	 * @param userId who did the exercises
+	 * @param fromDay filter: first day to count, the midnight of the day in {@link #TIME_ZONE}
+	 * @return the number of exercises of each type, types without exercises may be missing
+	 */
+	@Nonnull
+	Map<Enums.ExerciseType, Long> countByType(@Nonnull Long userId, @Nonnull Date fromDay);
+
+	/**
+	 * Recalculates all totals from the exercise table, e.g. for the exercises stored before the
+	 * rollup existed.
+	 *
+	 * @return the number of rollup rows
+	 */
+	int rebuild();
+}
@@ -0,0 +1,288 @@
+package com.letitbeat.fitracker.jpa.dao;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.persist.Transactional;
+import com.letitbeat.fitracker.jpa.domain.Enums;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import com.letitbeat.fitracker.jpa.domain.ExerciseRollup;
+import com.letitbeat.fitracker.metrics.Timed;
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
+import org.apache.commons.lang3.time.DateUtils;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@Timed
+@Transactional
+public class ExerciseRollupDaoImpl implements ExerciseRollupDao {
+
+	private static final Logger log = LoggerFactory.getLogger(ExerciseRollupDaoImpl.class);
+
+	/**
+	 * Adds the given totals to the row of the user, day and type or inserts the row if there is
+	 * none yet. A row whose count drops to 0 is kept, it does not change any sum.
+	 */
+	private static final String MERGE_SQL = "MERGE INTO ExerciseRollup r "
+			+ "USING (VALUES (CAST(? AS BIGINT), CAST(? AS DATE), CAST(? AS VARCHAR(255)), "
+			+ "CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT))) "
+			+ "AS v (userId, startDay, type, exerciseCount, totalDuration, totalCalories, totalDistance) "
+			+ "ON r.userId = v.userId AND r.startDay = v.startDay AND r.type = v.type "
+			+ "WHEN MATCHED THEN UPDATE SET exerciseCount = r.exerciseCount + v.exerciseCount, "
+			+ "totalDuration = r.totalDuration + v.totalDuration, "
+			+ "totalCalories = r.totalCalories + v.totalCalories, "
+			+ "totalDistance = r.totalDistance + v.totalDistance "
+			+ "WHEN NOT MATCHED THEN INSERT "
+			+ "(userId, startDay, type, exerciseCount, totalDuration, totalCalories, totalDistance) "
+			+ "VALUES (v.userId, v.startDay, v.type, v.exerciseCount, v.totalDuration, v.totalCalories, "
+			+ "v.totalDistance)";
+
+	/**
+	 * The exercises of all users with the columns of the totals, ordered so the rows of a user are
+	 * merged before the next user is read.
+	 */
+	private static final String REBUILD_QUERY = "SELECT e.userId, e.startTime, e.type, e.duration, e.calories, "
+			+ "e.distance FROM Exercise e ORDER BY e.userId";
+
+	/**
+	 * Number of rows the JDBC driver fetches per round trip while rebuilding.
+	 */
+	private static final int REBUILD_FETCH_SIZE = 500;
+
+	/**
+	 * Attempts of a merge which fails because a concurrent transaction inserted the same row.
+	 */
+	private static final int MAX_MERGE_ATTEMPTS = 3;
+
+	/**
+	 * SQL state class of integrity constraint violations, e.g. a duplicate primary key.
+	 */
+	private static final String INTEGRITY_CONSTRAINT_VIOLATION = "23";
+
+	private final Provider<EntityManager> entityManagerProvider;
+
+	@Inject
+	ExerciseRollupDaoImpl(final Provider<EntityManager> entityManagerProvider) {
+		this.entityManagerProvider = entityManagerProvider;
+	}
+
+	@Override
+	public void add(@Nonnull final Collection<Exercise> exercises) {
+		apply(exercises, 1);
+	}
+
+	@Override
+	public void remove(@Nonnull final Exercise exercise) {
+		apply(Collections.singletonList(exercise), -1);
+	}
+
+	@Nonnull
+	@Override
+	@SuppressWarnings("unchecked")
+	public Map<Enums.ExerciseType, Long> countByType(@Nonnull final Long userId, @Nonnull final Date fromDay) {
+
+		String queryString = "SELECT r.type, SUM(r.exerciseCount) "
+				+ "FROM ExerciseRollup r "
+				+ "WHERE r.userId = :userId AND r.startDay >= CAST(:fromDay AS date) "
+				+ "GROUP BY r.type";
+
+		final Map<Enums.ExerciseType, Long> counts = new EnumMap<>(Enums.ExerciseType.class);
+		try {
+			final List<Object[]> rows = entityManagerProvider.get()
+					.createQuery(queryString)
+					.setParameter("userId", userId)
+					.setParameter("fromDay", toIsoDate(fromDay))
+					.getResultList();
+
+			for (Object[] row : rows) {
+				counts.put((Enums.ExerciseType) row[0], (Long) row[1]);
+			}
+		} catch (NoResultException e) {
+			// no exercises
+		}
+		return counts;
+	}
+
+	/**
+	 * Sums up the exercises in the JVM like the incremental updates, so both put an exercise on the
+	 * same day whatever the time zone of the database session is.
+	 */
+	@Override
+	public int rebuild() {
+		final EntityManager entityManager = entityManagerProvider.get();
+		entityManager.flush();
+
+		entityManager.createNativeQuery("DELETE FROM ExerciseRollup").executeUpdate();
+
+		final ScrollableResults results = entityManager.unwrap(Session.class)
+				.createQuery(REBUILD_QUERY)
+				.setFetchSize(REBUILD_FETCH_SIZE)
+				.setCacheMode(CacheMode.IGNORE)
+				.scroll(ScrollMode.FORWARD_ONLY);
+
+		int rows = 0;
+		final Map<ExerciseRollup.Key, long[]> totals = new LinkedHashMap<>();
+		try {
+			Long currentUserId = null;
+			while (results.next()) {
+				final Long userId = results.getLong(0);
+				if (!userId.equals(currentUserId)) {
+					rows += merge(totals);
+					totals.clear();
+					currentUserId = userId;
+				}
+				add(totals, userId, results.getDate(1), (Enums.ExerciseType) results.get(2),
+						(Integer) results.get(3), (Integer) results.get(4), (Integer) results.get(5), 1);
+			}
+			rows += merge(totals);
+		} finally {
+			results.close();
+		}
+
+		log.info(String.format("Rebuilt %d exercise rollup rows", rows));
+		return rows;
+	}
+
+	/**
+	 * Returns the day of the rollup row of a point in time. The days are UTC days, independent of
+	 * the time zones of the JVM and of the database session.
+	 *
+	 * @param time a start time
+	 * @return the UTC midnight of the day
+	 */
+	private static Date startDayOf(final Date time) {
+		final Calendar calendar = Calendar.getInstance(ExerciseRollupDao.TIME_ZONE);
+		calendar.setTime(time);
+		return DateUtils.truncate(calendar, Calendar.DATE).getTime();
+	}
+
+	/**
+	 * Converts the UTC midnight of a day into the ISO date of the day, e.g. 2016-03-10. The day is
+	 * bound as a string and cast to a DATE by the database, a bound DATE would be converted with
+	 * the time zone of the database session.
+	 */
+	private static String toIsoDate(final Date day) {
+		return day.toInstant().atZone(ZoneOffset.UTC).toLocalDate().toString();
+	}
+
+	/**
+	 * Sums up the exercises per user, day and type and merges each sum into its rollup row.
+	 *
+	 * @param exercises the exercises to add or remove
+	 * @param sign 1 to add the exercises, -1 to remove them
+	 */
+	private void apply(final Collection<Exercise> exercises, final int sign) {
+		final Map<ExerciseRollup.Key, long[]> totals = new LinkedHashMap<>();
+		for (Exercise exercise : exercises) {
+			add(totals, exercise.getUserId(), exercise.getStartTime(), exercise.getType(), exercise.getDuration(),
+					exercise.getCalories(), exercise.getDistance(), sign);
+		}
+		merge(totals);
+	}
+
+	private static void add(final Map<ExerciseRollup.Key, long[]> totals, final Long userId, final Date startTime,
+			final Enums.ExerciseType type, final Integer duration, final Integer calories, final Integer distance,
+			final int sign) {
+		final ExerciseRollup.Key key = new ExerciseRollup.Key(userId, startDayOf(startTime), type);
+		final long[] total = totals.computeIfAbsent(key, k -> new long[4]);
+		total[0] += sign;
+		total[1] += sign * valueOf(duration);
+		total[2] += sign * valueOf(calories);
+		total[3] += sign * valueOf(distance);
+	}
+
+	/**
+	 * Merges the sums into their rollup rows, sent as one JDBC batch.
+	 *
+	 * Two transactions which both insert the row of a new user, day and type cannot see each other
+	 * under MVCC, so the later insert can fail with a duplicate key once the earlier one is
+	 * committed. The failed statements are then merged again one by one, which updates the
+	 * committed row.
+	 *
+	 * @return the number of merged rows
+	 */
+	private int merge(final Map<ExerciseRollup.Key, long[]> totals) {
+		if (totals.isEmpty()) {
+			return 0;
+		}
+
+		final List<Map.Entry<ExerciseRollup.Key, long[]>> entries = new ArrayList<>(totals.entrySet());
+		entityManagerProvider.get().unwrap(Session.class).doWork(connection -> {
+			try (PreparedStatement statement = connection.prepareStatement(MERGE_SQL)) {
+				for (Map.Entry<ExerciseRollup.Key, long[]> entry : entries) {
+					setParameters(statement, entry.getKey(), entry.getValue());
+					statement.addBatch();
+				}
+				try {
+					statement.executeBatch();
+				} catch (BatchUpdateException e) {
+					if (!isIntegrityConstraintViolation(e)) {
+						throw e;
+					}
+					// the driver either stops at the failed statement or marks every failed one
+					final int[] updateCounts = e.getUpdateCounts();
+					for (int i = 0; i < entries.size(); i++) {
+						if (i >= updateCounts.length || updateCounts[i] == Statement.EXECUTE_FAILED) {
+							mergeWithRetry(statement, entries.get(i).getKey(), entries.get(i).getValue());
+						}
+					}
+				}
+			}
+		});
+		return entries.size();
+	}
+
+	private static void mergeWithRetry(final PreparedStatement statement, final ExerciseRollup.Key key,
+			final long[] total) throws SQLException {
+		for (int attempt = 1;; attempt++) {
+			setParameters(statement, key, total);
+			try {
+				statement.executeUpdate();
+				return;
+			} catch (SQLException e) {
+				if (attempt >= MAX_MERGE_ATTEMPTS || !isIntegrityConstraintViolation(e)) {
+					throw e;
+				}
+				log.debug(String.format("Retrying the rollup merge of user %d after a concurrent insert",
+						key.getUserId()));
+			}
+		}
+	}
+
+	private static void setParameters(final PreparedStatement statement, final ExerciseRollup.Key key,
+			final long[] total) throws SQLException {
+		statement.setLong(1, key.getUserId());
+		statement.setString(2, toIsoDate(key.getStartDay()));
+		statement.setString(3, key.getType().name());
+		for (int i = 0; i < total.length; i++) {
+			statement.setLong(4 + i, total[i]);
+		}
+	}
+
+	private static boolean isIntegrityConstraintViolation(final SQLException e) {
+		return e.getSQLState() != null && e.getSQLState().startsWith(INTEGRITY_CONSTRAINT_VIOLATION);
+	}
+
+	private static long valueOf(final Integer value) {
+		return value != null ? value : 0;
+	}
+}
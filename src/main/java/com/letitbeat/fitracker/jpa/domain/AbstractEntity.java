@@ -6,6 +6,7 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.MappedSuperclass;
+import javax.persistence.SequenceGenerator;
 
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
@@ -16,8 +17,21 @@ public abstract class AbstractEntity implements Serializable {
 
 	private static final long serialVersionUID = 1L;
 
+	public static final String SEQUENCE_NAME = "hibernate_sequence";
+
+	/**
+	 * Number of ids reserved by every sequence call.
+	 */
+	public static final int SEQUENCE_ALLOCATION_SIZE = 50;
+
+	/**
+	 * Generated from a sequence instead of an identity column, otherwise Hibernate can not batch the
+	 * inserts. Every sequence call reserves a block of ids for the following inserts.
+	 */
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "entity_sequence")
+	@SequenceGenerator(name = "entity_sequence", sequenceName = SEQUENCE_NAME,
+			allocationSize = SEQUENCE_ALLOCATION_SIZE)
 	private Long id;
 
 	public Long getId() {
@@ -2,11 +2,36 @@ package com.letitbeat.fitracker.jpa.domain;
 
 import java.util.Date;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
-
+import javax.persistence.Index;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * The indexes cover every query of the ExerciseDao, the ExerciseDaoQueryPlanTest fails if a query
+ * falls back to a full table scan.
+ *
+ * If the second-level cache is enabled, the exercises are kept in the cache region named after
+ * this class, see the ehcache.xml.
+ */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(indexes = {
+		@Index(name = "idx_exercise_user_start", columnList = "userId, startTime"),
+		@Index(name = "idx_exercise_user_type_start", columnList = "userId, type, startTime"),
+		@Index(name = "idx_exercise_start", columnList = "startTime"),
+		@Index(name = "idx_exercise_description", columnList = "descriptionKey, startTime, id")
+})
 public class Exercise extends AbstractEntity {
 
 	private static final long serialVersionUID = 1L;
@@ -15,6 +40,13 @@ public class Exercise extends AbstractEntity {
 
 	private String description;
 
+	/**
+	 * The description in lower case for the case insensitive search, HSQLDB can not index an
+	 * expression like LOWER(description).
+	 */
+	@JsonIgnore
+	private String descriptionKey;
+
 	@Enumerated(EnumType.STRING)
 	private Enums.ExerciseType type;
 
@@ -28,6 +60,13 @@ public class Exercise extends AbstractEntity {
 	 */
 	private Integer duration;
 
+	/**
+	 * start time plus duration, stored so the overlap check does not have to calculate it in the
+	 * query
+	 */
+	@JsonIgnore
+	private Date endTime;
+
 	/**
 	 * in meters
 	 */
@@ -86,6 +125,14 @@ public class Exercise extends AbstractEntity {
 		this.distance = distance;
 	}
 
+	public Date getEndTime() {
+		return endTime;
+	}
+
+	public String getDescriptionKey() {
+		return descriptionKey;
+	}
+
 	public String getDescription() {
 		return description;
 	}
@@ -93,4 +140,16 @@ public class Exercise extends AbstractEntity {
 	public void setDescription(String description) {
 		this.description = description;
 	}
+
+	/**
+	 * Called by Hibernate before every insert and update and by the bulk insert of the
+	 * ExerciseDao, which bypasses the entity lifecycle.
+	 */
+	@PrePersist
+	@PreUpdate
+	public void updateDerivedFields() {
+		descriptionKey = description != null ? description.toLowerCase() : null;
+		endTime = startTime != null && duration != null
+				? new Date(startTime.getTime() + duration * 1000L) : null;
+	}
 }
@@ -0,0 +1,69 @@
+package com.letitbeat.fitracker.jpa.domain;
+
+import java.util.Date;
+
+/**
+ * Immutable view of the exercise fields which take part in the score calculation.
+ */
+public final class ExerciseActivity {
+
+	private final Long id;
+
+	private final Long userId;
+
+	private final Enums.ExerciseType type;
+
+	/**
+	 * in milliseconds since epoch
+	 */
+	private final long startTime;
+
+	/**
+	 * in seconds
+	 */
+	private final int duration;
+
+	/**
+	 * in kcal
+	 */
+	private final int calories;
+
+	public ExerciseActivity(Long id, Long userId, Enums.ExerciseType type, Date startTime, Integer duration,
+			Integer calories) {
+		this.id = id;
+		this.userId = userId;
+		this.type = type;
+		this.startTime = startTime.getTime();
+		this.duration = duration;
+		this.calories = calories;
+	}
+
+	public static ExerciseActivity of(Exercise exercise) {
+		return new ExerciseActivity(exercise.getId(), exercise.getUserId(), exercise.getType(),
+				exercise.getStartTime(), exercise.getDuration(), exercise.getCalories());
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public Long getUserId() {
+		return userId;
+	}
+
+	public Enums.ExerciseType getType() {
+		return type;
+	}
+
+	public long getStartTime() {
+		return startTime;
+	}
+
+	public int getDuration() {
+		return duration;
+	}
+
+	public int getCalories() {
+		return calories;
+	}
+}
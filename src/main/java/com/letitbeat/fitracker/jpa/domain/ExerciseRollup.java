@@ -0,0 +1,139 @@
+package com.letitbeat.fitracker.jpa.domain;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * The totals of the exercises of one user, day and type. The rows are maintained by the
+ * ExerciseDao writes in the same transaction as the exercises and can be rebuilt from the exercise
+ * table with the ExerciseRollupDao.
+ */
+@Entity
+@IdClass(ExerciseRollup.Key.class)
+@Table(indexes = @Index(name = "idx_exercise_rollup_user_day", columnList = "userId, startDay"))
+public class ExerciseRollup {
+
+	@Id
+	private Long userId;
+
+	/**
+	 * the UTC day of the start time of the exercises
+	 */
+	@Id
+	@Temporal(TemporalType.DATE)
+	private Date startDay;
+
+	@Id
+	@Enumerated(EnumType.STRING)
+	private Enums.ExerciseType type;
+
+	private long exerciseCount;
+
+	/**
+	 * in seconds
+	 */
+	private long totalDuration;
+
+	/**
+	 * in kcal
+	 */
+	private long totalCalories;
+
+	/**
+	 * in meters
+	 */
+	private long totalDistance;
+
+	public Long getUserId() {
+		return userId;
+	}
+
+	public Date getStartDay() {
+		return startDay;
+	}
+
+	public Enums.ExerciseType getType() {
+		return type;
+	}
+
+	public long getExerciseCount() {
+		return exerciseCount;
+	}
+
+	public long getTotalDuration() {
+		return totalDuration;
+	}
+
+	public long getTotalCalories() {
+		return totalCalories;
+	}
+
+	public long getTotalDistance() {
+		return totalDistance;
+	}
+
+	/**
+	 * The primary key of a rollup row.
+	 */
+	public static class Key implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private Long userId;
+
+		private Date startDay;
+
+		private Enums.ExerciseType type;
+
+		public Key() {
+			super();
+		}
+
+		public Key(final Long userId, final Date startDay, final Enums.ExerciseType type) {
+			this.userId = userId;
+			this.startDay = startDay;
+			this.type = type;
+		}
+
+		public Long getUserId() {
+			return userId;
+		}
+
+		public Date getStartDay() {
+			return startDay;
+		}
+
+		public Enums.ExerciseType getType() {
+			return type;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			final Key that = (Key) obj;
+			return Objects.equals(userId, that.userId) && Objects.equals(startDay, that.startDay)
+					&& type == that.type;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(userId, startDay, type);
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package com.letitbeat.fitracker.metrics;
+
+import com.google.inject.Singleton;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+/**
+ * The latency histograms of the REST resource methods and the DAO methods, written in the text
+ * format of Prometheus as summaries with the 50th, 99th and 99.9th percentile since the start.
+ */
+@Singleton
+public class LatencyMetrics {
+
+	/**
+	 * Media type of the Prometheus text format.
+	 */
+	public static final String TEXT_FORMAT = "text/plain; version=0.0.4; charset=utf-8";
+
+	/**
+	 * Name of the latencies of the REST resource methods.
+	 */
+	public static final String REQUESTS = "fitracker_http_request_duration_seconds";
+
+	/**
+	 * Name of the latencies of the DAO methods.
+	 */
+	public static final String DAO_CALLS = "fitracker_dao_call_duration_seconds";
+
+	private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+
+	private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private final ConcurrentMap<String, Map<String, LatencyHistogram>> families = new ConcurrentSkipListMap<>();
+
+	public LatencyMetrics() {
+		families.put(REQUESTS, new ConcurrentSkipListMap<>());
+		families.put(DAO_CALLS, new ConcurrentSkipListMap<>());
+	}
+
+	/**
+	 * @param family {@link #REQUESTS} or {@link #DAO_CALLS}
+	 * @param method the measured method, e.g. "ExerciseService.getStats"
+	 * @return the histogram of the method, created on the first call
+	 */
+	@Nonnull
+	public LatencyHistogram getHistogram(@Nonnull final String family, @Nonnull final String method) {
+		return families.get(family).computeIfAbsent(method, m -> new LatencyHistogram());
+	}
+
+	/**
+	 * @return all histograms in the Prometheus text format
+	 */
+	@Nonnull
+	public String toPrometheusText() {
+		final StringBuilder text = new StringBuilder();
+		families.forEach((family, histograms) -> {
+			text.append("# HELP ").append(family).append(' ')
+					.append(REQUESTS.equals(family) ? "Latency of the REST resource methods."
+							: "Latency of the DAO methods, including the transaction.")
+					.append('\n');
+			text.append("# TYPE ").append(family).append(" summary\n");
+
+			histograms.forEach((method, histogram) -> {
+				final String label = "method=\"" + escape(method) + "\"";
+				for (double quantile : QUANTILES) {
+					text.append(family).append('{').append(label).append(",quantile=\"").append(quantile).append("\"} ")
+							.append(histogram.getValueAtPercentile(quantile * 100) / NANOS_PER_SECOND).append('\n');
+				}
+				text.append(family).append("_sum{").append(label).append("} ")
+						.append(histogram.getSum() / NANOS_PER_SECOND).append('\n');
+				text.append(family).append("_count{").append(label).append("} ")
+						.append(histogram.getCount()).append('\n');
+			});
+		});
+		return text.toString();
+	}
+
+	private static String escape(final String labelValue) {
+		return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+}
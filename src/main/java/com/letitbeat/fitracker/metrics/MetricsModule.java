@@ -0,0 +1,27 @@
+package com.letitbeat.fitracker.metrics;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.matcher.AbstractMatcher;
+import com.google.inject.matcher.Matchers;
+import java.lang.reflect.Method;
+
+/**
+ * Binds the {@link LatencyMetrics} and the {@link TimingInterceptor} of the classes annotated with
+ * {@link Timed}. Interceptors run in the order of their binding, so the module has to be installed
+ * before the JPA module to include the transaction in the latency.
+ */
+public class MetricsModule extends AbstractModule {
+
+	@Override
+	protected void configure() {
+		bind(LatencyMetrics.class);
+
+		bindInterceptor(Matchers.annotatedWith(Timed.class), new AbstractMatcher<Method>() {
+			@Override
+			public boolean matches(final Method method) {
+				// the compiler generated bridge methods and the methods of Object are not measured
+				return !method.isSynthetic() && method.getDeclaringClass() != Object.class;
+			}
+		}, new TimingInterceptor(getProvider(LatencyMetrics.class)));
+	}
+}
@@ -0,0 +1,16 @@
+package com.letitbeat.fitracker.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Records the latency of every method of the annotated class in the {@link LatencyMetrics}, see
+ * {@link TimingInterceptor}. Like {@code @Transactional} it only works for instances created by
+ * Guice.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Timed {
+}
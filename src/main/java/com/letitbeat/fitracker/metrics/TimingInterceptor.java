@@ -0,0 +1,40 @@
+package com.letitbeat.fitracker.metrics;
+
+import com.google.inject.Provider;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Records the latency of the methods of the classes annotated with {@link Timed} as
+ * {@link LatencyMetrics#DAO_CALLS}, also if the method throws an exception.
+ */
+class TimingInterceptor implements MethodInterceptor {
+
+	private final Provider<LatencyMetrics> latencyMetrics;
+
+	private final Map<Method, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+	TimingInterceptor(@Nonnull final Provider<LatencyMetrics> latencyMetrics) {
+		this.latencyMetrics = latencyMetrics;
+	}
+
+	@Override
+	public Object invoke(final MethodInvocation invocation) throws Throwable {
+		final long startTime = System.nanoTime();
+		try {
+			return invocation.proceed();
+		} finally {
+			final long duration = System.nanoTime() - startTime;
+			histograms.computeIfAbsent(invocation.getMethod(), this::newHistogram).record(duration);
+		}
+	}
+
+	private LatencyHistogram newHistogram(final Method method) {
+		return latencyMetrics.get().getHistogram(LatencyMetrics.DAO_CALLS,
+				method.getDeclaringClass().getSimpleName() + "." + method.getName());
+	}
+}
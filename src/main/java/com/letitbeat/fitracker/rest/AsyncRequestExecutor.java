@@ -0,0 +1,207 @@
+package com.letitbeat.fitracker.rest;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.persist.UnitOfWork;
+import com.letitbeat.fitracker.dto.AsyncStatsDto;
+import com.letitbeat.fitracker.jpa.StatementBudget;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.Response.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs expensive requests on a bounded pool of worker threads, so they do not hold a servlet
+ * container thread while they are calculated and cannot starve the cheap requests.
+ *
+ * A request waits in a bounded queue for a free worker. If the queue is full the request is
+ * answered with 503 right away, and a request which is not answered within the timeout gets a 503
+ * as well. The size of the pool, the queue and the timeout are set with the system properties
+ * {@value #THREADS_PROPERTY}, {@value #QUEUE_SIZE_PROPERTY} and {@value #TIMEOUT_PROPERTY}.
+ */
+@Singleton
+public class AsyncRequestExecutor {
+
+	private static final Logger log = LoggerFactory.getLogger(AsyncRequestExecutor.class);
+
+	/**
+	 * System property with the number of worker threads, defaults to the number of processors.
+	 */
+	public static final String THREADS_PROPERTY = "fitracker.async.threads";
+
+	/**
+	 * System property with the number of requests waiting for a worker.
+	 */
+	public static final String QUEUE_SIZE_PROPERTY = "fitracker.async.queueSize";
+
+	/**
+	 * System property with the time in milliseconds until a request is answered with 503.
+	 */
+	public static final String TIMEOUT_PROPERTY = "fitracker.async.timeoutMillis";
+
+	private static final int DEFAULT_QUEUE_SIZE = 100;
+
+	private static final long DEFAULT_TIMEOUT_MILLIS = 10000;
+
+	private final UnitOfWork unitOfWork;
+
+	private final ThreadPoolExecutor executor;
+
+	private final int queueSize;
+
+	private final long timeoutMillis;
+
+	private final LongAdder executedCount = new LongAdder();
+
+	private final LongAdder rejectedCount = new LongAdder();
+
+	private final LongAdder timedOutCount = new LongAdder();
+
+	private final LongAdder queueWaitNanos = new LongAdder();
+
+	private final LongAccumulator maxQueueWaitNanos = new LongAccumulator(Long::max, 0);
+
+	@Inject
+	AsyncRequestExecutor(final UnitOfWork unitOfWork) {
+		this(unitOfWork, Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors()),
+				Integer.getInteger(QUEUE_SIZE_PROPERTY, DEFAULT_QUEUE_SIZE),
+				Long.getLong(TIMEOUT_PROPERTY, DEFAULT_TIMEOUT_MILLIS));
+	}
+
+	AsyncRequestExecutor(final UnitOfWork unitOfWork, final int threads, final int queueSize,
+			final long timeoutMillis) {
+		this.unitOfWork = unitOfWork;
+		this.queueSize = queueSize;
+		this.timeoutMillis = timeoutMillis;
+
+		final AtomicInteger threadNumber = new AtomicInteger();
+		executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueSize), r -> {
+					final Thread thread = new Thread(r, "async-request-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	/**
+	 * Calculates the response of a suspended request on a worker thread, inside its own unit of
+	 * work. An exception of the task is passed to the exception mappers like in a synchronous
+	 * request. The SQL statements of the task are counted by the {@link StatementBudget} under the
+	 * name of the request.
+	 *
+	 * @param asyncResponse the suspended request
+	 * @param task calculates the response entity
+	 */
+	public void submit(@Nonnull final AsyncResponse asyncResponse, @Nonnull final Supplier<?> task) {
+		asyncResponse.setTimeoutHandler(response -> {
+			timedOutCount.increment();
+			response.resume(new WebApplicationException("The request timed out.", Status.SERVICE_UNAVAILABLE));
+		});
+		asyncResponse.setTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+
+		final long submitTime = System.nanoTime();
+		final String name = StatementBudget.getName();
+		try {
+			executor.execute(new Request(asyncResponse, task, submitTime, name != null ? name : "async request"));
+		} catch (RejectedExecutionException e) {
+			rejectedCount.increment();
+			log.warn(String.format("Rejected request, %d requests are waiting", executor.getQueue().size()));
+			asyncResponse.resume(new WebApplicationException("Too many requests, try again later.",
+					Status.SERVICE_UNAVAILABLE));
+		}
+	}
+
+	/**
+	 * Stops the worker pool, called when the application is stopped. The running requests are
+	 * finished, the waiting and all later requests are answered with 503.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+		final List<Runnable> waiting = new ArrayList<>();
+		executor.getQueue().drainTo(waiting);
+		for (final Runnable request : waiting) {
+			((Request) request).asyncResponse.resume(new WebApplicationException("The server is shutting down.",
+					Status.SERVICE_UNAVAILABLE));
+		}
+	}
+
+	/**
+	 * @return the state of the worker pool and the time the requests waited for a worker
+	 */
+	@Nonnull
+	public AsyncStatsDto getStats() {
+		final long executed = executedCount.sum();
+
+		return new AsyncStatsDto(executor.getMaximumPoolSize(), queueSize, executor.getActiveCount(),
+				executor.getQueue().size(), executed, rejectedCount.sum(), timedOutCount.sum(),
+				executed > 0 ? toMillis(queueWaitNanos.sum()) / executed : 0.0,
+				toMillis(maxQueueWaitNanos.get()));
+	}
+
+	private void run(final AsyncResponse asyncResponse, final Supplier<?> task, final long submitTime,
+			final String name) {
+		final long queueWait = System.nanoTime() - submitTime;
+		queueWaitNanos.add(queueWait);
+		maxQueueWaitNanos.accumulate(queueWait);
+		executedCount.increment();
+
+		if (!asyncResponse.isSuspended()) {
+			// timed out while waiting for a worker
+			return;
+		}
+
+		StatementBudget.begin(name);
+		unitOfWork.begin();
+		try {
+			asyncResponse.resume(task.get());
+		} catch (RuntimeException e) {
+			asyncResponse.resume(e);
+		} finally {
+			unitOfWork.end();
+			StatementBudget.end();
+		}
+	}
+
+	/**
+	 * A request waiting for a worker, keeps the suspended request so it can be answered when the
+	 * pool is shut down.
+	 */
+	private final class Request implements Runnable {
+
+		private final AsyncResponse asyncResponse;
+
+		private final Supplier<?> task;
+
+		private final long submitTime;
+
+		private final String name;
+
+		Request(final AsyncResponse asyncResponse, final Supplier<?> task, final long submitTime, final String name) {
+			this.asyncResponse = asyncResponse;
+			this.task = task;
+			this.submitTime = submitTime;
+			this.name = name;
+		}
+
+		@Override
+		public void run() {
+			AsyncRequestExecutor.this.run(asyncResponse, task, submitTime, name);
+		}
+	}
+
+	private static double toMillis(final long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+}
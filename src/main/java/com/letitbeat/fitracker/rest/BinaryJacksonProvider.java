@@ -0,0 +1,101 @@
+package com.letitbeat.fitracker.rest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import javax.annotation.Nonnull;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+
+/**
+ * Reads and writes the entities of the REST interface in a binary data format of Jackson. The
+ * mapper has the configuration of the JSON mapper of the {@link ObjectMapperProvider}, so the
+ * binary representation has the same properties as the JSON.
+ *
+ * A malformed request body is answered with 400 like a malformed request parameter.
+ */
+public abstract class BinaryJacksonProvider implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
+
+	private final MediaType mediaType;
+
+	private final ObjectMapper objectMapper;
+
+	/**
+	 * @param mediaType the media type of the data format
+	 * @param factory parser and generator factory of the data format
+	 */
+	protected BinaryJacksonProvider(@Nonnull final MediaType mediaType, @Nonnull final JsonFactory factory) {
+		this.mediaType = mediaType;
+		// the entity stream is closed by Jersey, a closed stream could not be used by a filter
+		factory.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		factory.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+		this.objectMapper = ObjectMapperProvider.newObjectMapper(factory);
+	}
+
+	@Override
+	public boolean isReadable(final Class<?> type, final Type genericType, final Annotation[] annotations,
+			final MediaType mediaType) {
+		return this.mediaType.isCompatible(mediaType) && !isRaw(type);
+	}
+
+	@Override
+	public Object readFrom(final Class<Object> type, final Type genericType, final Annotation[] annotations,
+			final MediaType mediaType, final MultivaluedMap<String, String> httpHeaders, final InputStream entityStream)
+			throws IOException {
+		try {
+			return objectMapper.reader(javaType(genericType)).readValue(entityStream);
+		} catch (JsonProcessingException e) {
+			throw new IllegalArgumentException(e.getOriginalMessage(), e);
+		}
+	}
+
+	@Override
+	public boolean isWriteable(final Class<?> type, final Type genericType, final Annotation[] annotations,
+			final MediaType mediaType) {
+		return this.mediaType.isCompatible(mediaType) && !isRaw(type);
+	}
+
+	@Override
+	public long getSize(final Object value, final Class<?> type, final Type genericType,
+			final Annotation[] annotations, final MediaType mediaType) {
+		return -1;
+	}
+
+	@Override
+	public void writeTo(final Object value, final Class<?> type, final Type genericType,
+			final Annotation[] annotations, final MediaType mediaType, final MultivaluedMap<String, Object> httpHeaders,
+			final OutputStream entityStream) throws IOException {
+		objectMapper.writerFor(javaType(genericType)).writeValue(entityStream, value);
+	}
+
+	/**
+	 * @return the mapper of the data format
+	 */
+	@Nonnull
+	ObjectMapper getObjectMapper() {
+		return objectMapper;
+	}
+
+	private JavaType javaType(final Type genericType) {
+		return objectMapper.getTypeFactory().constructType(genericType);
+	}
+
+	/**
+	 * @return whether the entity is already serialized and is written by the Jersey providers
+	 */
+	private static boolean isRaw(final Class<?> type) {
+		return type == String.class || type == byte[].class || InputStream.class.isAssignableFrom(type)
+				|| StreamingOutput.class.isAssignableFrom(type);
+	}
+}
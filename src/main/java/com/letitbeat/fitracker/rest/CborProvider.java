@@ -0,0 +1,22 @@
+package com.letitbeat.fitracker.rest;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.google.inject.Singleton;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Reads and writes the entities as CBOR, RFC 7049.
+ */
+@Provider
+@Singleton
+@Consumes(ExerciseService.APPLICATION_CBOR)
+@Produces(ExerciseService.APPLICATION_CBOR)
+public class CborProvider extends BinaryJacksonProvider {
+
+	public CborProvider() {
+		super(MediaType.valueOf(ExerciseService.APPLICATION_CBOR), new CBORFactory());
+	}
+}
@@ -0,0 +1,149 @@
+package com.letitbeat.fitracker.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.letitbeat.fitracker.jpa.dao.ExerciseDao;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import javax.annotation.Nonnull;
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Writes the exercise history of a user while it is read from the database, so neither the
+ * exercises nor the serialized response are held in memory as a whole.
+ */
+class ExerciseExportOutput implements StreamingOutput {
+
+	/**
+	 * The supported export formats.
+	 */
+	enum Format {
+		/**
+		 * Newline delimited JSON, one exercise object per line.
+		 */
+		NDJSON(ExerciseService.APPLICATION_NDJSON),
+		/**
+		 * Comma separated values with a header line.
+		 */
+		CSV(ExerciseService.TEXT_CSV);
+
+		private final String mediaType;
+
+		Format(final String mediaType) {
+			this.mediaType = mediaType;
+		}
+
+		String getMediaType() {
+			return mediaType;
+		}
+	}
+
+	private static final String CSV_HEADER = "id,userId,type,startTime,duration,distance,calories,description";
+
+	private final ExerciseDao exerciseDao;
+
+	private final ObjectMapper objectMapper;
+
+	private final Long userId;
+
+	private final Format format;
+
+	ExerciseExportOutput(@Nonnull final ExerciseDao exerciseDao, @Nonnull final ObjectMapper objectMapper,
+			@Nonnull final Long userId, @Nonnull final Format format) {
+		this.exerciseDao = exerciseDao;
+		this.objectMapper = objectMapper;
+		this.userId = userId;
+		this.format = format;
+	}
+
+	@Override
+	public void write(final OutputStream output) throws IOException {
+		try {
+			if (format == Format.CSV) {
+				writeCsv(output);
+			} else {
+				writeNdjson(output);
+			}
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private void writeNdjson(final OutputStream output) throws IOException {
+		// a single line per exercise, flushed by the buffer of the generator instead of per exercise
+		final ObjectWriter writer = objectMapper.writerFor(Exercise.class)
+				.without(SerializationFeature.INDENT_OUTPUT)
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+		final JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+		generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		generator.setRootValueSeparator(null);
+
+		exerciseDao.scrollByUserId(userId, exercise -> {
+			try {
+				writer.writeValue(generator, exercise);
+				generator.writeRaw('\n');
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		generator.close();
+	}
+
+	private void writeCsv(final OutputStream output) throws IOException {
+		final Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+		writer.write(CSV_HEADER);
+		writer.write('\n');
+
+		exerciseDao.scrollByUserId(userId, exercise -> {
+			try {
+				writer.write(String.valueOf(exercise.getId()));
+				writer.write(',');
+				writer.write(String.valueOf(exercise.getUserId()));
+				writer.write(',');
+				writer.write(exercise.getType().name());
+				writer.write(',');
+				writer.write(DateTimeFormatter.ISO_INSTANT.format(exercise.getStartTime().toInstant()));
+				writer.write(',');
+				writer.write(toCsvValue(exercise.getDuration()));
+				writer.write(',');
+				writer.write(toCsvValue(exercise.getDistance()));
+				writer.write(',');
+				writer.write(toCsvValue(exercise.getCalories()));
+				writer.write(',');
+				writer.write(escapeCsv(exercise.getDescription()));
+				writer.write('\n');
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		writer.flush();
+	}
+
+	private static String toCsvValue(final Integer value) {
+		return value == null ? "" : value.toString();
+	}
+
+	/**
+	 * Quotes a value if it contains a separator, a quote or a line break.
+	 */
+	private static String escapeCsv(final String value) {
+		if (value == null) {
+			return "";
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+				&& value.indexOf('\r') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+}
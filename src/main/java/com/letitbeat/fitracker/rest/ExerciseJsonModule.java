@@ -0,0 +1,165 @@
+package com.letitbeat.fitracker.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import java.io.IOException;
+
+/**
+ * Streaming serializer and deserializer of the {@link Exercise}, so Jackson does not have to go
+ * through the reflective bean properties for every exercise of a list.
+ *
+ * The JSON is the same as the one of the bean serialization: the properties in declaration order,
+ * null values left out and the start time as timestamp. The deserializer accepts what the bean
+ * deserializer accepts, including dates as ISO strings and numbers as strings, and skips unknown
+ * properties.
+ */
+class ExerciseJsonModule extends SimpleModule {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final String ID = "id";
+
+	private static final String USER_ID = "userId";
+
+	private static final String DESCRIPTION = "description";
+
+	private static final String TYPE = "type";
+
+	private static final String START_TIME = "startTime";
+
+	private static final String DURATION = "duration";
+
+	private static final String DISTANCE = "distance";
+
+	private static final String CALORIES = "calories";
+
+	ExerciseJsonModule() {
+		super(ExerciseJsonModule.class.getSimpleName());
+		addSerializer(Exercise.class, new ExerciseSerializer());
+		addDeserializer(Exercise.class, new ExerciseDeserializer());
+	}
+
+	static class ExerciseSerializer extends StdSerializer<Exercise> {
+
+		private static final long serialVersionUID = 1L;
+
+		ExerciseSerializer() {
+			super(Exercise.class);
+		}
+
+		@Override
+		public void serialize(final Exercise exercise, final JsonGenerator generator,
+				final SerializerProvider provider) throws IOException {
+
+			generator.writeStartObject();
+			writeNumber(generator, ID, exercise.getId());
+			writeNumber(generator, USER_ID, exercise.getUserId());
+			if (exercise.getDescription() != null) {
+				generator.writeStringField(DESCRIPTION, exercise.getDescription());
+			}
+			if (exercise.getType() != null) {
+				generator.writeStringField(TYPE, exercise.getType().name());
+			}
+			if (exercise.getStartTime() != null) {
+				generator.writeFieldName(START_TIME);
+				provider.defaultSerializeDateValue(exercise.getStartTime(), generator);
+			}
+			writeNumber(generator, DURATION, exercise.getDuration());
+			writeNumber(generator, DISTANCE, exercise.getDistance());
+			writeNumber(generator, CALORIES, exercise.getCalories());
+			generator.writeEndObject();
+		}
+
+		private static void writeNumber(final JsonGenerator generator, final String name, final Long value)
+				throws IOException {
+			if (value != null) {
+				generator.writeNumberField(name, value);
+			}
+		}
+
+		private static void writeNumber(final JsonGenerator generator, final String name, final Integer value)
+				throws IOException {
+			if (value != null) {
+				generator.writeNumberField(name, value);
+			}
+		}
+	}
+
+	static class ExerciseDeserializer extends StdDeserializer<Exercise> implements ResolvableDeserializer {
+
+		private static final long serialVersionUID = 1L;
+
+		private JsonDeserializer<Object> typeDeserializer;
+
+		ExerciseDeserializer() {
+			super(Exercise.class);
+		}
+
+		@Override
+		public void resolve(final DeserializationContext context) throws JsonMappingException {
+			// the enum deserializer of the context, to accept the same values as the bean deserializer
+			typeDeserializer = context.findRootValueDeserializer(context.constructType(ExerciseType.class));
+		}
+
+		@Override
+		public Exercise deserialize(final JsonParser parser, final DeserializationContext context)
+				throws IOException {
+
+			JsonToken token = parser.getCurrentToken();
+			if (token == JsonToken.START_OBJECT) {
+				token = parser.nextToken();
+			}
+			if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+				throw context.mappingException(Exercise.class, token);
+			}
+
+			final Exercise exercise = new Exercise();
+			for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+				final String name = parser.getCurrentName();
+				final boolean isNull = parser.nextToken() == JsonToken.VALUE_NULL;
+
+				switch (name) {
+				case ID:
+					exercise.setId(_parseLong(parser, context));
+					break;
+				case USER_ID:
+					exercise.setUserId(_parseLong(parser, context));
+					break;
+				case DESCRIPTION:
+					exercise.setDescription(isNull ? null : _parseString(parser, context));
+					break;
+				case TYPE:
+					exercise.setType(isNull ? null : (ExerciseType) typeDeserializer.deserialize(parser, context));
+					break;
+				case START_TIME:
+					exercise.setStartTime(_parseDate(parser, context));
+					break;
+				case DURATION:
+					exercise.setDuration(_parseInteger(parser, context));
+					break;
+				case DISTANCE:
+					exercise.setDistance(_parseInteger(parser, context));
+					break;
+				case CALORIES:
+					exercise.setCalories(_parseInteger(parser, context));
+					break;
+				default:
+					// unknown and read only properties
+					parser.skipChildren();
+				}
+			}
+			return exercise;
+		}
+	}
+}
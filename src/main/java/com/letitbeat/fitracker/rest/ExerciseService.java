@@ -1,11 +1,14 @@
 package com.letitbeat.fitracker.rest;
 
+import com.letitbeat.fitracker.dto.BatchItemResultDto;
+import com.letitbeat.fitracker.dto.ImportResultDto;
+import com.letitbeat.fitracker.dto.LeaderboardEntryDto;
+import com.letitbeat.fitracker.dto.PageDto;
 import com.letitbeat.fitracker.jpa.domain.Exercise;
 import com.letitbeat.fitracker.jpa.domain.Enums;
-import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
 import io.swagger.annotations.Api;
+import java.io.InputStream;
 import java.util.List;
-import java.util.Map;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.ws.rs.Consumes;
@@ -17,12 +20,35 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 
 @Path("/api/v1/exercise")
 @Api(value = "Exercise Service")
 public interface ExerciseService {
 
+	/**
+	 * Media type of newline delimited JSON.
+	 */
+	String APPLICATION_NDJSON = "application/x-ndjson";
+
+	/**
+	 * Media type of comma separated values.
+	 */
+	String TEXT_CSV = "text/csv";
+
+	/**
+	 * Media type of CBOR, an alternative to JSON for clients which transfer many exercises.
+	 */
+	String APPLICATION_CBOR = "application/cbor";
+
+	/**
+	 * Media type of Smile, an alternative to JSON for clients which transfer many exercises.
+	 */
+	String APPLICATION_SMILE = "application/x-jackson-smile";
+
 	/**
 	 * Get the exercise for a given exerciseId.
 	 *
@@ -33,7 +59,7 @@ public interface ExerciseService {
 	@GET
 	@Path("/{exerciseId}")
 	@Nonnull
-	@Produces(MediaType.APPLICATION_JSON)
+	@Produces({MediaType.APPLICATION_JSON, APPLICATION_CBOR, APPLICATION_SMILE})
 	Exercise getExerciseById(@Nonnull @PathParam("exerciseId") Long exerciseId);
 
 	/**
@@ -46,9 +72,25 @@ public interface ExerciseService {
 	@GET
 	@Path("/")
 	@Nonnull
-	@Produces(MediaType.APPLICATION_JSON)
+	@Produces({MediaType.APPLICATION_JSON, APPLICATION_CBOR, APPLICATION_SMILE})
 	List<Exercise> getExerciseByDescription(@Nullable @QueryParam("description") String description);
 
+	/**
+	 * Get a page of the exercises with the given description, ordered by start time.
+	 *
+	 * @param description description to search
+	 * @param cursor the next cursor of the previous page, not set for the first page
+	 * @param limit maximum number of exercises to return (1 - 1000), defaults to 100
+	 * @return the exercises for the given description and the cursor of the following page
+	 * @throws RuntimeException if the cursor or limit is invalid
+	 */
+	@GET
+	@Path("/page")
+	@Nonnull
+	@Produces({MediaType.APPLICATION_JSON, APPLICATION_CBOR, APPLICATION_SMILE})
+	PageDto<Exercise> getExercisePageByDescription(@Nullable @QueryParam("description") String description,
+			@Nullable @QueryParam("cursor") String cursor, @Nullable @QueryParam("limit") Integer limit);
+
 	/**
 	 * Persists a given exercise.
 	 *
@@ -59,10 +101,44 @@ public interface ExerciseService {
 	@POST
 	@Path("/")
 	@Nonnull
-	@Consumes(MediaType.APPLICATION_JSON)
-	@Produces(MediaType.APPLICATION_JSON)
+	@Consumes({MediaType.APPLICATION_JSON, APPLICATION_CBOR, APPLICATION_SMILE})
+	@Produces({MediaType.APPLICATION_JSON, APPLICATION_CBOR, APPLICATION_SMILE})
 	Exercise createExercise(@Nonnull Exercise exercise);
 
+	/**
+	 * Persists a batch of exercises in a single transaction. Every exercise is validated like a
+	 * single created one, also against the exercises before it in the same batch. Rejected exercises
+	 * are skipped, the remaining ones are persisted.
+	 *
+	 * @param exercises to persist, at most 1000
+	 * @return the outcome of every exercise in the order of the request
+	 * @throws RuntimeException if the batch is empty or too large
+	 */
+	@POST
+	@Path("/batch")
+	@Nonnull
+	@Consumes({MediaType.APPLICATION_JSON, APPLICATION_CBOR, APPLICATION_SMILE})
+	@Produces({MediaType.APPLICATION_JSON, APPLICATION_CBOR, APPLICATION_SMILE})
+	List<BatchItemResultDto> createExercises(@Nonnull List<Exercise> exercises);
+
+	/**
+	 * Imports exercises from newline delimited JSON, one exercise per line. The input is streamed and
+	 * persisted in chunks, each in its own transaction, so it is meant for large backfills. Invalid
+	 * exercises are skipped, start time conflicts are not checked.
+	 *
+	 * @param exercises the newline delimited JSON
+	 * @param chunkSize number of exercises per transaction (1 - 100000), defaults to 1000
+	 * @return the number of imported and rejected exercises
+	 * @throws RuntimeException if the input is malformed, the chunks imported until then are kept
+	 */
+	@POST
+	@Path("/import")
+	@Nonnull
+	@Consumes({ExerciseService.APPLICATION_NDJSON, MediaType.TEXT_PLAIN})
+	@Produces({MediaType.APPLICATION_JSON, APPLICATION_CBOR, APPLICATION_SMILE})
+	ImportResultDto importExercises(@Nonnull InputStream exercises,
+			@Nullable @QueryParam("chunkSize") Integer chunkSize);
+
 	/**
 	 * Updates an existing exercise.
 	 *
@@ -73,8 +149,8 @@ public interface ExerciseService {
 	@PUT
 	@Path("/")
 	@Nonnull
-	@Consumes(MediaType.APPLICATION_JSON)
-	@Produces(MediaType.APPLICATION_JSON)
+	@Consumes({MediaType.APPLICATION_JSON, APPLICATION_CBOR, APPLICATION_SMILE})
+	@Produces({MediaType.APPLICATION_JSON, APPLICATION_CBOR, APPLICATION_SMILE})
 	Exercise updateExercise(@Nonnull Exercise exercise);
 
 	/**
@@ -85,7 +161,7 @@ public interface ExerciseService {
 	 */
 	@DELETE
 	@Path("/{exerciseId}")
-	@Produces(MediaType.APPLICATION_JSON)
+	@Produces({MediaType.APPLICATION_JSON, APPLICATION_CBOR, APPLICATION_SMILE})
 	void deleteExercise(@Nonnull @PathParam("exerciseId") Long exerciseId);
 
 	/**
@@ -96,41 +172,120 @@ public interface ExerciseService {
 	 * @param date filter: date ("yyyy-MM-dd") of the exercise
 	 * @return a list of exercises
 	 * @throws RuntimeException if there is an error please throw an appropriate exception here
+	 * @see UserETag
 	 */
 	@GET
 	@Path("/user/{userId}")
+	@UserETag
 	@Nonnull
-	@Produces(MediaType.APPLICATION_JSON)
+	@Produces({MediaType.APPLICATION_JSON, APPLICATION_CBOR, APPLICATION_SMILE})
 	List<Exercise> getExerciseByTypeAndDate(@Nonnull @PathParam("userId") Long userId,
 			@Nullable @QueryParam("type") Enums.ExerciseType exerciseType,
 			@Nullable @QueryParam("date") String date);
 
+	/**
+	 * Returns a page of the exercises for a specific user and some filter items (type + date),
+	 * ordered by start time.
+	 *
+	 * @param userId who did the exercise
+	 * @param exerciseType filter: type of the exercise
+	 * @param date filter: date ("yyyy-MM-dd") of the exercise
+	 * @param cursor the next cursor of the previous page, not set for the first page
+	 * @param limit maximum number of exercises to return (1 - 1000), defaults to 100
+	 * @return the exercises and the cursor of the following page
+	 * @throws RuntimeException if the date, cursor or limit is invalid
+	 * @see UserETag
+	 */
+	@GET
+	@Path("/user/{userId}/page")
+	@UserETag
+	@Nonnull
+	@Produces({MediaType.APPLICATION_JSON, APPLICATION_CBOR, APPLICATION_SMILE})
+	PageDto<Exercise> getExercisePageByTypeAndDate(@Nonnull @PathParam("userId") Long userId,
+			@Nullable @QueryParam("type") Enums.ExerciseType exerciseType,
+			@Nullable @QueryParam("date") String date,
+			@Nullable @QueryParam("cursor") String cursor,
+			@Nullable @QueryParam("limit") Integer limit);
+
+	/**
+	 * Exports the whole exercise history of a user ordered by start time. The response is streamed
+	 * while the exercises are read from the database.
+	 *
+	 * @param userId who did the exercises
+	 * @param format "ndjson" (default) or "csv"
+	 * @return the exercises in the requested format
+	 * @throws RuntimeException if the format is not supported
+	 * @see UserETag
+	 */
+	@GET
+	@Path("/user/{userId}/export")
+	@UserETag
+	@Nonnull
+	@Produces({ExerciseService.APPLICATION_NDJSON, ExerciseService.TEXT_CSV})
+	Response exportExercises(@Nonnull @PathParam("userId") Long userId,
+			@Nullable @QueryParam("format") String format);
+
 	/**
 	 * Calculate the ranking for the given user ids. The Calculation based on the exercises the user
 	 * has done. The first in the list is the user with the highest score.
 	 *
-	 * @param userIds list of user ids
-	 * @return the user list orders by there calculated exercise points
+	 * The ranking is calculated on the {@link AsyncRequestExecutor}, a full queue or a timeout is
+	 * answered with 503.
 	 *
+	 * @param asyncResponse resumed with the user list orders by there calculated exercise points
+	 * @param userIds list of user ids
 	 */
 	@GET
 	@Path("/ranking")
+	@Produces({MediaType.APPLICATION_JSON, APPLICATION_CBOR, APPLICATION_SMILE})
+	void getRanking(@Suspended AsyncResponse asyncResponse, @Nonnull @QueryParam("userIds") List<Long> userIds);
+
+	/**
+	 * Returns a page of the global ranking over all users with a positive score, the first entry is
+	 * the user with the highest score. Exercises which dropped out of the past 4 weeks are removed
+	 * from the ranking at most a minute late.
+	 *
+	 * @param offset number of ranks to skip, defaults to 0
+	 * @param limit maximum number of entries to return (1 - 1000), defaults to 10
+	 * @return the leaderboard entries ordered by rank
+	 */
+	@GET
+	@Path("/leaderboard")
 	@Nonnull
-	@Produces(MediaType.APPLICATION_JSON)
-	List<Long> getRanking(@Nonnull @QueryParam("userIds") List<Long> userIds);
+	@Produces({MediaType.APPLICATION_JSON, APPLICATION_CBOR, APPLICATION_SMILE})
+	List<LeaderboardEntryDto> getLeaderboard(@Nullable @QueryParam("offset") Integer offset,
+			@Nullable @QueryParam("limit") Integer limit);
+
+	/**
+	 * Returns the position of a user in the global ranking.
+	 *
+	 * @param userId the user to look up
+	 * @return the leaderboard entry of the user
+	 * @throws RuntimeException if the user has no points in the past 4 weeks
+	 */
+	@GET
+	@Path("/leaderboard/user/{userId}")
+	@Nonnull
+	@Produces({MediaType.APPLICATION_JSON, APPLICATION_CBOR, APPLICATION_SMILE})
+	LeaderboardEntryDto getLeaderboardEntry(@Nonnull @PathParam("userId") Long userId);
 
 	/**
 	 * Returns a map containing the times a user has completed each exercise based on the type,
 	 * in the past 4 weeks. If there is an exercise the user has not done, it will
 	 * return 0 as the number of times for that type.
 	 *
+	 * The statistics are calculated on the {@link AsyncRequestExecutor}, a full queue or a timeout
+	 * is answered with 503. The entity tag of the statistics changes every minute, so exercises
+	 * which dropped out of the past 4 weeks are at most a minute late in a conditional request.
+	 *
+	 * @param asyncResponse resumed with a map containing the type and the number of times each
+	 * exercise was completed in the past 4 weeks.
 	 * @param userId the user who did the exercise
-	 * @return a map containing the type and the number of times each exercise was completed in the
-	 * past 4 weeks.
+	 * @see UserETag
 	 */
 	@GET
 	@Path("/user/{userId}/stats")
-	@Nonnull
-	@Produces(MediaType.APPLICATION_JSON)
-	Map<ExerciseType, Long> getStats(@Nonnull  @PathParam("userId") Long userId);
+	@UserETag(refreshSeconds = 60)
+	@Produces({MediaType.APPLICATION_JSON, APPLICATION_CBOR, APPLICATION_SMILE})
+	void getStats(@Suspended AsyncResponse asyncResponse, @Nonnull  @PathParam("userId") Long userId);
 }
@@ -2,11 +2,24 @@ package com.letitbeat.fitracker.rest;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.letitbeat.fitracker.activity.ActivityStore;
+import com.letitbeat.fitracker.dto.BatchItemResultDto;
+import com.letitbeat.fitracker.dto.ImportResultDto;
+import com.letitbeat.fitracker.ingest.ExerciseImporter;
+import com.letitbeat.fitracker.dto.LeaderboardEntryDto;
+import com.letitbeat.fitracker.dto.PageDto;
 import com.letitbeat.fitracker.jpa.dao.ExerciseDao;
+import com.letitbeat.fitracker.jpa.dao.ExerciseRollupDao;
 import com.letitbeat.fitracker.jpa.domain.Exercise;
 import com.letitbeat.fitracker.jpa.domain.Enums;
 import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
+import com.letitbeat.fitracker.score.Leaderboard;
+import com.letitbeat.fitracker.score.ScoreIndex;
+import java.io.IOException;
+import java.io.InputStream;
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
@@ -14,14 +27,18 @@ import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.ws.rs.NotFoundException;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import org.apache.commons.lang3.time.DateUtils;
 import org.slf4j.Logger;
@@ -32,11 +49,49 @@ public class ExerciseServiceImpl implements ExerciseService {
 
 	private static final Logger log = LoggerFactory.getLogger(ExerciseServiceImpl.class);
 
+	private static final int DEFAULT_LEADERBOARD_LIMIT = 10;
+
+	private static final int MAX_LEADERBOARD_LIMIT = 1000;
+
+	private static final int MAX_BATCH_SIZE = 1000;
+
+	private static final int DEFAULT_PAGE_LIMIT = 100;
+
+	private static final int MAX_PAGE_LIMIT = 1000;
+
+	private static final int DEFAULT_IMPORT_CHUNK_SIZE = 1000;
+
+	private static final int MAX_IMPORT_CHUNK_SIZE = 100000;
+
 	private final ExerciseDao exerciseDao;
 
+	private final ExerciseRollupDao exerciseRollupDao;
+
+	private final ScoreIndex scoreIndex;
+
+	private final ActivityStore activityStore;
+
+	private final AsyncRequestExecutor asyncRequestExecutor;
+
+	private final ExerciseImporter exerciseImporter;
+
+	private final ObjectMapperProvider objectMapperProvider;
+
+	private final UserVersions userVersions;
+
 	@Inject
-	ExerciseServiceImpl(final ExerciseDao exerciseDao) {
+	ExerciseServiceImpl(final ExerciseDao exerciseDao, final ExerciseRollupDao exerciseRollupDao,
+			final ScoreIndex scoreIndex, final ActivityStore activityStore,
+			final AsyncRequestExecutor asyncRequestExecutor, final ExerciseImporter exerciseImporter,
+			final ObjectMapperProvider objectMapperProvider, final UserVersions userVersions) {
 		this.exerciseDao = exerciseDao;
+		this.exerciseRollupDao = exerciseRollupDao;
+		this.scoreIndex = scoreIndex;
+		this.activityStore = activityStore;
+		this.asyncRequestExecutor = asyncRequestExecutor;
+		this.exerciseImporter = exerciseImporter;
+		this.objectMapperProvider = objectMapperProvider;
+		this.userVersions = userVersions;
 	}
 
 	@Nonnull
@@ -60,6 +115,20 @@ public class ExerciseServiceImpl implements ExerciseService {
 		return exerciseDao.findByDescription(description);
 	}
 
+	@Nonnull
+	@Override
+	public PageDto<Exercise> getExercisePageByDescription(@Nullable final String description,
+			@Nullable final String cursor, @Nullable final Integer limit) {
+		log.debug("Get exercise page by description.");
+
+		final int size = validatePageLimit(limit);
+		final PageCursor after = PageCursor.decode(cursor);
+
+		return toPage(exerciseDao.findPageByDescription(description,
+				after != null ? after.getStartTime() : null, after != null ? after.getId() : null, size + 1),
+				size);
+	}
+
 	@Nonnull
 	@Override
 	public Exercise createExercise(@Nonnull final Exercise exercise) {
@@ -69,7 +138,117 @@ public class ExerciseServiceImpl implements ExerciseService {
 
 		validateTimespan(exercise);
 
-		return exerciseDao.create(exercise);
+		final Exercise createdExercise = exerciseDao.create(exercise);
+		scoreIndex.exerciseCreated(createdExercise);
+		userVersions.increment(createdExercise.getUserId());
+
+		return createdExercise;
+	}
+
+	@Nonnull
+	@Override
+	public List<BatchItemResultDto> createExercises(@Nonnull final List<Exercise> exercises) {
+		log.debug("Create exercises");
+
+		if (exercises == null || exercises.isEmpty()) {
+			throw new IllegalArgumentException("At least one exercise must be provided");
+		}
+		if (exercises.size() > MAX_BATCH_SIZE) {
+			throw new IllegalArgumentException(
+					"At most " + MAX_BATCH_SIZE + " exercises are allowed, provided: " + exercises.size());
+		}
+
+		final BatchItemResultDto[] results = new BatchItemResultDto[exercises.size()];
+		final Map<Long, List<Integer>> indexesByUser = new LinkedHashMap<>();
+
+		for (int i = 0; i < exercises.size(); i++) {
+			final Exercise exercise = exercises.get(i);
+			try {
+				Objects.requireNonNull(exercise, "Exercise must not be null");
+				if (!exercise.isNew()) {
+					throw new IllegalArgumentException("Exercise id must not be provided");
+				}
+				validateInput(exercise);
+				indexesByUser.computeIfAbsent(exercise.getUserId(), k -> new ArrayList<>()).add(i);
+			} catch (NullPointerException | IllegalArgumentException e) {
+				results[i] = new BatchItemResultDto(i, Status.BAD_REQUEST.getStatusCode(), null, e.getMessage());
+			}
+		}
+
+		final List<Exercise> acceptedExercises = new ArrayList<>();
+		final List<Integer> acceptedIndexes = new ArrayList<>();
+
+		for (Map.Entry<Long, List<Integer>> entry : indexesByUser.entrySet()) {
+			final List<Exercise> userExercises = new ArrayList<>(entry.getValue().size());
+			entry.getValue().forEach(i -> userExercises.add(exercises.get(i)));
+
+			// the stored exercises which can overlap the batch: the latest one starting before the
+			// batch and all starting within the time span of the batch
+			final long fromTime = userExercises.stream()
+					.mapToLong(e -> e.getStartTime().getTime()).min().getAsLong();
+			final long toTime = userExercises.stream()
+					.mapToLong(e -> latestConflictingStart(e).getTime()).max().getAsLong();
+
+			final TreeMap<Long, Long> occupied = new TreeMap<>();
+			final Exercise previous = exerciseDao.findLatestByStartTime(entry.getKey(),
+					new Date(fromTime - 1), null);
+			if (previous != null) {
+				occupied.put(previous.getStartTime().getTime(), previous.getEndTime().getTime());
+			}
+			for (Exercise stored : exerciseDao.findByDateRange(entry.getKey(), new Date(fromTime),
+					new Date(toTime))) {
+				occupied.put(stored.getStartTime().getTime(), stored.getEndTime().getTime());
+			}
+
+			for (Integer i : entry.getValue()) {
+				final Exercise exercise = exercises.get(i);
+				final Map.Entry<Long, Long> latest = occupied
+						.floorEntry(latestConflictingStart(exercise).getTime());
+				if (latest != null && isConflicting(exercise, latest.getKey(), latest.getValue())) {
+					results[i] = new BatchItemResultDto(i, Status.CONFLICT.getStatusCode(), null,
+							conflictMessage(exercise));
+				} else {
+					occupied.put(exercise.getStartTime().getTime(), calculateEndTime(exercise));
+					acceptedExercises.add(exercise);
+					acceptedIndexes.add(i);
+				}
+			}
+		}
+
+		if (!acceptedExercises.isEmpty()) {
+			final List<Exercise> createdExercises = exerciseDao.createAll(acceptedExercises);
+			for (int i = 0; i < createdExercises.size(); i++) {
+				final Exercise createdExercise = createdExercises.get(i);
+				scoreIndex.exerciseCreated(createdExercise);
+				userVersions.increment(createdExercise.getUserId());
+
+				final int index = acceptedIndexes.get(i);
+				results[index] = new BatchItemResultDto(index, Status.CREATED.getStatusCode(),
+						createdExercise.getId(), null);
+			}
+		}
+
+		return Arrays.asList(results);
+	}
+
+	@Nonnull
+	@Override
+	public ImportResultDto importExercises(@Nonnull final InputStream exercises,
+			@Nullable final Integer chunkSize) {
+		log.debug(String.format("Import exercises chunk size: %s", chunkSize));
+
+		final int size = chunkSize != null ? chunkSize : DEFAULT_IMPORT_CHUNK_SIZE;
+		if (size < 1 || size > MAX_IMPORT_CHUNK_SIZE) {
+			throw new IllegalArgumentException(
+					"Chunk size must be between 1 and " + MAX_IMPORT_CHUNK_SIZE + ", provided: " + size);
+		}
+
+		try {
+			return exerciseImporter.importExercises(exercises, size, this::validateInput);
+		} catch (IOException e) {
+			throw new WebApplicationException("Could not read the exercises to import.", e,
+					Status.BAD_REQUEST);
+		}
 	}
 
 	@Nonnull
@@ -91,7 +270,17 @@ public class ExerciseServiceImpl implements ExerciseService {
 							+ persistedExercise.getType());
 		}
 
-		return exerciseDao.update(exercise);
+		validateTimespan(exercise);
+
+		final Long previousUserId = persistedExercise.getUserId();
+		final Exercise updatedExercise = exerciseDao.update(exercise);
+		scoreIndex.exerciseUpdated(previousUserId, updatedExercise);
+		userVersions.increment(previousUserId);
+		if (!previousUserId.equals(updatedExercise.getUserId())) {
+			userVersions.increment(updatedExercise.getUserId());
+		}
+
+		return updatedExercise;
 	}
 
 	@Override
@@ -104,6 +293,8 @@ public class ExerciseServiceImpl implements ExerciseService {
 		}
 
 		exerciseDao.deleteById(exerciseId);
+		scoreIndex.exerciseDeleted(exercise.getUserId(), exerciseId);
+		userVersions.increment(exercise.getUserId());
 	}
 
 	@Nonnull
@@ -116,22 +307,61 @@ public class ExerciseServiceImpl implements ExerciseService {
 				String.format("Get exercise for userId: %d type: %s and date: %s", userId, exerciseType,
 						dateString));
 
-		Date dateParameter = null;
-		if (dateString != null) {
-			try {
-				dateParameter = DateUtils.parseDate(dateString, "yyyy-MM-dd");
-			} catch (ParseException e) {
-				log.error(e.getMessage());
-				throw new IllegalArgumentException(
-						"Date must be in the format yyyy-MM-dd, provided: " + dateString);
-			}
-		}
+		return exerciseDao.findByTypeAndDate(userId, exerciseType, parseDate(dateString));
+	}
 
-		return exerciseDao.findByTypeAndDate(userId, exerciseType, dateParameter);
+	@Nonnull
+	@Override
+	public PageDto<Exercise> getExercisePageByTypeAndDate(
+			@Nonnull final Long userId,
+			@Nullable final Enums.ExerciseType exerciseType,
+			@Nullable final String dateString,
+			@Nullable final String cursor,
+			@Nullable final Integer limit) {
+		log.debug(
+				String.format("Get exercise page for userId: %d type: %s and date: %s", userId, exerciseType,
+						dateString));
+
+		final Date dateParameter = parseDate(dateString);
+		final int size = validatePageLimit(limit);
+		final PageCursor after = PageCursor.decode(cursor);
+
+		return toPage(exerciseDao.findPageByTypeAndDate(userId, exerciseType, dateParameter,
+				after != null ? after.getStartTime() : null, after != null ? after.getId() : null, size + 1),
+				size);
 	}
 
 	@Nonnull
 	@Override
+	public Response exportExercises(@Nonnull final Long userId, @Nullable final String format) {
+		log.debug(String.format("Export exercises for userId: %d format: %s", userId, format));
+
+		final ExerciseExportOutput.Format exportFormat;
+		try {
+			exportFormat = format == null ? ExerciseExportOutput.Format.NDJSON
+					: ExerciseExportOutput.Format.valueOf(format.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Format must be ndjson or csv, provided: " + format);
+		}
+
+		final ExerciseExportOutput output = new ExerciseExportOutput(exerciseDao,
+				objectMapperProvider.getContext(Exercise.class), userId, exportFormat);
+
+		return Response.ok(output, exportFormat.getMediaType()).build();
+	}
+
+	@Override
+	public void getRanking(@Nonnull final AsyncResponse asyncResponse, @Nonnull final List<Long> userIds) {
+		asyncRequestExecutor.submit(asyncResponse, () -> getRanking(userIds));
+	}
+
+	/**
+	 * Calculates the ranking of {@link #getRanking(AsyncResponse, List)} on the calling thread.
+	 *
+	 * @param userIds list of user ids
+	 * @return the user list orders by there calculated exercise points
+	 */
+	@Nonnull
 	public List<Long> getRanking(@Nonnull final List<Long> userIds) {
 
 		log.debug(String.format("Get ranking for users: %s", userIds));
@@ -142,12 +372,11 @@ public class ExerciseServiceImpl implements ExerciseService {
 
 		Map<Long, Double> scoreByUser = new HashMap<>();
 
-		for (Long userId : userIds) {
-			Double score = getUserScore(userId);
+		scoreIndex.getScores(userIds).forEach((userId, score) -> {
 			if (score > 0) {
 				scoreByUser.put(userId, score);
 			}
-		}
+		});
 
 		return scoreByUser.entrySet().stream()
 				.sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
@@ -157,16 +386,73 @@ public class ExerciseServiceImpl implements ExerciseService {
 
 	@Nonnull
 	@Override
+	public List<LeaderboardEntryDto> getLeaderboard(@Nullable final Integer offset,
+			@Nullable final Integer limit) {
+
+		log.debug(String.format("Get leaderboard offset: %s limit: %s", offset, limit));
+
+		final int from = offset != null ? offset : 0;
+		final int size = limit != null ? limit : DEFAULT_LEADERBOARD_LIMIT;
+
+		if (from < 0) {
+			throw new IllegalArgumentException("Offset must not be negative, provided: " + from);
+		}
+		if (size < 1 || size > MAX_LEADERBOARD_LIMIT) {
+			throw new IllegalArgumentException(
+					"Limit must be between 1 and " + MAX_LEADERBOARD_LIMIT + ", provided: " + size);
+		}
+
+		return scoreIndex.getLeaderboard().getPositions(from, size).stream()
+				.map(p -> new LeaderboardEntryDto(p.getRank(), p.getUserId(), p.getScore()))
+				.collect(Collectors.toList());
+	}
+
+	@Nonnull
+	@Override
+	public LeaderboardEntryDto getLeaderboardEntry(@Nonnull final Long userId) {
+
+		log.debug(String.format("Get leaderboard entry for user: %s", userId));
+
+		final Leaderboard.Position position = scoreIndex.getLeaderboard().getPosition(userId);
+		if (position == null) {
+			throw new NotFoundException("User with id = " + userId + " has no points in the past 4 weeks.");
+		}
+
+		return new LeaderboardEntryDto(position.getRank(), position.getUserId(), position.getScore());
+	}
+
+	@Override
+	public void getStats(@Nonnull final AsyncResponse asyncResponse, @Nonnull final Long userId) {
+		asyncRequestExecutor.submit(asyncResponse, () -> getStats(userId));
+	}
+
+	/**
+	 * Calculates the statistics of {@link #getStats(AsyncResponse, Long)} on the calling thread.
+	 *
+	 * @param userId the user who did the exercise
+	 * @return the number of times each exercise type was completed in the past 4 weeks
+	 */
+	@Nonnull
 	public Map<ExerciseType, Long> getStats(@Nonnull final Long userId) {
 
 		log.debug(String.format("Get user stats for user: %s", userId));
 
 		final Date initDate = subtractDays(new Date(), 30);
-		final List<Exercise> userExercises = exerciseDao.findByDate(userId, initDate);
 
-		EnumMap<ExerciseType, Long> stats = userExercises.stream()
-				.collect(Collectors.groupingBy(Exercise::getType, () -> new EnumMap<>(ExerciseType.class),
-						Collectors.counting()));
+		final EnumMap<ExerciseType, Long> stats = new EnumMap<>(ExerciseType.class);
+		if (activityStore.isEnabled()) {
+			stats.putAll(activityStore.countByType(userId, initDate.getTime()));
+		} else {
+			// the rollup holds whole days, the exercises of the first day are only counted from the
+			// initial time on
+			final Calendar initDay = Calendar.getInstance(ExerciseRollupDao.TIME_ZONE);
+			initDay.setTime(initDate);
+			final Date firstFullDay = DateUtils.addDays(DateUtils.truncate(initDay, Calendar.DATE).getTime(), 1);
+
+			exerciseDao.countByType(userId, initDate, firstFullDay).forEach(stats::put);
+			exerciseRollupDao.countByType(userId, firstFullDay)
+					.forEach((type, count) -> stats.merge(type, count, Long::sum));
+		}
 
 		EnumSet.allOf(ExerciseType.class).forEach(e -> stats.putIfAbsent(e, 0L));
 
@@ -174,37 +460,47 @@ public class ExerciseServiceImpl implements ExerciseService {
 	}
 
 	/**
-	 * Performs a calculation of the user points based on the exercises a given user has completed in
-	 * the last 4 weeks.
-	 *
-	 * The points are calculated as follows: - A user gets points for each exercise he has completed
-	 * in the past 4 weeks. - A user gets one point per minute of the duration of the exercise plus
-	 * the burnt kilo calories. - Each time a user performs the same type of exercise again it is
-	 * worth 10% less (Make sure to look at the newest exercises first).
+	 * Parses a date filter.
 	 *
-	 * Example: A user ran 4 times in the past 4 weeks (let's say once per week). This weeks run is
-	 * worth 100%. The oldest run is worth only 70% of the calculated points for the exercise.
-	 *
-	 * - Each exercise type has a multiplication factor for the point calculation.
-	 *
-	 * @param userId the user id to calculate the exercise earned points.
-	 * @return the score calculated for the given user
+	 * @param dateString the date in the format yyyy-MM-dd or null
+	 * @return the parsed date or null if no date was given
 	 */
-	private Double getUserScore(final Long userId) {
+	private Date parseDate(@Nullable final String dateString) {
+		if (dateString == null) {
+			return null;
+		}
+		try {
+			return DateUtils.parseDate(dateString, "yyyy-MM-dd");
+		} catch (ParseException e) {
+			log.error(e.getMessage());
+			throw new IllegalArgumentException(
+					"Date must be in the format yyyy-MM-dd, provided: " + dateString);
+		}
+	}
 
-		final Date initDate = subtractDays(new Date(), 30);
-		final List<Exercise> userExercises = exerciseDao.findByDate(userId, initDate);
-		final Map<ExerciseType, Double> types = new EnumMap<>(ExerciseType.class);
-
-		return userExercises.stream()
-				.sorted((a, b) -> b.getStartTime().compareTo(a.getStartTime()))          // reverse order
-				.mapToDouble(e -> {
-							double points = (double)(e.getDuration() / 60) + e.getCalories();  // duration to mins
-							double weight = types.getOrDefault(e.getType(), 1.0);
-							types.put(e.getType(), weight - 0.1);
-							return points * e.getType().getMultiplier() * weight;
-						}
-				).sum();
+	private int validatePageLimit(@Nullable final Integer limit) {
+		final int size = limit != null ? limit : DEFAULT_PAGE_LIMIT;
+		if (size < 1 || size > MAX_PAGE_LIMIT) {
+			throw new IllegalArgumentException(
+					"Limit must be between 1 and " + MAX_PAGE_LIMIT + ", provided: " + size);
+		}
+		return size;
+	}
+
+	/**
+	 * Cuts a page out of the exercises fetched with one more than the limit, the additional
+	 * exercise only tells whether there is a following page.
+	 *
+	 * @param exercises the fetched exercises, at most limit + 1
+	 * @param limit the page size
+	 * @return the page with the cursor of the following page, if there is one
+	 */
+	private PageDto<Exercise> toPage(final List<Exercise> exercises, final int limit) {
+		if (exercises.size() <= limit) {
+			return new PageDto<>(exercises, null);
+		}
+		final List<Exercise> items = new ArrayList<>(exercises.subList(0, limit));
+		return new PageDto<>(items, PageCursor.encode(items.get(limit - 1)));
 	}
 
 	/**
@@ -241,43 +537,58 @@ public class ExerciseServiceImpl implements ExerciseService {
 	 * or during the exercise duration. If that is the case, will throw an exception indicating
 	 * that a conflict occurs.
 	 *
-	 * @param exercise the exercise to check.
+	 * The stored exercises of a user never overlap, so the one with the latest start before the end
+	 * of the given exercise also ends last. Only this exercise has to be checked, it is found with a
+	 * single index lookup regardless of the history length. Exercises imported without the check
+	 * are not covered by this assumption.
+	 *
+	 * @param exercise the exercise to check, an exercise with an id is not checked against itself.
 	 * @throws RuntimeException if there is a conflict with the exercise start time.
 	 */
-	private void validateTimespan(@Nonnull final Exercise exercise) {
+	void validateTimespan(@Nonnull final Exercise exercise) {
 
 		Objects.requireNonNull(exercise, "Exercise must not be null");
 
-		final Date exerciseStartTime = exercise.getStartTime();
-		final List<Exercise> exercises = exerciseDao
-				.findByDate(exercise.getUserId(), truncateTime(exerciseStartTime));
-
-		for (Exercise persistedExercise : exercises) {
+		final Exercise latest = exerciseDao.findLatestByStartTime(exercise.getUserId(),
+				latestConflictingStart(exercise), exercise.getId());
 
-			long startTime = persistedExercise.getStartTime().getTime();
-			long endTime = startTime + persistedExercise.getDuration() * 1000; // duration is in seconds
-
-			if (exerciseStartTime.equals(persistedExercise.getStartTime())
-					|| (exerciseStartTime.after(persistedExercise.getStartTime())
-					&& exerciseStartTime.before(new Date(endTime)))) {
-				throw new WebApplicationException(
-						"There is already an exercise taking place for the given start time: " +
-								exerciseStartTime.toString(), Status.CONFLICT);
-			}
+		if (latest != null
+				&& isConflicting(exercise, latest.getStartTime().getTime(), latest.getEndTime().getTime())) {
+			throw new WebApplicationException(conflictMessage(exercise), Status.CONFLICT);
 		}
 	}
 
 	/**
-	 * Removes the time part for a given date
+	 * Checks if an exercise overlaps another exercise.
 	 *
-	 * For example if you have the date 07-06-2017 12:15:23, this method will truncate the time
-	 * and return 07-06-2017 00:00:00.
-	 *
-	 * @param date the date to work with
-	 * @return the date with the time truncated.
+	 * @param exercise the new exercise
+	 * @param startTime the start time of the exercise already taking place in milliseconds
+	 * @param endTime the end time of the exercise already taking place in milliseconds
+	 * @return true if the start time is the same or the periods of both exercises overlap
+	 */
+	private boolean isConflicting(final Exercise exercise, final long startTime, final long endTime) {
+
+		final long exerciseStartTime = exercise.getStartTime().getTime();
+
+		return exerciseStartTime == startTime
+				|| (startTime < calculateEndTime(exercise) && endTime > exerciseStartTime);
+	}
+
+	/**
+	 * Returns the latest start time of another exercise which could conflict with the given one,
+	 * that is just before its end or its start time for an exercise without duration.
 	 */
-	private Date truncateTime(Date date) {
-		return DateUtils.truncate(date, Calendar.DATE);
+	private Date latestConflictingStart(final Exercise exercise) {
+		return new Date(Math.max(exercise.getStartTime().getTime(), calculateEndTime(exercise) - 1));
+	}
+
+	private long calculateEndTime(final Exercise exercise) {
+		return exercise.getStartTime().getTime() + exercise.getDuration() * 1000L; // duration is in seconds
+	}
+
+	private String conflictMessage(final Exercise exercise) {
+		return "There is already an exercise taking place for the given start time: "
+				+ exercise.getStartTime().toString();
 	}
 
 	/**
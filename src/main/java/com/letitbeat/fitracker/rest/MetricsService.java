@@ -0,0 +1,25 @@
+package com.letitbeat.fitracker.rest;
+
+import com.letitbeat.fitracker.metrics.LatencyMetrics;
+import io.swagger.annotations.Api;
+import javax.annotation.Nonnull;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+@Path("/metrics")
+@Api(value = "Metrics Service")
+public interface MetricsService {
+
+	/**
+	 * Get the latencies of the REST resource methods and of the DAO methods since the start, to be
+	 * scraped by Prometheus.
+	 *
+	 * @return the 50th, 99th and 99.9th percentile, the sum and the count of the latencies per
+	 * method in the Prometheus text format
+	 */
+	@GET
+	@Nonnull
+	@Produces(LatencyMetrics.TEXT_FORMAT)
+	String getMetrics();
+}
@@ -0,0 +1,23 @@
+package com.letitbeat.fitracker.rest;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.letitbeat.fitracker.metrics.LatencyMetrics;
+import javax.annotation.Nonnull;
+
+@Singleton
+public class MetricsServiceImpl implements MetricsService {
+
+	private final LatencyMetrics latencyMetrics;
+
+	@Inject
+	MetricsServiceImpl(final LatencyMetrics latencyMetrics) {
+		this.latencyMetrics = latencyMetrics;
+	}
+
+	@Nonnull
+	@Override
+	public String getMetrics() {
+		return latencyMetrics.toPrometheusText();
+	}
+}
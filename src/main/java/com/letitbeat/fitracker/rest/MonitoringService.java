@@ -0,0 +1,50 @@
+package com.letitbeat.fitracker.rest;
+
+import com.letitbeat.fitracker.dto.AsyncStatsDto;
+import com.letitbeat.fitracker.dto.CacheStatsDto;
+import com.letitbeat.fitracker.dto.PoolStatsDto;
+import io.swagger.annotations.Api;
+import javax.annotation.Nonnull;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+@Path("/api/v1/monitoring")
+@Api(value = "Monitoring Service")
+public interface MonitoringService {
+
+	/**
+	 * Get the state of the database connection pool.
+	 *
+	 * @return the number of active, idle and waiting connections and the connection acquire times
+	 * @throws RuntimeException if the persistence unit does not use a connection pool
+	 */
+	@GET
+	@Path("/pool")
+	@Nonnull
+	@Produces(MediaType.APPLICATION_JSON)
+	PoolStatsDto getPoolStats();
+
+	/**
+	 * Get the hit and miss counts of the second-level and query cache since the start.
+	 *
+	 * @return the cache statistics, the counts stay 0 while a cache is disabled
+	 */
+	@GET
+	@Path("/cache")
+	@Nonnull
+	@Produces(MediaType.APPLICATION_JSON)
+	CacheStatsDto getCacheStats();
+
+	/**
+	 * Get the state of the worker pool which calculates the asynchronous requests.
+	 *
+	 * @return the number of active, waiting and rejected requests and the time waited for a worker
+	 */
+	@GET
+	@Path("/async")
+	@Nonnull
+	@Produces(MediaType.APPLICATION_JSON)
+	AsyncStatsDto getAsyncStats();
+}
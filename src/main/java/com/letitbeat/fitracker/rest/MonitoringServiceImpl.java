@@ -0,0 +1,71 @@
+package com.letitbeat.fitracker.rest;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import com.letitbeat.fitracker.dto.AsyncStatsDto;
+import com.letitbeat.fitracker.dto.CacheStatsDto;
+import com.letitbeat.fitracker.dto.PoolStatsDto;
+import com.letitbeat.fitracker.jpa.PooledConnectionProvider;
+import javax.annotation.Nonnull;
+import javax.persistence.EntityManagerFactory;
+import javax.ws.rs.NotFoundException;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@Singleton
+public class MonitoringServiceImpl implements MonitoringService {
+
+	private static final Logger log = LoggerFactory.getLogger(MonitoringServiceImpl.class);
+
+	private final Provider<EntityManagerFactory> entityManagerFactoryProvider;
+
+	private final AsyncRequestExecutor asyncRequestExecutor;
+
+	@Inject
+	MonitoringServiceImpl(final Provider<EntityManagerFactory> entityManagerFactoryProvider,
+			final AsyncRequestExecutor asyncRequestExecutor) {
+		this.entityManagerFactoryProvider = entityManagerFactoryProvider;
+		this.asyncRequestExecutor = asyncRequestExecutor;
+	}
+
+	@Nonnull
+	@Override
+	public PoolStatsDto getPoolStats() {
+		log.debug("Get connection pool stats.");
+
+		final PooledConnectionProvider connectionProvider = PooledConnectionProvider
+				.of(entityManagerFactoryProvider.get());
+		if (connectionProvider == null) {
+			throw new NotFoundException("The persistence unit does not use a connection pool.");
+		}
+
+		return connectionProvider.getStats();
+	}
+
+	@Nonnull
+	@Override
+	public CacheStatsDto getCacheStats() {
+		log.debug("Get cache stats.");
+
+		final SessionFactory sessionFactory = entityManagerFactoryProvider.get().unwrap(SessionFactory.class);
+		final SessionFactoryOptions options = sessionFactory.getSessionFactoryOptions();
+		final Statistics statistics = sessionFactory.getStatistics();
+
+		return new CacheStatsDto(options.isSecondLevelCacheEnabled(), statistics.getSecondLevelCacheHitCount(),
+				statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount(),
+				options.isQueryCacheEnabled(), statistics.getQueryCacheHitCount(),
+				statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount());
+	}
+
+	@Nonnull
+	@Override
+	public AsyncStatsDto getAsyncStats() {
+		log.debug("Get async request stats.");
+
+		return asyncRequestExecutor.getStats();
+	}
+}
@@ -1,29 +1,61 @@
 package com.letitbeat.fitracker.rest;
 
+import java.util.List;
+
 import javax.ws.rs.ext.ContextResolver;
 import javax.ws.rs.ext.Provider;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
 import com.google.inject.Singleton;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
 
-
+/**
+ * Resolves the single object mapper of the application. The mapper is thread safe once configured
+ * and caches the serializers it looked up, so it is created once and the serializers of the
+ * exercises are looked up before the first request.
+ *
+ * The output is compact, a client asks for indented output with the query parameter
+ * {@value PrettyPrintFilter#PRETTY_PARAMETER}, see {@link PrettyPrintFilter}.
+ */
 @Provider
 @Singleton
 public class ObjectMapperProvider implements ContextResolver<ObjectMapper> {
 
-	static ObjectMapper newObjectMapper() {
-		final ObjectMapper result = new ObjectMapper();
+	private static final ObjectMapper OBJECT_MAPPER = newObjectMapper(new JsonFactory());
+
+	/**
+	 * Creates a mapper with the configuration of the shared JSON mapper, also used by the providers
+	 * of the binary formats so they map the same properties as the JSON.
+	 *
+	 * @param factory parser and generator factory of the data format
+	 * @return the configured mapper with the exercise serializers already looked up
+	 */
+	static ObjectMapper newObjectMapper(final JsonFactory factory) {
+		final ObjectMapper result = new ObjectMapper(factory);
 		result.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-		result.configure(SerializationFeature.INDENT_OUTPUT, true);
 		result.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+		result.registerModule(new ExerciseJsonModule());
+
+		final JavaType exerciseList = result.getTypeFactory().constructCollectionType(List.class, Exercise.class);
+		result.canSerialize(Exercise.class);
+		result.canDeserialize(result.constructType(Exercise.class));
+		result.canDeserialize(exerciseList);
 		return result;
 	}
 
+	/**
+	 * @return the shared object mapper, also for code outside of Jersey
+	 */
+	static ObjectMapper getObjectMapper() {
+		return OBJECT_MAPPER;
+	}
+
 	@Override
 	public ObjectMapper getContext(Class<?> type) {
-		return newObjectMapper();
+		return OBJECT_MAPPER;
 	}
 }
@@ -0,0 +1,70 @@
+package com.letitbeat.fitracker.rest;
+
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Position of a page in a list of exercises ordered by start time and id. The client only sees
+ * the encoded form and passes it back to get the following page.
+ */
+final class PageCursor {
+
+	private final Date startTime;
+
+	private final Long id;
+
+	private PageCursor(final Date startTime, final Long id) {
+		this.startTime = startTime;
+		this.id = id;
+	}
+
+	/**
+	 * @return the start time of the last exercise of the previous page
+	 */
+	Date getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * @return the id of the last exercise of the previous page
+	 */
+	Long getId() {
+		return id;
+	}
+
+	/**
+	 * Creates the cursor of the page following the given exercise.
+	 *
+	 * @param exercise the last exercise of a page
+	 * @return the encoded cursor
+	 */
+	@Nonnull
+	static String encode(@Nonnull final Exercise exercise) {
+		final String key = exercise.getStartTime().getTime() + ":" + exercise.getId();
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @param cursor the encoded cursor or null for the first page
+	 * @return the decoded cursor or null for the first page
+	 * @throws IllegalArgumentException if the cursor is malformed
+	 */
+	@Nullable
+	static PageCursor decode(@Nullable final String cursor) {
+		if (cursor == null || cursor.isEmpty()) {
+			return null;
+		}
+		try {
+			final String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			final int separator = key.indexOf(':');
+			return new PageCursor(new Date(Long.parseLong(key.substring(0, separator))),
+					Long.valueOf(key.substring(separator + 1)));
+		} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("Malformed cursor: " + cursor);
+		}
+	}
+}
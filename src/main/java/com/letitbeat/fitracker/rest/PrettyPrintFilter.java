@@ -0,0 +1,72 @@
+package com.letitbeat.fitracker.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.jaxrs.cfg.EndpointConfigBase;
+import com.fasterxml.jackson.jaxrs.cfg.ObjectWriterInjector;
+import com.fasterxml.jackson.jaxrs.cfg.ObjectWriterModifier;
+import java.io.IOException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+/**
+ * Indents the JSON of a response if the request has the query parameter
+ * {@value #PRETTY_PARAMETER}{@code =true}. The shared object mapper writes compact JSON, the
+ * indentation is only switched on for the writer of this response.
+ *
+ * The filter marks the request, the interceptor passes the pretty printer to the JSON provider
+ * while a JSON entity is written. The pretty printer is handed over in a thread local, which is
+ * cleared after the entity is written, so it never applies to a later request of the same thread.
+ */
+@Provider
+public class PrettyPrintFilter implements ContainerResponseFilter, WriterInterceptor {
+
+	/**
+	 * Query parameter which switches on the indented output.
+	 */
+	public static final String PRETTY_PARAMETER = "pretty";
+
+	/**
+	 * Request property set by the filter if the response is indented.
+	 */
+	private static final String PRETTY_PROPERTY = PrettyPrintFilter.class.getName() + ".pretty";
+
+	private static final ObjectWriterModifier PRETTY_PRINTER = new ObjectWriterModifier() {
+		@Override
+		public ObjectWriter modify(final EndpointConfigBase<?> endpoint,
+				final MultivaluedMap<String, Object> responseHeaders, final Object valueToWrite,
+				final ObjectWriter writer, final JsonGenerator generator) {
+			return writer.withDefaultPrettyPrinter();
+		}
+	};
+
+	@Override
+	public void filter(final ContainerRequestContext requestContext,
+			final ContainerResponseContext responseContext) {
+		if (Boolean.parseBoolean(requestContext.getUriInfo().getQueryParameters().getFirst(PRETTY_PARAMETER))) {
+			requestContext.setProperty(PRETTY_PROPERTY, Boolean.TRUE);
+		}
+	}
+
+	@Override
+	public void aroundWriteTo(final WriterInterceptorContext context) throws IOException {
+		if (!Boolean.TRUE.equals(context.getProperty(PRETTY_PROPERTY)) || context.getMediaType() == null
+				|| !MediaType.APPLICATION_JSON_TYPE.isCompatible(context.getMediaType())) {
+			context.proceed();
+			return;
+		}
+
+		ObjectWriterInjector.set(PRETTY_PRINTER);
+		try {
+			context.proceed();
+		} finally {
+			ObjectWriterInjector.getAndClear();
+		}
+	}
+}
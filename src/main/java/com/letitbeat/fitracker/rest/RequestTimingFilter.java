@@ -0,0 +1,58 @@
+package com.letitbeat.fitracker.rest;
+
+import com.google.inject.Inject;
+import com.letitbeat.fitracker.StartupTimer;
+import com.letitbeat.fitracker.metrics.LatencyMetrics;
+import java.lang.reflect.Method;
+import javax.annotation.Priority;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Records the latency of every request in the {@link LatencyMetrics} of its resource method, from
+ * the first request filter up to the last response filter. The response of an asynchronous
+ * request is filtered when it is resumed, so its latency includes the time on the worker pool.
+ * Requests which did not match a resource method are not recorded. The first request is reported
+ * to the {@link StartupTimer}.
+ */
+@Provider
+@Priority(1) // before and after the other filters
+public class RequestTimingFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+	private static final String START_TIME_PROPERTY = RequestTimingFilter.class.getName() + ".startTime";
+
+	private final LatencyMetrics latencyMetrics;
+
+	@Context
+	private ResourceInfo resourceInfo;
+
+	@Inject
+	RequestTimingFilter(final LatencyMetrics latencyMetrics) {
+		this.latencyMetrics = latencyMetrics;
+	}
+
+	@Override
+	public void filter(final ContainerRequestContext requestContext) {
+		StartupTimer.requestStarted();
+		requestContext.setProperty(START_TIME_PROPERTY, System.nanoTime());
+	}
+
+	@Override
+	public void filter(final ContainerRequestContext requestContext,
+			final ContainerResponseContext responseContext) {
+		final Object startTime = requestContext.getProperty(START_TIME_PROPERTY);
+		final Method method = resourceInfo.getResourceMethod();
+		if (startTime == null || method == null) {
+			return;
+		}
+
+		latencyMetrics.getHistogram(LatencyMetrics.REQUESTS,
+				method.getDeclaringClass().getSimpleName() + "." + method.getName())
+				.record(System.nanoTime() - (Long) startTime);
+	}
+}
@@ -25,7 +25,7 @@ public class RestExceptionMapper implements ExceptionMapper<Exception> {
 	private final ObjectMapper objectMapper;
 
 	public RestExceptionMapper() {
-		objectMapper = ObjectMapperProvider.newObjectMapper();
+		objectMapper = ObjectMapperProvider.getObjectMapper();
 	}
 
 	@Override
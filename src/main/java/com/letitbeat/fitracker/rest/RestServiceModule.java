@@ -7,7 +7,15 @@ public class RestServiceModule extends AbstractModule {
 	@Override
 	protected void configure() {
 		bind(ExerciseService.class).to(ExerciseServiceImpl.class);
+		bind(MonitoringService.class).to(MonitoringServiceImpl.class);
+		bind(MetricsService.class).to(MetricsServiceImpl.class);
+		bind(AsyncRequestExecutor.class);
+		bind(UserVersions.class);
+		bind(UserETagFilter.class);
+		bind(RequestTimingFilter.class);
 		bind(ObjectMapperProvider.class);
+		bind(CborProvider.class);
+		bind(SmileProvider.class);
 		bind(RestExceptionMapper.class);
 	}
 }
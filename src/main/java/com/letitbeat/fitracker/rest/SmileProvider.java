@@ -0,0 +1,22 @@
+package com.letitbeat.fitracker.rest;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.inject.Singleton;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Reads and writes the entities as Smile, the binary JSON format of Jackson.
+ */
+@Provider
+@Singleton
+@Consumes(ExerciseService.APPLICATION_SMILE)
+@Produces(ExerciseService.APPLICATION_SMILE)
+public class SmileProvider extends BinaryJacksonProvider {
+
+	public SmileProvider() {
+		super(MediaType.valueOf(ExerciseService.APPLICATION_SMILE), new SmileFactory());
+	}
+}
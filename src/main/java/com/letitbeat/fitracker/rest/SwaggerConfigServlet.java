@@ -0,0 +1,34 @@
+package com.letitbeat.fitracker.rest;
+
+import com.letitbeat.fitracker.StartupProfile;
+import com.letitbeat.fitracker.StartupTimer;
+import io.swagger.jersey.config.JerseyJaxrsConfig;
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletException;
+
+/**
+ * Configures the Swagger listing resource with the init parameters of the web.xml in the dev
+ * profile. The production profile serves the pre-built specification of the
+ * {@link SwaggerSpecServlet} and skips it. It is the last servlet started, so it logs the report of
+ * the {@link StartupTimer}.
+ */
+public class SwaggerConfigServlet extends JerseyJaxrsConfig {
+
+	private static final long serialVersionUID = 1L;
+
+	static final String STARTUP_PHASE = "Swagger";
+
+	@Override
+	public void init(final ServletConfig servletConfig) throws ServletException {
+		final StartupProfile profile = StartupProfile.current();
+		if (profile != StartupProfile.PRODUCTION) {
+			StartupTimer.begin(STARTUP_PHASE);
+			try {
+				super.init(servletConfig);
+			} finally {
+				StartupTimer.end(STARTUP_PHASE);
+			}
+		}
+		StartupTimer.report(profile);
+	}
+}
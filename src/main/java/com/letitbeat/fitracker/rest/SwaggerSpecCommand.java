@@ -0,0 +1,72 @@
+package com.letitbeat.fitracker.rest;
+
+import io.swagger.jaxrs.Reader;
+import io.swagger.jaxrs.config.DefaultReaderConfig;
+import io.swagger.models.Info;
+import io.swagger.models.Scheme;
+import io.swagger.models.Swagger;
+import io.swagger.util.Json;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import javax.annotation.Nonnull;
+
+/**
+ * Writes the Swagger specification of the REST resources served by the {@link SwaggerSpecServlet}
+ * in the production profile, run it after changing a resource:
+ *
+ * <pre>
+ * java -cp ... com.letitbeat.fitracker.rest.SwaggerSpecCommand src/main/resources/META-INF/swagger.json
+ * </pre>
+ */
+public final class SwaggerSpecCommand {
+
+	// the same as the init parameters of the Swagger servlet in the web.xml
+	private static final String API_VERSION = "1.0.0";
+
+	private static final String HOST = "localhost:8080";
+
+	private static final String BASE_PATH = "/rest";
+
+	// the default title of the Swagger servlet
+	private static final String TITLE = "Swagger Server";
+
+	private static final Class<?>[] RESOURCE_CLASSES = {ExerciseService.class, MonitoringService.class,
+			MetricsService.class};
+
+	private SwaggerSpecCommand() {
+	}
+
+	public static void main(final String[] args) throws IOException {
+		if (args.length != 1) {
+			System.err.println("Usage: SwaggerSpecCommand <file>");
+			System.exit(1);
+		}
+
+		Files.write(Paths.get(args[0]), build().getBytes(StandardCharsets.UTF_8));
+
+		System.out.println(String.format("Wrote the Swagger specification to %s", args[0]));
+	}
+
+	/**
+	 * Reads the resource classes like the Swagger servlet does with scan.all.resources.
+	 *
+	 * @return the specification as JSON
+	 */
+	@Nonnull
+	static String build() {
+		final Swagger swagger = new Swagger()
+				.info(new Info().title(TITLE).version(API_VERSION))
+				.host(HOST)
+				.basePath(BASE_PATH)
+				.scheme(Scheme.HTTP);
+
+		final DefaultReaderConfig config = new DefaultReaderConfig();
+		config.setScanAllResources(true);
+		new Reader(swagger, config).read(new LinkedHashSet<>(Arrays.asList(RESOURCE_CLASSES)));
+		return Json.pretty(swagger);
+	}
+}
@@ -0,0 +1,17 @@
+package com.letitbeat.fitracker.rest;
+
+import com.google.inject.Singleton;
+import com.google.inject.servlet.ServletModule;
+
+/**
+ * Serves the pre-built Swagger specification in the production profile. The Guice filter runs
+ * before the Jersey servlet, so the Swagger listing resource is not reached.
+ */
+public class SwaggerSpecModule extends ServletModule {
+
+	@Override
+	protected void configureServlets() {
+		bind(SwaggerSpecServlet.class).in(Singleton.class);
+		serve("/rest/swagger.json").with(SwaggerSpecServlet.class);
+	}
+}
@@ -0,0 +1,58 @@
+package com.letitbeat.fitracker.rest;
+
+import com.google.inject.Singleton;
+import com.letitbeat.fitracker.StartupTimer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Serves the Swagger specification written by the {@link SwaggerSpecCommand} in the production
+ * profile, instead of the Swagger listing resource, which reads all resource classes on the first
+ * request.
+ */
+@Singleton
+public class SwaggerSpecServlet extends HttpServlet {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Class path resource of the specification.
+	 */
+	public static final String RESOURCE = "META-INF/swagger.json";
+
+	private byte[] spec;
+
+	@Override
+	public void init() throws ServletException {
+		StartupTimer.begin(SwaggerConfigServlet.STARTUP_PHASE);
+		try (InputStream input = SwaggerSpecServlet.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+			if (input == null) {
+				throw new ServletException(String.format("Swagger specification %s not found", RESOURCE));
+			}
+			final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			final byte[] buffer = new byte[4096];
+			int read;
+			while ((read = input.read(buffer)) != -1) {
+				bytes.write(buffer, 0, read);
+			}
+			spec = bytes.toByteArray();
+		} catch (IOException e) {
+			throw new ServletException(e);
+		} finally {
+			StartupTimer.end(SwaggerConfigServlet.STARTUP_PHASE);
+		}
+	}
+
+	@Override
+	protected void doGet(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+		response.setContentType(MediaType.APPLICATION_JSON);
+		response.setContentLength(spec.length);
+		response.getOutputStream().write(spec);
+	}
+}
@@ -0,0 +1,25 @@
+package com.letitbeat.fitracker.rest;
+
+import com.letitbeat.fitracker.StartupTimer;
+import javax.servlet.ServletException;
+import org.glassfish.jersey.servlet.ServletContainer;
+
+/**
+ * The Jersey servlet, which records its initialization in the {@link StartupTimer}.
+ */
+public class TimedServletContainer extends ServletContainer {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final String STARTUP_PHASE = "Jersey";
+
+	@Override
+	public void init() throws ServletException {
+		StartupTimer.begin(STARTUP_PHASE);
+		try {
+			super.init();
+		} finally {
+			StartupTimer.end(STARTUP_PHASE);
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package com.letitbeat.fitracker.rest;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import javax.ws.rs.NameBinding;
+
+/**
+ * Marks a read of the exercises of the user in the path parameter {@value #USER_ID_PARAMETER}. The
+ * response gets a weak entity tag of the {@link UserVersions} and a request with a matching
+ * If-None-Match header is answered with 304 before the resource method is called, see
+ * {@link UserETagFilter}.
+ */
+@NameBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface UserETag {
+
+	/**
+	 * Path parameter with the user id.
+	 */
+	String USER_ID_PARAMETER = "userId";
+
+	/**
+	 * @return seconds after which the tag changes even without a write, for responses which also
+	 * depend on the current time. 0 if the response only changes with the exercises of the user.
+	 */
+	int refreshSeconds() default 0;
+}
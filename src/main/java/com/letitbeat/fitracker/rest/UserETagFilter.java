@@ -0,0 +1,93 @@
+package com.letitbeat.fitracker.rest;
+
+import com.google.inject.Inject;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.ext.Provider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Conditional GET of the resource methods annotated with {@link UserETag}.
+ *
+ * The tag is taken from the {@link UserVersions} before the resource method reads the exercises.
+ * If the If-None-Match header of the request matches, the request is answered with 304 without
+ * calling the resource method, otherwise the tag is added to the successful response. A write
+ * between taking the tag and reading the exercises only costs the client another full response.
+ */
+@Provider
+@UserETag
+public class UserETagFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+	private static final Logger log = LoggerFactory.getLogger(UserETagFilter.class);
+
+	private static final String TAG_PROPERTY = UserETagFilter.class.getName() + ".tag";
+
+	private final UserVersions userVersions;
+
+	@Context
+	private ResourceInfo resourceInfo;
+
+	@Inject
+	UserETagFilter(final UserVersions userVersions) {
+		this.userVersions = userVersions;
+	}
+
+	@Override
+	public void filter(final ContainerRequestContext requestContext) {
+		final String method = requestContext.getMethod();
+		final String userId = requestContext.getUriInfo().getPathParameters().getFirst(UserETag.USER_ID_PARAMETER);
+		if (userId == null || !HttpMethod.GET.equals(method) && !HttpMethod.HEAD.equals(method)) {
+			return;
+		}
+
+		final EntityTag tag;
+		try {
+			tag = newTag(Long.valueOf(userId));
+		} catch (NumberFormatException e) {
+			// not a user id, Jersey answers the request with 404
+			return;
+		}
+
+		final Response.ResponseBuilder notModified = requestContext.getRequest().evaluatePreconditions(tag);
+		if (notModified != null) {
+			log.debug(String.format("Exercises of user %s not modified, tag %s", userId, tag));
+			requestContext.abortWith(notModified.build());
+			return;
+		}
+		requestContext.setProperty(TAG_PROPERTY, tag);
+	}
+
+	@Override
+	public void filter(final ContainerRequestContext requestContext,
+			final ContainerResponseContext responseContext) {
+		final Object tag = requestContext.getProperty(TAG_PROPERTY);
+		if (tag != null && responseContext.getStatus() == Status.OK.getStatusCode()) {
+			responseContext.getHeaders().putSingle(HttpHeaders.ETAG, tag);
+		}
+	}
+
+	private EntityTag newTag(final Long userId) {
+		final StringBuilder value = new StringBuilder()
+				.append(Long.toString(userVersions.getStartTime(), Character.MAX_RADIX))
+				.append('-')
+				.append(userVersions.getVersion(userId));
+
+		final UserETag annotation = resourceInfo.getResourceMethod().getAnnotation(UserETag.class);
+		if (annotation != null && annotation.refreshSeconds() > 0) {
+			final long refreshMillis = TimeUnit.SECONDS.toMillis(annotation.refreshSeconds());
+			value.append('-').append(System.currentTimeMillis() / refreshMillis);
+		}
+		return new EntityTag(value.toString(), true);
+	}
+}
@@ -0,0 +1,48 @@
+package com.letitbeat.fitracker.rest;
+
+import com.google.inject.Singleton;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nonnull;
+
+/**
+ * Counts the writes of the exercises of every user. A read of the exercises of a user is answered
+ * with 304 if the version of the user did not change since the client received the response, see
+ * {@link UserETagFilter}.
+ *
+ * A version is incremented after the write was committed, so a response tagged with a version
+ * never contains older exercises than the version stands for. The versions are kept in memory and
+ * start at 0 again after a restart, so the tags include the start time of the server and a tag of
+ * a previous run does not match. Exercises written directly to the database are not counted.
+ */
+@Singleton
+public class UserVersions {
+
+	private final long startTime = System.currentTimeMillis();
+
+	private final ConcurrentMap<Long, Long> versions = new ConcurrentHashMap<>();
+
+	/**
+	 * @param userId the user who did the exercises
+	 * @return the number of writes of the exercises of the user since the start of the server
+	 */
+	public long getVersion(@Nonnull final Long userId) {
+		return versions.getOrDefault(userId, 0L);
+	}
+
+	/**
+	 * Called after an exercise of the user was created, updated or deleted.
+	 *
+	 * @param userId the user who did the exercise
+	 */
+	public void increment(@Nonnull final Long userId) {
+		versions.merge(userId, 1L, Long::sum);
+	}
+
+	/**
+	 * @return the time in milliseconds the versions started counting
+	 */
+	public long getStartTime() {
+		return startTime;
+	}
+}
@@ -0,0 +1,122 @@
+package com.letitbeat.fitracker.score;
+
+import com.google.inject.Singleton;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Global ranking of all users with a positive score, kept in score order by the {@link ScoreIndex}
+ * on every score change.
+ */
+@Singleton
+public class Leaderboard {
+
+	private final RankedSkipList ranking = new RankedSkipList();
+
+	private final Map<Long, Double> scoreByUser = new HashMap<>();
+
+	/**
+	 * A ranked user.
+	 */
+	public static final class Position {
+
+		private final int rank;
+
+		private final long userId;
+
+		private final double score;
+
+		Position(final int rank, final long userId, final double score) {
+			this.rank = rank;
+			this.userId = userId;
+			this.score = score;
+		}
+
+		/**
+		 * @return the rank starting with 1 for the best user
+		 */
+		public int getRank() {
+			return rank;
+		}
+
+		public long getUserId() {
+			return userId;
+		}
+
+		public double getScore() {
+			return score;
+		}
+	}
+
+	/**
+	 * Returns a page of the ranking.
+	 *
+	 * @param offset number of positions to skip
+	 * @param limit maximum number of positions to return
+	 * @return the positions ordered by rank
+	 */
+	@Nonnull
+	public List<Position> getPositions(final int offset, final int limit) {
+		final List<RankedSkipList.Entry> entries = ranking.range(offset, limit);
+
+		final List<Position> positions = new ArrayList<>(entries.size());
+		for (int i = 0; i < entries.size(); i++) {
+			final RankedSkipList.Entry entry = entries.get(i);
+			positions.add(new Position(offset + i + 1, entry.getUserId(), entry.getScore()));
+		}
+		return positions;
+	}
+
+	/**
+	 * Returns the position of a single user.
+	 *
+	 * @param userId the user to look up
+	 * @return the position or null if the user has no positive score
+	 */
+	@Nullable
+	public Position getPosition(final long userId) {
+		synchronized (scoreByUser) {
+			final Double score = scoreByUser.get(userId);
+			if (score == null) {
+				return null;
+			}
+			return new Position(ranking.rank(score, userId) + 1, userId, score);
+		}
+	}
+
+	/**
+	 * @return the number of ranked users
+	 */
+	public int size() {
+		return ranking.size();
+	}
+
+	/**
+	 * Removes all users, before the scores are loaded again.
+	 */
+	void clear() {
+		synchronized (scoreByUser) {
+			scoreByUser.clear();
+			ranking.clear();
+		}
+	}
+
+	/**
+	 * Moves a user to the position of its new score, users without positive score are not ranked.
+	 */
+	void update(final long userId, final double score) {
+		synchronized (scoreByUser) {
+			final Double previousScore = score > 0 ? scoreByUser.put(userId, score) : scoreByUser.remove(userId);
+			if (previousScore != null) {
+				ranking.remove(previousScore, userId);
+			}
+			if (score > 0) {
+				ranking.insert(score, userId);
+			}
+		}
+	}
+}
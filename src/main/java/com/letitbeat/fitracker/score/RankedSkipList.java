@@ -0,0 +1,248 @@
+package com.letitbeat.fitracker.score;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.annotation.Nonnull;
+
+/**
+ * Indexable skip list of user scores, ordered by score descending and user id ascending.
+ *
+ * Every link stores the number of entries it skips, so besides insert and remove also the rank of
+ * an entry and the entry at a given rank are found in O(log n). A page of entries then costs
+ * O(log n + limit). Readers run concurrently, writers are serialized by a read-write lock.
+ */
+final class RankedSkipList {
+
+	private static final int MAX_LEVEL = 32;
+
+	/**
+	 * Probability of an entry to be linked on the next higher level.
+	 */
+	private static final double LEVEL_PROBABILITY = 0.25;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Node head = new Node(0, 0, MAX_LEVEL);
+
+	private int level = 1;
+
+	private int size;
+
+	/**
+	 * A user and its score.
+	 */
+	static final class Entry {
+
+		private final long userId;
+
+		private final double score;
+
+		Entry(final long userId, final double score) {
+			this.userId = userId;
+			this.score = score;
+		}
+
+		long getUserId() {
+			return userId;
+		}
+
+		double getScore() {
+			return score;
+		}
+	}
+
+	private static final class Node {
+
+		private final double score;
+
+		private final long userId;
+
+		private final Node[] next;
+
+		/**
+		 * Number of entries between this node and the next node per level, including the next node.
+		 */
+		private final int[] span;
+
+		Node(final double score, final long userId, final int level) {
+			this.score = score;
+			this.userId = userId;
+			this.next = new Node[level];
+			this.span = new int[level];
+		}
+
+		boolean precedes(final double score, final long userId) {
+			return this.score > score || (this.score == score && this.userId < userId);
+		}
+	}
+
+	void insert(final double score, final long userId) {
+		lock.writeLock().lock();
+		try {
+			final Node[] update = new Node[MAX_LEVEL];
+			final int[] rank = new int[MAX_LEVEL];
+
+			Node node = head;
+			for (int i = level - 1; i >= 0; i--) {
+				rank[i] = i == level - 1 ? 0 : rank[i + 1];
+				while (node.next[i] != null && node.next[i].precedes(score, userId)) {
+					rank[i] += node.span[i];
+					node = node.next[i];
+				}
+				update[i] = node;
+			}
+
+			final int nodeLevel = randomLevel();
+			if (nodeLevel > level) {
+				for (int i = level; i < nodeLevel; i++) {
+					rank[i] = 0;
+					update[i] = head;
+					update[i].span[i] = size;
+				}
+				level = nodeLevel;
+			}
+
+			final Node inserted = new Node(score, userId, nodeLevel);
+			for (int i = 0; i < nodeLevel; i++) {
+				inserted.next[i] = update[i].next[i];
+				update[i].next[i] = inserted;
+
+				inserted.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+				update[i].span[i] = (rank[0] - rank[i]) + 1;
+			}
+			for (int i = nodeLevel; i < level; i++) {
+				update[i].span[i]++;
+			}
+			size++;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	boolean remove(final double score, final long userId) {
+		lock.writeLock().lock();
+		try {
+			final Node[] update = new Node[MAX_LEVEL];
+
+			Node node = head;
+			for (int i = level - 1; i >= 0; i--) {
+				while (node.next[i] != null && node.next[i].precedes(score, userId)) {
+					node = node.next[i];
+				}
+				update[i] = node;
+			}
+
+			final Node removed = node.next[0];
+			if (removed == null || removed.score != score || removed.userId != userId) {
+				return false;
+			}
+
+			for (int i = 0; i < level; i++) {
+				if (update[i].next[i] == removed) {
+					update[i].span[i] += removed.span[i] - 1;
+					update[i].next[i] = removed.next[i];
+				} else {
+					update[i].span[i]--;
+				}
+			}
+			while (level > 1 && head.next[level - 1] == null) {
+				level--;
+			}
+			size--;
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the zero based rank of an entry.
+	 *
+	 * @return the rank or -1 if the entry is not contained
+	 */
+	int rank(final double score, final long userId) {
+		lock.readLock().lock();
+		try {
+			int rank = 0;
+			Node node = head;
+			for (int i = level - 1; i >= 0; i--) {
+				while (node.next[i] != null && node.next[i].precedes(score, userId)) {
+					rank += node.span[i];
+					node = node.next[i];
+				}
+			}
+			final Node candidate = node.next[0];
+			if (candidate != null && candidate.score == score && candidate.userId == userId) {
+				return rank;
+			}
+			return -1;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns up to limit entries starting at the given zero based rank.
+	 */
+	@Nonnull
+	List<Entry> range(final int offset, final int limit) {
+		lock.readLock().lock();
+		try {
+			final List<Entry> entries = new ArrayList<>(Math.max(0, Math.min(limit, size - offset)));
+			if (offset >= size || limit <= 0) {
+				return entries;
+			}
+
+			// walk to the node with the rank offset + 1, the head has rank 0
+			int traversed = 0;
+			Node node = head;
+			for (int i = level - 1; i >= 0; i--) {
+				while (node.next[i] != null && traversed + node.span[i] <= offset + 1) {
+					traversed += node.span[i];
+					node = node.next[i];
+				}
+			}
+
+			while (node != null && entries.size() < limit) {
+				entries.add(new Entry(node.userId, node.score));
+				node = node.next[0];
+			}
+			return entries;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	void clear() {
+		lock.writeLock().lock();
+		try {
+			Arrays.fill(head.next, null);
+			Arrays.fill(head.span, 0);
+			level = 1;
+			size = 0;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	int size() {
+		lock.readLock().lock();
+		try {
+			return size;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private static int randomLevel() {
+		int level = 1;
+		while (level < MAX_LEVEL && ThreadLocalRandom.current().nextDouble() < LEVEL_PROBABILITY) {
+			level++;
+		}
+		return level;
+	}
+}
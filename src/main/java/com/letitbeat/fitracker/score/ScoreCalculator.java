@@ -0,0 +1,78 @@
+package com.letitbeat.fitracker.score;
+
+import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
+import com.letitbeat.fitracker.jpa.domain.ExerciseActivity;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.GregorianCalendar;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+public final class ScoreCalculator {
+
+	/**
+	 * Number of days in the past an exercise takes part in the score calculation.
+	 */
+	public static final int SCORE_WINDOW_DAYS = 30;
+
+	/**
+	 * Orders activities by start time with the newest activity first.
+	 */
+	public static final Comparator<ExerciseActivity> NEWEST_FIRST = Comparator
+			.comparingLong(ExerciseActivity::getStartTime)
+			.thenComparing(ExerciseActivity::getId)
+			.reversed();
+
+	private ScoreCalculator() {
+	}
+
+	/**
+	 * Performs a calculation of the user points based on the exercises a given user has completed in
+	 * the last 4 weeks.
+	 *
+	 * The points are calculated as follows: - A user gets points for each exercise he has completed
+	 * in the past 4 weeks. - A user gets one point per minute of the duration of the exercise plus
+	 * the burnt kilo calories. - Each time a user performs the same type of exercise again it is
+	 * worth 10% less (Make sure to look at the newest exercises first).
+	 *
+	 * Example: A user ran 4 times in the past 4 weeks (let's say once per week). This weeks run is
+	 * worth 100%. The oldest run is worth only 70% of the calculated points for the exercise.
+	 *
+	 * - Each exercise type has a multiplication factor for the point calculation.
+	 *
+	 * @param activities the activities of the last 4 weeks of a single user, sorted with
+	 * {@link #NEWEST_FIRST}.
+	 * @return the score calculated for the given activities
+	 */
+	public static double calculate(@Nonnull final Collection<ExerciseActivity> activities) {
+
+		final Map<ExerciseType, Double> types = new EnumMap<>(ExerciseType.class);
+
+		return activities.stream()
+				.mapToDouble(e -> {
+							double points = (double)(e.getDuration() / 60) + e.getCalories();  // duration to mins
+							double weight = types.getOrDefault(e.getType(), 1.0);
+							types.put(e.getType(), weight - 0.1);
+							return points * e.getType().getMultiplier() * weight;
+						}
+				).sum();
+	}
+
+	/**
+	 * Returns the oldest start time of an exercise which still counts for the score.
+	 *
+	 * @param now the point in time the score is calculated for
+	 * @return the start of the score window
+	 */
+	@Nonnull
+	public static Date windowStart(@Nonnull final Date now) {
+		GregorianCalendar cal = new GregorianCalendar();
+		cal.setTime(now);
+		cal.add(Calendar.DATE, -SCORE_WINDOW_DAYS);
+
+		return cal.getTime();
+	}
+}
@@ -0,0 +1,379 @@
+package com.letitbeat.fitracker.score;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.persist.UnitOfWork;
+import com.letitbeat.fitracker.jpa.dao.ExerciseDao;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import com.letitbeat.fitracker.jpa.domain.ExerciseActivity;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the score of every user up to date, so a ranking only has to look up and sort the
+ * precomputed scores instead of recalculating them from the exercise history.
+ *
+ * The score window of all users is loaded on first access. Afterwards the scores are maintained by
+ * the exercise write operations and by a periodic expiry step, which removes the exercises falling
+ * out of the score window and recalculates the decay of the remaining exercises of the same type.
+ * Every score change is forwarded to the {@link Leaderboard}.
+ *
+ * The scores returned by {@link #getScores} are always up to date, a user is expired when it is
+ * read. The leaderboard only sees the expiry of users which are not written or read in between
+ * with the next expiry step, so it is up to {@value #EXPIRY_INTERVAL_SECONDS} seconds late. The
+ * expiry thread is started with the first load and ended with {@link #stop()}.
+ *
+ * With a parallelism above 1, set with the system property {@value #PARALLELISM_PROPERTY}, the
+ * users of the score window are split into partitions which are fetched and scored on a ForkJoin
+ * pool, every partition in its own unit of work.
+ */
+@Singleton
+public class ScoreIndex {
+
+	private static final Logger log = LoggerFactory.getLogger(ScoreIndex.class);
+
+	/**
+	 * Interval of the expiry step in seconds.
+	 */
+	static final long EXPIRY_INTERVAL_SECONDS = 60;
+
+	/**
+	 * System property with the number of threads loading the score window, defaults to the number
+	 * of processors. With 1 the score window is loaded with a single query.
+	 */
+	public static final String PARALLELISM_PROPERTY = "fitracker.score.parallelism";
+
+	/**
+	 * Maximum number of users fetched with one query by a loading thread.
+	 */
+	private static final int PARTITION_SIZE = 1000;
+
+	private final ExerciseDao exerciseDao;
+
+	private final Leaderboard leaderboard;
+
+	private final UnitOfWork unitOfWork;
+
+	private final int parallelism;
+
+	private final ConcurrentMap<Long, UserScore> scoreByUser = new ConcurrentHashMap<>();
+
+	private volatile boolean loaded;
+
+	private ScheduledExecutorService expiryExecutor;
+
+	@Inject
+	ScoreIndex(final ExerciseDao exerciseDao, final Leaderboard leaderboard, final UnitOfWork unitOfWork) {
+		this(exerciseDao, leaderboard, unitOfWork,
+				Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors()));
+	}
+
+	ScoreIndex(final ExerciseDao exerciseDao, final Leaderboard leaderboard, final UnitOfWork unitOfWork,
+			final int parallelism) {
+		this.exerciseDao = exerciseDao;
+		this.leaderboard = leaderboard;
+		this.unitOfWork = unitOfWork;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Returns the current score of the given users.
+	 *
+	 * @param userIds the users to look up
+	 * @return the score of each user in the order of the given ids
+	 */
+	@Nonnull
+	public Map<Long, Double> getScores(@Nonnull final Collection<Long> userIds) {
+		ensureLoaded();
+		final long windowStart = ScoreCalculator.windowStart(new Date()).getTime();
+
+		final Map<Long, Double> scores = new LinkedHashMap<>();
+		for (Long userId : userIds) {
+			final UserScore userScore = scoreByUser.get(userId);
+			scores.put(userId, userScore == null ? 0.0 : userScore.getScore(windowStart));
+		}
+		return scores;
+	}
+
+	/**
+	 * Returns the global ranking, brought up to date with the stored exercises.
+	 *
+	 * @return the leaderboard
+	 */
+	@Nonnull
+	public Leaderboard getLeaderboard() {
+		ensureLoaded();
+		return leaderboard;
+	}
+
+	/**
+	 * Adds a created exercise to the score of its user.
+	 *
+	 * @param exercise the persisted exercise
+	 */
+	public void exerciseCreated(@Nonnull final Exercise exercise) {
+		ensureLoaded();
+		final long windowStart = ScoreCalculator.windowStart(new Date()).getTime();
+		getUserScore(exercise.getUserId()).add(ExerciseActivity.of(exercise), windowStart);
+	}
+
+	/**
+	 * Replaces an updated exercise in the score of its user.
+	 *
+	 * @param previousUserId the user of the exercise before the update
+	 * @param exercise the updated exercise
+	 */
+	public void exerciseUpdated(@Nonnull final Long previousUserId, @Nonnull final Exercise exercise) {
+		if (!previousUserId.equals(exercise.getUserId())) {
+			exerciseDeleted(previousUserId, exercise.getId());
+		}
+		exerciseCreated(exercise);
+	}
+
+	/**
+	 * Removes a deleted exercise from the score of its user.
+	 *
+	 * @param userId the user of the exercise
+	 * @param exerciseId the id of the deleted exercise
+	 */
+	public void exerciseDeleted(@Nonnull final Long userId, @Nonnull final Long exerciseId) {
+		ensureLoaded();
+		final long windowStart = ScoreCalculator.windowStart(new Date()).getTime();
+		getUserScore(userId).remove(exerciseId, windowStart);
+	}
+
+	/**
+	 * Removes the exercises which are not part of the score window anymore.
+	 */
+	void expire() {
+		if (!loaded) {
+			return;
+		}
+		final long windowStart = ScoreCalculator.windowStart(new Date()).getTime();
+		try {
+			scoreByUser.values().forEach(userScore -> userScore.expire(windowStart));
+		} catch (RuntimeException e) {
+			log.error("Could not expire the score index.", e);
+		}
+	}
+
+	/**
+	 * Ends the expiry thread, called when the application is stopped. The scores can still be read,
+	 * but the leaderboard is not expired anymore until the index is loaded again.
+	 */
+	public synchronized void stop() {
+		if (expiryExecutor != null) {
+			expiryExecutor.shutdownNow();
+			expiryExecutor = null;
+		}
+	}
+
+	private UserScore getUserScore(final Long userId) {
+		return scoreByUser.computeIfAbsent(userId, UserScore::new);
+	}
+
+	/**
+	 * Loads the score window of all users. Writes arriving meanwhile wait for the load to finish and
+	 * are applied afterwards, applying an exercise the load has already seen does not change the
+	 * score.
+	 */
+	private void ensureLoaded() {
+		if (loaded) {
+			return;
+		}
+		synchronized (this) {
+			if (loaded) {
+				return;
+			}
+			final long start = System.currentTimeMillis();
+			final Date windowStart = ScoreCalculator.windowStart(new Date());
+			final int userCount = parallelism > 1 ? loadParallel(windowStart) : load(windowStart);
+
+			log.info(String.format("Loaded %d users into the score index in %d ms with parallelism %d", userCount,
+					System.currentTimeMillis() - start, parallelism));
+			loaded = true;
+
+			// a reload after invalidate() keeps the running expiry thread
+			if (expiryExecutor == null) {
+				expiryExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+					final Thread thread = new Thread(r, "score-index-expiry");
+					thread.setDaemon(true);
+					return thread;
+				});
+				expiryExecutor.scheduleWithFixedDelay(this::expire, EXPIRY_INTERVAL_SECONDS, EXPIRY_INTERVAL_SECONDS,
+						TimeUnit.SECONDS);
+			}
+		}
+	}
+
+	/**
+	 * Discards all scores and loads the score window again.
+	 */
+	synchronized void reload() {
+		invalidate();
+		ensureLoaded();
+	}
+
+	/**
+	 * Discards all scores and empties the leaderboard, the score window is loaded again on the next
+	 * access. Used after exercises were written without passing them to the index, e.g. by a bulk
+	 * load.
+	 */
+	public synchronized void invalidate() {
+		loaded = false;
+		scoreByUser.clear();
+		leaderboard.clear();
+	}
+
+	private int load(final Date windowStart) {
+		final Map<Long, List<ExerciseActivity>> activitiesByUser = exerciseDao.findActivitiesByDate(windowStart);
+		activitiesByUser.forEach((userId, activities) -> getUserScore(userId).addAll(activities,
+				windowStart.getTime()));
+		return activitiesByUser.size();
+	}
+
+	private int loadParallel(final Date windowStart) {
+		final List<Long> userIds = exerciseDao.findUserIdsByDate(windowStart);
+
+		final ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			pool.invoke(new LoadTask(userIds, windowStart));
+		} finally {
+			pool.shutdown();
+		}
+		return userIds.size();
+	}
+
+	/**
+	 * Splits the users in halves until a partition is small enough to be fetched with one query.
+	 * The user ids are sorted, so a partition is fetched as a range of user ids.
+	 */
+	private final class LoadTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<Long> userIds;
+
+		private final Date windowStart;
+
+		LoadTask(final List<Long> userIds, final Date windowStart) {
+			this.userIds = userIds;
+			this.windowStart = windowStart;
+		}
+
+		@Override
+		protected void compute() {
+			if (userIds.isEmpty()) {
+				return;
+			}
+			if (userIds.size() > PARTITION_SIZE) {
+				final int middle = userIds.size() / 2;
+				invokeAll(new LoadTask(userIds.subList(0, middle), windowStart),
+						new LoadTask(userIds.subList(middle, userIds.size()), windowStart));
+				return;
+			}
+
+			unitOfWork.begin();
+			try {
+				exerciseDao.findActivitiesByUserIdRangeAndDate(userIds.get(0), userIds.get(userIds.size() - 1),
+						windowStart).forEach((userId, activities) ->
+						getUserScore(userId).addAll(activities, windowStart.getTime()));
+			} finally {
+				unitOfWork.end();
+			}
+		}
+	}
+
+	/**
+	 * The exercises of a single user inside the score window together with the resulting score.
+	 */
+	private final class UserScore {
+
+		private final Long userId;
+
+		private final TreeSet<ExerciseActivity> activities = new TreeSet<>(ScoreCalculator.NEWEST_FIRST);
+
+		private final Map<Long, ExerciseActivity> activityById = new HashMap<>();
+
+		private double score;
+
+		UserScore(final Long userId) {
+			this.userId = userId;
+		}
+
+		synchronized double getScore(final long windowStart) {
+			expire(windowStart);
+			return score;
+		}
+
+		synchronized void add(final ExerciseActivity activity, final long windowStart) {
+			removeActivity(activity.getId());
+			if (activity.getStartTime() >= windowStart) {
+				activities.add(activity);
+				activityById.put(activity.getId(), activity);
+			}
+			expire(windowStart);
+			recalculate();
+		}
+
+		/**
+		 * Adds the activities of the initial load, the score is calculated once at the end.
+		 */
+		synchronized void addAll(final List<ExerciseActivity> newActivities, final long windowStart) {
+			for (ExerciseActivity activity : newActivities) {
+				removeActivity(activity.getId());
+				if (activity.getStartTime() >= windowStart) {
+					activities.add(activity);
+					activityById.put(activity.getId(), activity);
+				}
+			}
+			recalculate();
+		}
+
+		synchronized void remove(final Long exerciseId, final long windowStart) {
+			if (removeActivity(exerciseId)) {
+				recalculate();
+			}
+			expire(windowStart);
+		}
+
+		synchronized void expire(final long windowStart) {
+			boolean expired = false;
+			while (!activities.isEmpty() && activities.last().getStartTime() < windowStart) {
+				activityById.remove(activities.pollLast().getId());
+				expired = true;
+			}
+			if (expired) {
+				recalculate();
+			}
+		}
+
+		private boolean removeActivity(final Long exerciseId) {
+			final ExerciseActivity previous = activityById.remove(exerciseId);
+			return previous != null && activities.remove(previous);
+		}
+
+		private void recalculate() {
+			final double previousScore = score;
+			score = ScoreCalculator.calculate(activities);
+			if (score != previousScore) {
+				leaderboard.update(userId, score);
+			}
+		}
+	}
+}
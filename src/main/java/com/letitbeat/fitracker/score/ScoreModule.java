@@ -0,0 +1,12 @@
+package com.letitbeat.fitracker.score;
+
+import com.google.inject.AbstractModule;
+
+public class ScoreModule extends AbstractModule {
+
+	@Override
+	protected void configure() {
+		bind(Leaderboard.class);
+		bind(ScoreIndex.class);
+	}
+}
@@ -0,0 +1,9 @@
+-- Generated from the entity mapping by SchemaExportCommand, do not edit
+create sequence hibernate_sequence start with 1 increment by 50;
+create table Exercise (id bigint not null, calories integer, description varchar(255), descriptionKey varchar(255), distance integer, duration integer, endTime timestamp, startTime timestamp, type varchar(255), userId bigint, primary key (id));
+create table ExerciseRollup (startDay date not null, type varchar(255) not null, userId bigint not null, exerciseCount bigint not null, totalCalories bigint not null, totalDistance bigint not null, totalDuration bigint not null, primary key (startDay, type, userId));
+create index idx_exercise_user_start on Exercise (userId, startTime);
+create index idx_exercise_user_type_start on Exercise (userId, type, startTime);
+create index idx_exercise_start on Exercise (startTime);
+create index idx_exercise_description on Exercise (descriptionKey, startTime, id);
+create index idx_exercise_rollup_user_day on ExerciseRollup (userId, startDay);
@@ -10,6 +10,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import org.apache.commons.lang3.time.DateUtils;
+import org.junit.After;
 import org.junit.Before;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,6 +18,9 @@ import org.slf4j.LoggerFactory;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 
+import com.letitbeat.fitracker.rest.AsyncRequestExecutor;
+import com.letitbeat.fitracker.score.ScoreIndex;
+
 public abstract class AbstractIntegrationTest {
 
 	private static final Logger log = LoggerFactory.getLogger(AbstractIntegrationTest.class);
@@ -29,6 +33,12 @@ public abstract class AbstractIntegrationTest {
 		injector.injectMembers(this);
 	}
 
+	@After
+	public void stopBackgroundThreads() {
+		injector.getInstance(ScoreIndex.class).stop();
+		injector.getInstance(AsyncRequestExecutor.class).shutdown();
+	}
+
 	/**
 	 * Converts a string (format: "yyyy-MM-dd HH:mm:ss") into a timestamp.
 	 *
@@ -0,0 +1,97 @@
+package com.letitbeat.fitracker;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.persist.PersistService;
+import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import com.letitbeat.fitracker.rest.AsyncRequestExecutor;
+import com.letitbeat.fitracker.rest.ExerciseService;
+import com.letitbeat.fitracker.rest.SwaggerSpecServlet;
+import com.letitbeat.fitracker.score.ScoreIndex;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import org.junit.Test;
+
+public class StartupProfileTest {
+
+	private static final Long USER_ID = 1L;
+
+	@Test
+	public void testProductionProfileOnEmptyDatabase() {
+		final Properties properties = new Properties();
+		// an own database, which is created from the schema script
+		properties.setProperty("hibernate.connection.url", "jdbc:hsqldb:mem:fitracker-production;hsqldb.tx=mvcc");
+
+		final Injector injector = Guice.createInjector(new RootModule(StartupProfile.PRODUCTION, properties));
+		try {
+			assertThat(injector.getExistingBinding(Key.get(TestData.class)), nullValue());
+			assertThat(injector.getExistingBinding(Key.get(SwaggerSpecServlet.class)),
+					notNullValue());
+
+			final ExerciseService exerciseService = injector.getInstance(ExerciseService.class);
+			// the test data of user 1 is not inserted
+			assertThat(exerciseService.getExerciseByTypeAndDate(USER_ID, null, null), is(empty()));
+
+			final Exercise exercise = new Exercise();
+			exercise.setUserId(USER_ID);
+			exercise.setDescription("Run");
+			exercise.setType(ExerciseType.RUNNING);
+			exercise.setStartTime(new Date());
+			exercise.setDuration(600);
+			exercise.setDistance(3000);
+			exercise.setCalories(100);
+			exerciseService.createExercise(exercise);
+
+			final List<Exercise> exercises = exerciseService.getExerciseByTypeAndDate(USER_ID, null, null);
+			assertThat(exercises.size(), is(1));
+		} finally {
+			injector.getInstance(ScoreIndex.class).stop();
+			injector.getInstance(AsyncRequestExecutor.class).shutdown();
+			injector.getInstance(PersistService.class).stop();
+		}
+	}
+
+	@Test
+	public void testTimerReportsNestedPhasesWithoutEachOther() throws InterruptedException {
+		StartupTimer.begin("not recorded");
+		StartupTimer.end("not recorded");
+
+		StartupTimer.start();
+		StartupTimer.begin("outer");
+		StartupTimer.begin("inner");
+		Thread.sleep(200);
+		StartupTimer.end("inner");
+		StartupTimer.end("outer");
+		StartupTimer.begin("next");
+		StartupTimer.end("next");
+
+		final Map<String, Long> phases = StartupTimer.report(StartupProfile.DEV);
+		assertThat(phases.keySet().toString(), is("[inner, outer, next]"));
+		assertThat(phases.get("inner") >= 200, is(true));
+		assertThat(phases.get("outer") < 200, is(true));
+
+		// recording stopped with the report
+		assertThat(StartupTimer.report(StartupProfile.DEV).isEmpty(), is(true));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testTimerRejectsUnbalancedPhases() {
+		StartupTimer.start();
+		try {
+			StartupTimer.begin("outer");
+			StartupTimer.end("inner");
+		} finally {
+			StartupTimer.report(StartupProfile.DEV);
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.letitbeat.fitracker;
+
+import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.inject.Injector;
+import com.google.inject.persist.UnitOfWork;
+import com.letitbeat.fitracker.jpa.StatementBudget;
+import com.letitbeat.fitracker.rest.ExerciseService;
+import com.letitbeat.fitracker.rest.MetricsService;
+import com.letitbeat.fitracker.rest.ObjectMapperProvider;
+import com.letitbeat.fitracker.rest.RequestTimingFilter;
+import com.letitbeat.fitracker.rest.UserETagFilter;
+import java.net.URI;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.core.HttpHeaders;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.ResourceConfig;
+
+/**
+ * Sends requests through Jersey without a servlet container, so the filters and providers are
+ * applied to the services of the injector like in the servlet container. Like the JPA filter of the
+ * servlet container every request has its own unit of work and statement budget.
+ */
+public class TestApplication {
+
+	private final ApplicationHandler application;
+
+	private final UnitOfWork unitOfWork;
+
+	public TestApplication(@Nonnull final Injector injector) {
+		final ExerciseService exerciseService = injector.getInstance(ExerciseService.class);
+		final MetricsService metricsService = injector.getInstance(MetricsService.class);
+		final ObjectMapper objectMapper = injector.getInstance(ObjectMapperProvider.class).getContext(Object.class);
+		unitOfWork = injector.getInstance(UnitOfWork.class);
+
+		application = new ApplicationHandler(new ResourceConfig()
+				.register(ExerciseService.class)
+				.register(MetricsService.class)
+				.register(new AbstractBinder() {
+					@Override
+					protected void configure() {
+						bind(exerciseService).to(ExerciseService.class);
+						bind(metricsService).to(MetricsService.class);
+					}
+				})
+				.register(injector.getInstance(RequestTimingFilter.class))
+				.register(injector.getInstance(UserETagFilter.class))
+				.register(new JacksonJsonProvider(objectMapper)));
+	}
+
+	/**
+	 * @param path the path below /rest
+	 * @param ifNoneMatch the If-None-Match header or null
+	 * @return the response after all filters
+	 */
+	@Nonnull
+	public ContainerResponse get(@Nonnull final String path, @Nullable final String ifNoneMatch)
+			throws InterruptedException, ExecutionException {
+		final ContainerRequest request = new ContainerRequest(URI.create("http://localhost/"),
+				URI.create("http://localhost" + path), "GET", null, new MapPropertiesDelegate());
+		if (ifNoneMatch != null) {
+			request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+		}
+
+		StatementBudget.begin("GET " + path);
+		unitOfWork.begin();
+		try {
+			return application.apply(request).get();
+		} finally {
+			unitOfWork.end();
+			StatementBudget.end();
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package com.letitbeat.fitracker;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.TimeoutHandler;
+
+/**
+ * Stands in for the suspended request of the servlet container, so the tests can call the
+ * asynchronous resource methods and wait for their result.
+ *
+ * @param <T> type of the response entity
+ */
+public class TestAsyncResponse<T> implements AsyncResponse {
+
+	private final CountDownLatch resumed = new CountDownLatch(1);
+
+	private volatile Object response;
+
+	private volatile long timeoutMillis = TimeUnit.MINUTES.toMillis(1);
+
+	private volatile TimeoutHandler timeoutHandler;
+
+	/**
+	 * Waits until the request is resumed. If that takes longer than the timeout the timeout handler
+	 * is called like the servlet container does.
+	 *
+	 * @return the response entity
+	 * @throws RuntimeException the exception the request was resumed with
+	 */
+	@SuppressWarnings("unchecked")
+	public T await() {
+		try {
+			if (!resumed.await(timeoutMillis, TimeUnit.MILLISECONDS) && timeoutHandler != null) {
+				timeoutHandler.handleTimeout(this);
+			}
+			resumed.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+		if (response instanceof RuntimeException) {
+			throw (RuntimeException) response;
+		}
+		if (response instanceof Throwable) {
+			throw new IllegalStateException((Throwable) response);
+		}
+		return (T) response;
+	}
+
+	@Override
+	public synchronized boolean resume(final Object response) {
+		if (!isSuspended()) {
+			return false;
+		}
+		this.response = response;
+		resumed.countDown();
+		return true;
+	}
+
+	@Override
+	public boolean resume(final Throwable response) {
+		return resume((Object) response);
+	}
+
+	@Override
+	public boolean cancel() {
+		return false;
+	}
+
+	@Override
+	public boolean cancel(final int retryAfter) {
+		return false;
+	}
+
+	@Override
+	public boolean cancel(final Date retryAfter) {
+		return false;
+	}
+
+	@Override
+	public boolean isSuspended() {
+		return resumed.getCount() > 0;
+	}
+
+	@Override
+	public boolean isCancelled() {
+		return false;
+	}
+
+	@Override
+	public boolean isDone() {
+		return !isSuspended();
+	}
+
+	@Override
+	public boolean setTimeout(final long time, final TimeUnit unit) {
+		timeoutMillis = unit.toMillis(time);
+		return isSuspended();
+	}
+
+	@Override
+	public void setTimeoutHandler(final TimeoutHandler handler) {
+		timeoutHandler = handler;
+	}
+
+	@Override
+	public Collection<Class<?>> register(final Class<?> callback) {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public Map<Class<?>, Collection<Class<?>>> register(final Class<?> callback, final Class<?>... callbacks) {
+		return Collections.emptyMap();
+	}
+
+	@Override
+	public Collection<Class<?>> register(final Object callback) {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public Map<Class<?>, Collection<Class<?>>> register(final Object callback, final Object... callbacks) {
+		return Collections.emptyMap();
+	}
+}
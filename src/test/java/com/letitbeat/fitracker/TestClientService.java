@@ -1,14 +1,24 @@
 package com.letitbeat.fitracker;
 
 import com.google.inject.Inject;
+import com.letitbeat.fitracker.dto.BatchItemResultDto;
+import com.letitbeat.fitracker.dto.ImportResultDto;
+import com.letitbeat.fitracker.dto.LeaderboardEntryDto;
+import com.letitbeat.fitracker.dto.PageDto;
 import com.letitbeat.fitracker.jpa.domain.Enums;
 import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
 import com.letitbeat.fitracker.jpa.domain.Exercise;
 import com.letitbeat.fitracker.rest.ExerciseService;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import javax.ws.rs.core.StreamingOutput;
 
 public class TestClientService {
 
@@ -45,6 +55,21 @@ public class TestClientService {
 		return exerciseService.getExerciseByDescription(description);
 	}
 
+	/**
+	 * Get a page of the exercises with the given description.
+	 *
+	 * @param description description to search
+	 * @param cursor the next cursor of the previous page
+	 * @param limit maximum number of exercises to return
+	 * @return the exercises for the given description and the cursor of the following page
+	 * @throws RuntimeException if the cursor or limit is invalid
+	 */
+	@Nonnull
+	public PageDto<Exercise> getExercisePageByDescription(@Nullable final String description,
+			@Nullable final String cursor, @Nullable final Integer limit) {
+		return exerciseService.getExercisePageByDescription(description, cursor, limit);
+	}
+
 	/**
 	 * Persists a given exercise.
 	 *
@@ -57,6 +82,32 @@ public class TestClientService {
 		return exerciseService.createExercise(exercise);
 	}
 
+	/**
+	 * Persists a batch of exercises.
+	 *
+	 * @param exercises to persist
+	 * @return the outcome of every exercise in the order of the request
+	 * @throws RuntimeException if the batch is empty or too large
+	 */
+	@Nonnull
+	public List<BatchItemResultDto> createExercises(@Nullable final List<Exercise> exercises) {
+		return exerciseService.createExercises(exercises);
+	}
+
+	/**
+	 * Imports exercises from newline delimited JSON.
+	 *
+	 * @param exercises the newline delimited JSON
+	 * @param chunkSize number of exercises per transaction
+	 * @return the number of imported and rejected exercises
+	 * @throws RuntimeException if the input is malformed
+	 */
+	@Nonnull
+	public ImportResultDto importExercises(@Nonnull final InputStream exercises,
+			@Nullable final Integer chunkSize) {
+		return exerciseService.importExercises(exercises, chunkSize);
+	}
+
 	/**
 	 * Updates an existing exercise.
 	 *
@@ -95,6 +146,45 @@ public class TestClientService {
 		return exerciseService.getExerciseByTypeAndDate(userId, exerciseType, date);
 	}
 
+	/**
+	 * Returns a page of the exercises for a specific user and some filter items (type + date).
+	 *
+	 * @param userId who did the exercise
+	 * @param exerciseType filter: type of the exercise
+	 * @param date filter: date ("yyyy-MM-dd") of the exercise
+	 * @param cursor the next cursor of the previous page
+	 * @param limit maximum number of exercises to return
+	 * @return the exercises and the cursor of the following page
+	 * @throws RuntimeException if the date, cursor or limit is invalid
+	 */
+	@Nonnull
+	public PageDto<Exercise> getExercisePage(@Nullable final Long userId,
+			@Nullable final Enums.ExerciseType exerciseType, @Nullable final String date,
+			@Nullable final String cursor, @Nullable final Integer limit) {
+		return exerciseService.getExercisePageByTypeAndDate(userId, exerciseType, date, cursor, limit);
+	}
+
+	/**
+	 * Exports the whole exercise history of a user.
+	 *
+	 * @param userId who did the exercises
+	 * @param format "ndjson" or "csv"
+	 * @return the streamed response as string
+	 * @throws RuntimeException if the format is not supported
+	 */
+	@Nonnull
+	public String exportExercises(@Nonnull final Long userId, @Nullable final String format) {
+		final StreamingOutput output = (StreamingOutput) exerciseService.exportExercises(userId, format).getEntity();
+
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try {
+			output.write(bytes);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+	}
+
 	/**
 	 * Calculate the ranking for the given user ids. The Calculation based on the exercises the user
 	 * has done. The first in the list is the user with the highest score.
@@ -105,7 +195,9 @@ public class TestClientService {
 	 */
 	@Nonnull
 	public List<Long> getRanking(@Nullable final List<Long> userIds) {
-		return exerciseService.getRanking(userIds);
+		final TestAsyncResponse<List<Long>> response = new TestAsyncResponse<>();
+		exerciseService.getRanking(response, userIds);
+		return response.await();
 	}
 
 	/**
@@ -119,6 +211,32 @@ public class TestClientService {
 	 */
 	@Nonnull
 	public Map<ExerciseType, Long> getStats(@Nonnull Long userId) {
-		return exerciseService.getStats(userId);
+		final TestAsyncResponse<Map<ExerciseType, Long>> response = new TestAsyncResponse<>();
+		exerciseService.getStats(response, userId);
+		return response.await();
+	}
+
+	/**
+	 * Returns a page of the global ranking over all users with a positive score.
+	 *
+	 * @param offset number of ranks to skip
+	 * @param limit maximum number of entries to return
+	 * @return the leaderboard entries ordered by rank
+	 */
+	@Nonnull
+	public List<LeaderboardEntryDto> getLeaderboard(@Nullable Integer offset, @Nullable Integer limit) {
+		return exerciseService.getLeaderboard(offset, limit);
+	}
+
+	/**
+	 * Returns the position of a user in the global ranking.
+	 *
+	 * @param userId the user to look up
+	 * @return the leaderboard entry of the user
+	 * @throws RuntimeException if the user has no points in the past 4 weeks
+	 */
+	@Nonnull
+	public LeaderboardEntryDto getLeaderboardEntry(@Nonnull Long userId) {
+		return exerciseService.getLeaderboardEntry(userId);
 	}
 }
@@ -0,0 +1,239 @@
+package com.letitbeat.fitracker.activity;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.letitbeat.fitracker.jpa.dao.ExerciseDao;
+import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import com.letitbeat.fitracker.jpa.domain.ExerciseActivity;
+import com.letitbeat.fitracker.score.ScoreCalculator;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ActivityStoreTest {
+
+	private static final Long USER_ID = 1L;
+
+	private static final long DAY = 24 * 60 * 60 * 1000L;
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private final List<Exercise> database = new ArrayList<>();
+
+	private ExerciseDao exerciseDao;
+
+	private Path directory;
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setup() throws IOException {
+		directory = folder.newFolder().toPath();
+		exerciseDao = mock(ExerciseDao.class);
+		doAnswer(invocation -> {
+			final Consumer<ExerciseActivity> consumer = (Consumer<ExerciseActivity>) invocation.getArguments()[1];
+			database.stream()
+					.sorted(Comparator.comparing(Exercise::getStartTime).thenComparing(Exercise::getId))
+					.map(ExerciseActivity::of)
+					.forEach(consumer);
+			return null;
+		}).when(exerciseDao).scrollActivitiesByUserId(eq(USER_ID), any(Consumer.class));
+	}
+
+	@Test
+	public void testMatchesScoreCalculator() {
+		final Random random = new Random(11);
+		final long now = System.currentTimeMillis();
+		for (int i = 0; i < 150; i++) {
+			database.add(exercise(i, now - random.nextInt(60) * DAY, random));
+		}
+
+		final ActivityStore store = new ActivityStore(() -> exerciseDao, directory);
+		final long windowStart = now - 30 * DAY;
+		assertThat(store.score(USER_ID, windowStart), closeTo(expectedScore(windowStart), 0.0001));
+		assertThat(store.countByType(USER_ID, windowStart), is(expectedCounts(windowStart)));
+
+		// more exercises than the initial capacity of the file, added after the file was built
+		for (int i = 150; i < 300; i++) {
+			final Exercise exercise = exercise(i, now - random.nextInt(60) * DAY, random);
+			database.add(exercise);
+			store.add(Collections.singletonList(exercise));
+		}
+		for (int i = 0; i < 300; i += 7) {
+			store.remove(USER_ID, database.get(i).getId());
+		}
+		for (int i = 0; i < 300; i += 7) {
+			database.set(i, exercise(i, now - random.nextInt(60) * DAY, random));
+		}
+		store.add(database.stream().filter(e -> e.getId() % 7 == 0).collect(Collectors.toList()));
+
+		assertThat(store.score(USER_ID, windowStart), closeTo(expectedScore(windowStart), 0.0001));
+		assertThat(store.countByType(USER_ID, windowStart), is(expectedCounts(windowStart)));
+
+		// applying a write twice does not duplicate the exercise
+		store.add(database.subList(0, 10));
+		assertThat(store.countByType(USER_ID, windowStart), is(expectedCounts(windowStart)));
+		verify(exerciseDao, times(1)).scrollActivitiesByUserId(eq(USER_ID), any());
+	}
+
+	@Test
+	public void testRebuild() {
+		final long now = System.currentTimeMillis();
+		final ActivityStore store = new ActivityStore(() -> exerciseDao, directory);
+		assertThat(store.countByType(USER_ID, 0).isEmpty(), is(true));
+
+		// written outside of the store, only visible after a rebuild
+		database.add(exercise(1, now, new Random(3)));
+		assertThat(store.countByType(USER_ID, 0).isEmpty(), is(true));
+
+		store.rebuild(USER_ID);
+		assertThat(store.countByType(USER_ID, 0), is(expectedCounts(0)));
+		verify(exerciseDao, times(2)).scrollActivitiesByUserId(eq(USER_ID), any());
+	}
+
+	@Test
+	public void testIgnoresFilesOfEarlierStore() throws IOException {
+		final long now = System.currentTimeMillis();
+		final ActivityStore earlierStore = new ActivityStore(() -> exerciseDao, directory);
+		assertThat(earlierStore.countByType(USER_ID, 0).isEmpty(), is(true));
+		// left behind by an interrupted build
+		Files.write(directory.resolve(USER_ID + ".act.build"), new byte[64 * 1024]);
+
+		// written while no store was running, e.g. by the import command
+		database.add(exercise(1, now, new Random(7)));
+
+		final ActivityStore store = new ActivityStore(() -> exerciseDao, directory);
+		try (Stream<Path> files = Files.list(directory)) {
+			assertThat(files.count(), is(0L));
+		}
+		assertThat(store.countByType(USER_ID, 0), is(expectedCounts(0)));
+		verify(exerciseDao, times(2)).scrollActivitiesByUserId(eq(USER_ID), any());
+	}
+
+	@Test
+	public void testEvictsLeastRecentlyReadUser() throws IOException {
+		final long now = System.currentTimeMillis();
+		database.add(exercise(1, now, new Random(9)));
+		final ActivityStore store = new ActivityStore(() -> exerciseDao, directory, 2);
+
+		assertThat(store.countByType(USER_ID, 0), is(expectedCounts(0)));
+		store.countByType(2L, 0);
+		store.countByType(USER_ID, 0);
+		store.countByType(3L, 0);
+		assertThat(store.mappedUsers(), is(2));
+		try (Stream<Path> files = Files.list(directory)) {
+			assertThat(files.count(), is(2L));
+		}
+		verify(exerciseDao, times(1)).scrollActivitiesByUserId(eq(USER_ID), any());
+
+		// user 2 was evicted, user 1 is evicted now and its writes are read from the database
+		store.countByType(2L, 0);
+		final Exercise exercise = exercise(2, now, new Random(10));
+		database.add(exercise);
+		store.add(Collections.singletonList(exercise));
+		assertThat(store.countByType(USER_ID, 0), is(expectedCounts(0)));
+		verify(exerciseDao, times(2)).scrollActivitiesByUserId(eq(USER_ID), any());
+	}
+
+	@Test(timeout = 10000)
+	@SuppressWarnings("unchecked")
+	public void testBuildBlocksNeitherOtherUsersNorWrites() throws Exception {
+		final long now = System.currentTimeMillis();
+		database.add(exercise(1, now, new Random(12)));
+		final CountDownLatch scrolling = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final ExerciseDao blockingDao = mock(ExerciseDao.class);
+		doAnswer(invocation -> {
+			final List<Exercise> snapshot = new ArrayList<>(database);
+			scrolling.countDown();
+			release.await();
+			snapshot.stream()
+					.map(ExerciseActivity::of)
+					.forEach((Consumer<ExerciseActivity>) invocation.getArguments()[1]);
+			return null;
+		}).when(blockingDao).scrollActivitiesByUserId(eq(USER_ID), any(Consumer.class));
+
+		final ActivityStore store = new ActivityStore(() -> blockingDao, directory);
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			final Future<Map<ExerciseType, Long>> counts = executor.submit(() -> store.countByType(USER_ID, 0));
+			scrolling.await();
+
+			// user 17 hashes to the same bin of the map as user 1
+			assertThat(store.countByType(17L, 0).isEmpty(), is(true));
+
+			// committed after the scroll read the database, applied once the file is built
+			final Exercise exercise = exercise(2, now, new Random(13));
+			database.add(exercise);
+			store.add(Collections.singletonList(exercise));
+			release.countDown();
+
+			assertThat(counts.get(5, TimeUnit.SECONDS), is(expectedCounts(0)));
+			assertThat(store.countByType(USER_ID, 0), is(expectedCounts(0)));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testIgnoresWritesIfDisabled() {
+		final ActivityStore store = new ActivityStore(() -> exerciseDao, null);
+		assertThat(store.isEnabled(), is(false));
+
+		store.add(Collections.singletonList(exercise(1, System.currentTimeMillis(), new Random(5))));
+		verify(exerciseDao, times(0)).scrollActivitiesByUserId(any(), any());
+	}
+
+	private double expectedScore(final long windowStart) {
+		return ScoreCalculator.calculate(database.stream()
+				.filter(e -> e.getStartTime().getTime() >= windowStart)
+				.map(ExerciseActivity::of)
+				.sorted(ScoreCalculator.NEWEST_FIRST)
+				.collect(Collectors.toList()));
+	}
+
+	private Map<ExerciseType, Long> expectedCounts(final long fromTime) {
+		return database.stream()
+				.filter(e -> e.getStartTime().getTime() >= fromTime)
+				.collect(Collectors.groupingBy(Exercise::getType, Collectors.counting()));
+	}
+
+	private static Exercise exercise(final long id, final long startTime, final Random random) {
+		final Exercise exercise = new Exercise();
+		exercise.setId(id);
+		exercise.setUserId(USER_ID);
+		exercise.setType(ExerciseType.values()[random.nextInt(ExerciseType.values().length)]);
+		exercise.setStartTime(new Date(startTime));
+		exercise.setDuration(random.nextInt(7200));
+		exercise.setCalories(random.nextInt(800));
+		return exercise;
+	}
+}
@@ -0,0 +1,150 @@
+package com.letitbeat.fitracker.ingest;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.inject.Inject;
+import com.letitbeat.fitracker.AbstractIntegrationTest;
+import com.letitbeat.fitracker.TestClientService;
+import com.letitbeat.fitracker.jpa.dao.ExerciseRollupDao;
+import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.time.DateUtils;
+import org.junit.Test;
+
+public class SyntheticDataGeneratorTest extends AbstractIntegrationTest {
+
+	private static final Date END_TIME = new Date(1500000000000L);
+
+	@Inject
+	private SyntheticDataGenerator generator;
+
+	@Inject
+	private TestClientService testClientService;
+
+	@Inject
+	private ExerciseRollupDao exerciseRollupDao;
+
+	@Test
+	public void testExercisesDoNotOverlap() {
+		final SyntheticDataSpec spec = new SyntheticDataSpec().setFirstUserId(6000).setUsers(20)
+				.setExercisesPerUser(30).setDays(28).setEndTime(END_TIME).setSeed(1);
+
+		assertThat(generator.generate(spec, 7), is(600L));
+
+		for (long userId = 6000; userId < 6020; userId++) {
+			final List<Exercise> exercises = getSortedExercises(userId);
+			assertThat(exercises, hasSize(30));
+			assertNoOverlap(exercises);
+
+			for (Exercise exercise : exercises) {
+				assertThat(exercise.getStartTime().getTime(),
+						greaterThanOrEqualTo(END_TIME.getTime() - TimeUnit.DAYS.toMillis(28)));
+				assertThat(exercise.getEndTime().getTime(), lessThanOrEqualTo(END_TIME.getTime()));
+				assertThat(exercise.getDescription().matches("[a-zA-Z ]+"), is(true));
+				assertThat(exercise.getDescriptionKey(), is(exercise.getDescription().toLowerCase()));
+				assertThat(exercise.getDistance(), notNullValue());
+				assertThat(exercise.getCalories(), greaterThan(0));
+			}
+		}
+
+		// the ids of the bulk insert do not collide with the ids generated by Hibernate
+		final Exercise exercise = new Exercise();
+		exercise.setUserId(6100L);
+		exercise.setDescription("Run");
+		exercise.setType(ExerciseType.RUNNING);
+		exercise.setStartTime(END_TIME);
+		exercise.setDuration(600);
+		exercise.setDistance(2000);
+		exercise.setCalories(100);
+		assertThat(testClientService.createExercise(exercise).getId(), notNullValue());
+	}
+
+	@Test
+	public void testSeveralExercisesPerDay() {
+		final SyntheticDataSpec spec = new SyntheticDataSpec().setFirstUserId(6200).setUsers(5)
+				.setExercisesPerUser(50).setDays(7).setEndTime(END_TIME);
+
+		assertThat(generator.generate(spec), is(250L));
+
+		for (long userId = 6200; userId < 6205; userId++) {
+			final List<Exercise> exercises = getSortedExercises(userId);
+			assertThat(exercises, hasSize(50));
+			assertNoOverlap(exercises);
+		}
+	}
+
+	@Test
+	public void testSameSeedGivesSameExercises() {
+		final Map<ExerciseType, Integer> weights = SyntheticDataSpec.parseTypeWeights("RUNNING=3,CYCLING=1");
+		final SyntheticDataSpec spec = new SyntheticDataSpec().setFirstUserId(6300).setUsers(3)
+				.setExercisesPerUser(20).setEndTime(END_TIME).setTypeWeights(weights).setSeed(7);
+
+		// the second run inserts the same exercises again in differently sized chunks
+		generator.generate(spec, 1000);
+		generator.generate(spec, 3);
+
+		for (long userId = 6300; userId < 6303; userId++) {
+			final List<Exercise> exercises = getSortedExercises(userId);
+			assertThat(exercises, hasSize(40));
+			for (int i = 0; i < exercises.size(); i += 2) {
+				final Exercise first = exercises.get(i);
+				final Exercise second = exercises.get(i + 1);
+				assertThat(second.getStartTime(), is(first.getStartTime()));
+				assertThat(second.getType(), is(first.getType()));
+				assertThat(second.getDuration(), is(first.getDuration()));
+				assertThat(second.getDescription(), is(first.getDescription()));
+				assertThat(weights.containsKey(first.getType()), is(true));
+			}
+		}
+	}
+
+	@Test
+	public void testRollupMatchesExercises() {
+		final SyntheticDataSpec spec = new SyntheticDataSpec().setFirstUserId(6400).setUsers(3)
+				.setExercisesPerUser(40).setDays(20).setEndTime(END_TIME);
+
+		generator.generate(spec, 25);
+
+		final Date fromDay = DateUtils.truncate(new Date(END_TIME.getTime() - TimeUnit.DAYS.toMillis(20)),
+				Calendar.DATE);
+		for (long userId = 6400; userId < 6403; userId++) {
+			final Map<ExerciseType, Long> expected = getSortedExercises(userId).stream()
+					.collect(Collectors.groupingBy(Exercise::getType, () -> new EnumMap<>(ExerciseType.class),
+							Collectors.counting()));
+			assertThat(exerciseRollupDao.countByType(userId, fromDay), is(expected));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooManyExercisesForTimeSpan() {
+		generator.generate(new SyntheticDataSpec().setFirstUserId(6500).setUsers(1).setExercisesPerUser(1000)
+				.setDays(1));
+	}
+
+	private List<Exercise> getSortedExercises(final long userId) {
+		final List<Exercise> exercises = testClientService.getExercises(userId, null, null);
+		exercises.sort(Comparator.comparing(Exercise::getStartTime));
+		return exercises;
+	}
+
+	private static void assertNoOverlap(final List<Exercise> exercises) {
+		for (int i = 1; i < exercises.size(); i++) {
+			assertThat(exercises.get(i).getStartTime().getTime(),
+					greaterThan(exercises.get(i - 1).getEndTime().getTime()));
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package com.letitbeat.fitracker.jpa;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.junit.Test;
+
+public class SchemaScriptTest {
+
+	@Test
+	public void testScriptMatchesEntityMapping() {
+		// fails after changing an entity without running ./gradlew exportSchema
+		assertThat(SchemaScript.read(SchemaScript.RESOURCE), is(SchemaExportCommand.export()));
+	}
+
+	@Test
+	public void testAppliesScriptOnlyToEmptyDatabase() throws SQLException {
+		final JDBCDataSource dataSource = new JDBCDataSource();
+		dataSource.setUrl("jdbc:hsqldb:mem:fitracker-schema");
+		dataSource.setUser("sa");
+
+		assertThat(SchemaScript.applyIfEmpty(dataSource, SchemaScript.RESOURCE), is(true));
+		assertThat(SchemaScript.applyIfEmpty(dataSource, SchemaScript.RESOURCE), is(false));
+
+		try (Connection connection = dataSource.getConnection();
+				Statement statement = connection.createStatement();
+				ResultSet count = statement.executeQuery("select count(*) from Exercise")) {
+			count.next();
+			assertThat(count.getLong(1), is(0L));
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package com.letitbeat.fitracker.jpa;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.inject.Inject;
+import com.letitbeat.fitracker.AbstractIntegrationTest;
+import com.letitbeat.fitracker.jpa.dao.ExerciseDao;
+import com.letitbeat.fitracker.rest.ExerciseServiceImpl;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.After;
+import org.junit.Test;
+
+public class StatementBudgetTest extends AbstractIntegrationTest {
+
+	@Inject
+	private ExerciseDao exerciseDao;
+
+	@Inject
+	private ExerciseServiceImpl exerciseService;
+
+	@After
+	public void endScope() {
+		StatementBudget.end();
+	}
+
+	@Test
+	public void testCountsStatements() {
+		StatementBudget.begin("count", 10, true);
+		for (long userId = 80; userId < 83; userId++) {
+			exerciseDao.findByTypeAndDate(userId, null, null);
+		}
+
+		assertThat(StatementBudget.end().getStatements(), is(3));
+		assertThat(StatementBudget.end(), nullValue());
+	}
+
+	@Test
+	public void testFailsOverBudget() {
+		StatementBudget.begin("over budget", 2, true);
+		exerciseDao.findByTypeAndDate(80L, null, null);
+		exerciseDao.findByTypeAndDate(81L, null, null);
+		try {
+			exerciseDao.findByTypeAndDate(82L, null, null);
+			fail("The third statement is over the budget");
+		} catch (IllegalStateException e) {
+			assertThat(e.getMessage().startsWith("over budget exceeded the budget of 2 SQL statements"), is(true));
+		}
+	}
+
+	@Test
+	public void testRankingDoesNotQueryPerUser() {
+		final List<Long> userIds = LongStream.range(1, 200).boxed().collect(Collectors.toList());
+
+		StatementBudget.begin("ranking", 5, true);
+		exerciseService.getRanking(userIds);
+		assertThat(StatementBudget.end().getStatements(), lessThanOrEqualTo(5));
+	}
+}
@@ -0,0 +1,90 @@
+package com.letitbeat.fitracker.jpa.dao;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Date;
+
+import javax.persistence.EntityManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+import com.letitbeat.fitracker.RootModule;
+import com.letitbeat.fitracker.activity.ActivityStore;
+import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+
+/**
+ * Checks that the {@link ActivityStore} only sees the exercise writes of committed transactions.
+ */
+public class ExerciseDaoActivityStoreTest {
+
+	private static final Long USER_ID = 90L;
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private ExerciseDao exerciseDao;
+
+	private ActivityStore activityStore;
+
+	private EntityManager entityManager;
+
+	@Before
+	public void setupInjector() throws IOException {
+		System.setProperty(ActivityStore.DIRECTORY_PROPERTY, folder.newFolder().getPath());
+		final Injector injector = Guice.createInjector(new RootModule());
+		exerciseDao = injector.getInstance(ExerciseDao.class);
+		activityStore = injector.getInstance(ActivityStore.class);
+		entityManager = injector.getInstance(EntityManager.class);
+	}
+
+	@After
+	public void clearProperty() {
+		System.clearProperty(ActivityStore.DIRECTORY_PROPERTY);
+	}
+
+	@Test
+	public void testIgnoresRolledBackWrites() {
+		assertThat(activityStore.countByType(USER_ID, 0), is(Collections.emptyMap()));
+
+		entityManager.getTransaction().begin();
+		exerciseDao.create(exercise(new Date(1000000)));
+		exerciseDao.createAll(Collections.singletonList(exercise(new Date(2000000))));
+		entityManager.getTransaction().rollback();
+		assertThat(activityStore.countByType(USER_ID, 0), is(Collections.emptyMap()));
+
+		final Exercise committed = exerciseDao.create(exercise(new Date(3000000)));
+		assertThat(activityStore.countByType(USER_ID, 0), is(Collections.singletonMap(ExerciseType.RUNNING, 1L)));
+
+		committed.setType(ExerciseType.CYCLING);
+		entityManager.getTransaction().begin();
+		exerciseDao.update(committed);
+		exerciseDao.deleteById(committed.getId());
+		entityManager.getTransaction().rollback();
+		assertThat(activityStore.countByType(USER_ID, 0), is(Collections.singletonMap(ExerciseType.RUNNING, 1L)));
+
+		exerciseDao.update(committed);
+		assertThat(activityStore.countByType(USER_ID, 0), is(Collections.singletonMap(ExerciseType.CYCLING, 1L)));
+	}
+
+	private static Exercise exercise(final Date startTime) {
+		final Exercise exercise = new Exercise();
+		exercise.setUserId(USER_ID);
+		exercise.setDescription("Activity store");
+		exercise.setType(ExerciseType.RUNNING);
+		exercise.setStartTime(startTime);
+		exercise.setDuration(600);
+		exercise.setCalories(100);
+		return exercise;
+	}
+}
@@ -0,0 +1,178 @@
+package com.letitbeat.fitracker.jpa.dao;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.Session;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.persist.UnitOfWork;
+
+import com.letitbeat.fitracker.RootModule;
+import com.letitbeat.fitracker.jpa.domain.Enums;
+
+/**
+ * Runs EXPLAIN PLAN for the SQL of every {@link ExerciseDaoImpl} query and fails if the exercise
+ * table is not accessed through an index.
+ */
+public class ExerciseDaoQueryPlanTest {
+
+	private static final Long USER_ID = 1L;
+
+	private static final Date DATE = new Date(0);
+
+	private static Injector injector;
+
+	private static ExerciseDao exerciseDao;
+
+	private static ExerciseRollupDao exerciseRollupDao;
+
+	@BeforeClass
+	public static void setupInjector() {
+		final Properties properties = new Properties();
+		properties.setProperty("hibernate.session_factory.statement_inspector", SqlCapture.class.getName());
+
+		injector = Guice.createInjector(new RootModule(properties));
+		exerciseDao = injector.getInstance(ExerciseDao.class);
+		exerciseRollupDao = injector.getInstance(ExerciseRollupDao.class);
+	}
+
+	@Test
+	public void testFindById() {
+		assertIndexed(() -> exerciseDao.findById(USER_ID));
+	}
+
+	@Test
+	public void testFindByDescription() {
+		assertIndexed(() -> exerciseDao.findByDescription("running"));
+	}
+
+	@Test
+	public void testFindPageByDescription() {
+		assertIndexed(() -> exerciseDao.findPageByDescription("running", null, null, 10));
+		assertIndexed(() -> exerciseDao.findPageByDescription("running", DATE, 1L, 10));
+	}
+
+	@Test
+	public void testFindByDate() {
+		assertIndexed(() -> exerciseDao.findByDate(USER_ID, DATE));
+	}
+
+	@Test
+	public void testFindByDateRange() {
+		assertIndexed(() -> exerciseDao.findByDateRange(USER_ID, DATE, new Date()));
+	}
+
+	@Test
+	public void testCountByType() {
+		assertIndexed(() -> exerciseDao.countByType(USER_ID, DATE, new Date()));
+	}
+
+	@Test
+	public void testRollupCountByType() {
+		assertIndexed(() -> exerciseRollupDao.countByType(USER_ID, DATE));
+	}
+
+	@Test
+	public void testFindLatestByStartTime() {
+		assertIndexed(() -> exerciseDao.findLatestByStartTime(USER_ID, DATE, null));
+		assertIndexed(() -> exerciseDao.findLatestByStartTime(USER_ID, DATE, 1L));
+	}
+
+	@Test
+	public void testFindActivitiesByUserIdsAndDate() {
+		assertIndexed(() -> exerciseDao.findActivitiesByUserIdsAndDate(Arrays.asList(1L, 2L, 3L), DATE));
+	}
+
+	@Test
+	public void testFindActivitiesByDate() {
+		assertIndexed(() -> exerciseDao.findActivitiesByDate(DATE));
+	}
+
+	@Test
+	public void testFindActivitiesByUserIdRangeAndDate() {
+		assertIndexed(() -> exerciseDao.findActivitiesByUserIdRangeAndDate(1L, 3L, DATE));
+	}
+
+	@Test
+	public void testFindUserIdsByDate() {
+		assertIndexed(() -> exerciseDao.findUserIdsByDate(DATE));
+	}
+
+	@Test
+	public void testFindByTypeAndDate() {
+		assertIndexed(() -> exerciseDao.findByTypeAndDate(USER_ID, null, null));
+		assertIndexed(() -> exerciseDao.findByTypeAndDate(USER_ID, Enums.ExerciseType.RUNNING, null));
+		assertIndexed(() -> exerciseDao.findByTypeAndDate(USER_ID, null, DATE));
+		assertIndexed(() -> exerciseDao.findByTypeAndDate(USER_ID, Enums.ExerciseType.RUNNING, DATE));
+	}
+
+	@Test
+	public void testFindPageByTypeAndDate() {
+		assertIndexed(() -> exerciseDao.findPageByTypeAndDate(USER_ID, null, null, null, null, 10));
+		assertIndexed(() -> exerciseDao.findPageByTypeAndDate(USER_ID, Enums.ExerciseType.RUNNING, DATE, DATE, 1L, 10));
+	}
+
+	@Test
+	public void testScrollByUserId() {
+		assertIndexed(() -> exerciseDao.scrollByUserId(USER_ID, exercise -> {
+		}));
+		assertIndexed(() -> exerciseDao.scrollActivitiesByUserId(USER_ID, activity -> {
+		}));
+	}
+
+	/**
+	 * Runs the query and checks the plan of every select statement it has executed.
+	 */
+	private void assertIndexed(final Runnable query) {
+		final List<String> statements = SqlCapture.capture(query);
+		assertThat("The query did not execute any SQL.", statements, not(empty()));
+
+		for (String sql : statements) {
+			if (!sql.trim().toLowerCase().startsWith("select")) {
+				continue;
+			}
+			final String plan = explain(sql);
+			for (String rangeVariable : plan.split("\\[range variable")) {
+				if (rangeVariable.contains("table=EXERCISE")) {
+					assertThat("Full scan of the exercise table in:\n" + sql + "\n" + plan,
+							rangeVariable.contains("access=INDEX PRED"), is(true));
+				}
+			}
+		}
+	}
+
+	private String explain(final String sql) {
+		final UnitOfWork unitOfWork = injector.getInstance(UnitOfWork.class);
+		unitOfWork.begin();
+		try {
+			final Session session = injector.getInstance(EntityManager.class).unwrap(Session.class);
+			return session.doReturningWork(connection -> {
+				final StringBuilder plan = new StringBuilder();
+				try (PreparedStatement statement = connection.prepareStatement("EXPLAIN PLAN FOR " + sql);
+						ResultSet resultSet = statement.executeQuery()) {
+					while (resultSet.next()) {
+						plan.append(resultSet.getString(1)).append('\n');
+					}
+				}
+				return plan.toString();
+			});
+		} finally {
+			unitOfWork.end();
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package com.letitbeat.fitracker.jpa.dao;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+
+import org.junit.Test;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.persist.UnitOfWork;
+
+import com.letitbeat.fitracker.AbstractIntegrationTest;
+import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+
+public class ExerciseRollupDaoTest extends AbstractIntegrationTest {
+
+	@Inject
+	private ExerciseDao exerciseDao;
+
+	@Inject
+	private ExerciseRollupDao exerciseRollupDao;
+
+	@Inject
+	private Provider<EntityManager> entityManagerProvider;
+
+	@Inject
+	private UnitOfWork unitOfWork;
+
+	@Test
+	public void testIncrementalUpdateAndRebuildUseUtcDays() {
+		final TimeZone defaultTimeZone = TimeZone.getDefault();
+		// 2016-03-10 02:00 UTC is still the 9th in this zone
+		TimeZone.setDefault(TimeZone.getTimeZone("America/Los_Angeles"));
+		try {
+			exerciseDao.create(exercise(84L, new Date(1457575200000L)));
+			assertThat(days(84L), is("[2016-03-10=1]"));
+
+			exerciseRollupDao.rebuild();
+			assertThat(days(84L), is("[2016-03-10=1]"));
+		} finally {
+			TimeZone.setDefault(defaultTimeZone);
+		}
+	}
+
+	@Test
+	public void testConcurrentFirstWritesOfSameDay() throws Exception {
+		final Date day = new Date(1457611200000L);
+		final CountDownLatch created = new CountDownLatch(1);
+		final CountDownLatch commit = new CountDownLatch(1);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			final Future<?> first = executor.submit(() -> inTransaction(() -> {
+				exerciseDao.create(exercise(85L, day));
+				created.countDown();
+				await(commit);
+			}));
+			created.await();
+
+			// inserts the same rollup row, which the first transaction has not committed yet
+			final Future<?> second = executor.submit(() -> inTransaction(() -> exerciseDao
+					.create(exercise(85L, new Date(day.getTime() + TimeUnit.HOURS.toMillis(2))))));
+			Thread.sleep(200);
+			commit.countDown();
+
+			first.get(10, TimeUnit.SECONDS);
+			second.get(10, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+		assertThat(days(85L), is("[2016-03-10=2]"));
+	}
+
+	private void inTransaction(final Runnable task) {
+		unitOfWork.begin();
+		try {
+			final EntityManager entityManager = entityManagerProvider.get();
+			entityManager.getTransaction().begin();
+			try {
+				task.run();
+				entityManager.getTransaction().commit();
+			} finally {
+				if (entityManager.getTransaction().isActive()) {
+					entityManager.getTransaction().rollback();
+				}
+			}
+		} finally {
+			unitOfWork.end();
+		}
+	}
+
+	/**
+	 * @return the days of the rollup rows of a user with their exercise count, as stored in the
+	 *         database
+	 */
+	private String days(final Long userId) {
+		final List<String> days = new ArrayList<>();
+		unitOfWork.begin();
+		try {
+			for (Object row : entityManagerProvider.get()
+					.createNativeQuery("SELECT CAST(startDay AS VARCHAR(10)), exerciseCount FROM ExerciseRollup "
+							+ "WHERE userId = ? ORDER BY startDay")
+					.setParameter(1, userId)
+					.getResultList()) {
+				final Object[] columns = (Object[]) row;
+				days.add(columns[0] + "=" + columns[1]);
+			}
+		} finally {
+			unitOfWork.end();
+		}
+		return days.toString();
+	}
+
+	private static void await(final CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static Exercise exercise(final Long userId, final Date startTime) {
+		final Exercise exercise = new Exercise();
+		exercise.setUserId(userId);
+		exercise.setDescription("Rollup");
+		exercise.setType(ExerciseType.RUNNING);
+		exercise.setStartTime(startTime);
+		exercise.setDuration(600);
+		exercise.setCalories(100);
+		return exercise;
+	}
+}
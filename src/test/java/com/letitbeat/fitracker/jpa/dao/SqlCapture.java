@@ -0,0 +1,39 @@
+package com.letitbeat.fitracker.jpa.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Records the SQL statements Hibernate prepares on the current thread, registered by the
+ * hibernate.session_factory.statement_inspector property.
+ */
+public class SqlCapture implements StatementInspector {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final ThreadLocal<List<String>> statements = new ThreadLocal<>();
+
+	@Override
+	public String inspect(final String sql) {
+		final List<String> captured = statements.get();
+		if (captured != null) {
+			captured.add(sql);
+		}
+		return sql;
+	}
+
+	/**
+	 * Runs the given action and returns the SQL statements it has executed.
+	 */
+	static List<String> capture(final Runnable action) {
+		statements.set(new ArrayList<>());
+		try {
+			action.run();
+			return statements.get();
+		} finally {
+			statements.remove();
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package com.letitbeat.fitracker.metrics;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void testPercentilesWithinPrecision() {
+		final Random random = new Random(7);
+		final LatencyHistogram histogram = new LatencyHistogram();
+		final long[] values = new long[100000];
+		for (int i = 0; i < values.length; i++) {
+			// log-normal like latencies from microseconds to seconds
+			values[i] = (long) Math.exp(7 + random.nextGaussian() * 3);
+			histogram.record(values[i]);
+		}
+		Arrays.sort(values);
+
+		for (double percentile : new double[] {1, 50, 90, 99, 99.9, 100}) {
+			final long expected = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+			final long actual = histogram.getValueAtPercentile(percentile);
+			assertThat(actual, greaterThanOrEqualTo(expected));
+			assertThat(actual, lessThanOrEqualTo(expected + Math.max(1, expected / 32)));
+		}
+		assertThat(histogram.getCount(), is((long) values.length));
+		assertThat(histogram.getSum(), is(Arrays.stream(values).sum()));
+		assertThat(histogram.getMax(), is(values[values.length - 1]));
+	}
+
+	@Test
+	public void testBuckets() {
+		for (long value : new long[] {0, 1, 31, 32, 33, 63, 64, 1000, 123456789, (1L << 44) - 1}) {
+			final int bucket = LatencyHistogram.bucketIndex(value);
+			assertThat(LatencyHistogram.highestValue(bucket), greaterThanOrEqualTo(value));
+			assertThat(LatencyHistogram.bucketIndex(LatencyHistogram.highestValue(bucket)), is(bucket));
+			assertThat(LatencyHistogram.bucketIndex(LatencyHistogram.highestValue(bucket) + 1), is(bucket + 1));
+		}
+	}
+
+	@Test
+	public void testEmptyAndOutOfRange() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		assertThat(histogram.getValueAtPercentile(99), is(0L));
+
+		histogram.record(-5);
+		histogram.record(Long.MAX_VALUE);
+		assertThat(histogram.getValueAtPercentile(50), is(0L));
+		assertThat(histogram.getValueAtPercentile(100), is((1L << 44) - 1));
+	}
+}
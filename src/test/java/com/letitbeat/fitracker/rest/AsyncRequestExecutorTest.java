@@ -0,0 +1,107 @@
+package com.letitbeat.fitracker.rest;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+import com.google.inject.persist.UnitOfWork;
+import com.letitbeat.fitracker.TestAsyncResponse;
+import java.util.concurrent.CountDownLatch;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response.Status;
+import org.junit.Test;
+
+public class AsyncRequestExecutorTest {
+
+	@Test
+	public void testRejectsIfQueueIsFull() throws InterruptedException {
+		final AsyncRequestExecutor executor = new AsyncRequestExecutor(mock(UnitOfWork.class), 1, 1, 60000);
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+
+		final TestAsyncResponse<String> running = new TestAsyncResponse<>();
+		executor.submit(running, () -> {
+			started.countDown();
+			awaitUninterruptibly(release);
+			return "running";
+		});
+		started.await();
+
+		final TestAsyncResponse<String> queued = new TestAsyncResponse<>();
+		executor.submit(queued, () -> "queued");
+
+		final TestAsyncResponse<String> rejected = new TestAsyncResponse<>();
+		executor.submit(rejected, () -> "rejected");
+		assertServiceUnavailable(rejected);
+
+		release.countDown();
+		assertThat(running.await(), is("running"));
+		assertThat(queued.await(), is("queued"));
+		assertThat(executor.getStats().getRejected(), is(1L));
+		assertThat(executor.getStats().getExecuted(), is(2L));
+		executor.shutdown();
+	}
+
+	@Test
+	public void testTimeout() {
+		final AsyncRequestExecutor executor = new AsyncRequestExecutor(mock(UnitOfWork.class), 1, 1, 50);
+		final CountDownLatch release = new CountDownLatch(1);
+
+		final TestAsyncResponse<String> response = new TestAsyncResponse<>();
+		executor.submit(response, () -> {
+			awaitUninterruptibly(release);
+			return "late";
+		});
+		assertServiceUnavailable(response);
+		release.countDown();
+
+		assertThat(executor.getStats().getTimedOut(), is(1L));
+		executor.shutdown();
+	}
+
+	@Test
+	public void testShutdownAnswersWaitingRequests() throws InterruptedException {
+		final AsyncRequestExecutor executor = new AsyncRequestExecutor(mock(UnitOfWork.class), 1, 1, 60000);
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+
+		final TestAsyncResponse<String> running = new TestAsyncResponse<>();
+		executor.submit(running, () -> {
+			started.countDown();
+			awaitUninterruptibly(release);
+			return "running";
+		});
+		started.await();
+
+		final TestAsyncResponse<String> queued = new TestAsyncResponse<>();
+		executor.submit(queued, () -> "queued");
+
+		executor.shutdown();
+		assertServiceUnavailable(queued);
+
+		final TestAsyncResponse<String> later = new TestAsyncResponse<>();
+		executor.submit(later, () -> "later");
+		assertServiceUnavailable(later);
+
+		release.countDown();
+		assertThat(running.await(), is("running"));
+	}
+
+	private static void assertServiceUnavailable(final TestAsyncResponse<String> response) {
+		try {
+			response.await();
+			fail("Expected 503");
+		} catch (WebApplicationException e) {
+			assertThat(e.getResponse().getStatus(), is(Status.SERVICE_UNAVAILABLE.getStatusCode()));
+		}
+	}
+
+	private static void awaitUninterruptibly(final CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
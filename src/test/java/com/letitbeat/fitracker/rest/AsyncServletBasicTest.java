@@ -0,0 +1,83 @@
+package com.letitbeat.fitracker.rest;
+
+import static com.jayway.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import com.squarespace.jersey2.guice.BootstrapUtils;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.webapp.WebAppContext;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Sends the suspended requests through the web.xml in an embedded Jetty. The other tests call
+ * Jersey without a servlet container and cannot notice a servlet or filter which does not support
+ * async requests.
+ */
+public class AsyncServletBasicTest {
+
+	private static Server server;
+
+	private static int port;
+
+	@BeforeClass
+	public static void startServer() throws Exception {
+		server = new Server();
+		final ServerConnector connector = new ServerConnector(server);
+		connector.setHost("127.0.0.1");
+		server.addConnector(connector);
+
+		final WebAppContext webApp = new WebAppContext();
+		webApp.setContextPath("/");
+		webApp.setResourceBase("src/main/webapp");
+		webApp.setDescriptor("src/main/webapp/WEB-INF/web.xml");
+		// the classes of the application are on the test classpath
+		webApp.setParentLoaderPriority(true);
+		webApp.setThrowUnavailableOnStartupException(true);
+		server.setHandler(webApp);
+
+		server.start();
+		port = connector.getLocalPort();
+	}
+
+	@AfterClass
+	public static void stopServer() throws Exception {
+		server.stop();
+		// the servlet context listener installed its service locator for all of Jersey, which is
+		// shut down with the application
+		BootstrapUtils.reset();
+	}
+
+	@Test
+	public void testGetRanking() {
+		given().port(port)
+				.queryParam("userIds", 1L)
+				.queryParam("userIds", 2L)
+				.when().get("/rest/api/v1/exercise/ranking")
+				.then().statusCode(200)
+				// the exercises of the test data are older than 4 weeks
+				.body("size()", is(0));
+	}
+
+	@Test
+	public void testGetStats() {
+		given().port(port)
+				.when().get("/rest/api/v1/exercise/user/1/stats")
+				.then().statusCode(200)
+				.body("$", hasKey("RUNNING"));
+	}
+
+	@Test
+	public void testPrettyPrint() {
+		final String path = "/rest/api/v1/exercise/user/1";
+		assertThat(given().port(port).queryParam(PrettyPrintFilter.PRETTY_PARAMETER, true)
+				.when().get(path).asString(), containsString("\n"));
+		assertThat(given().port(port).when().get(path).asString(), not(containsString("\n")));
+	}
+}
@@ -0,0 +1,114 @@
+package com.letitbeat.fitracker.rest;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.inject.Inject;
+import com.letitbeat.fitracker.AbstractIntegrationTest;
+import com.letitbeat.fitracker.TestClientService;
+import com.letitbeat.fitracker.dto.BatchItemResultDto;
+import com.letitbeat.fitracker.jpa.domain.Enums;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class BatchBasicTest extends AbstractIntegrationTest {
+
+	@Inject
+	private TestClientService testClientService;
+
+	@Test
+	public void testInsertBatch() {
+		final long userId = 50L;
+
+		final List<Exercise> exercises = new ArrayList<>();
+		for (int i = 0; i < 120; i++) {
+			exercises.add(createExercise(userId, String.format("2017-03-%02dT%02d:00:00", 1 + i / 10, 8 + i % 10), 1800));
+		}
+
+		final List<BatchItemResultDto> results = testClientService.createExercises(exercises);
+		assertThat(results, hasSize(120));
+		for (int i = 0; i < results.size(); i++) {
+			assertThat(results.get(i).getIndex(), is(i));
+			assertThat(results.get(i).getStatus(), is(201));
+			assertThat(results.get(i).getId(), notNullValue());
+		}
+
+		assertThat(testClientService.getExercises(userId, null, null), hasSize(120));
+
+		final Exercise selectedExercise = testClientService.getExercise(results.get(42).getId());
+		assertThat(selectedExercise.getUserId(), is(userId));
+		assertDate(selectedExercise.getStartTime(), convertDate("2017-03-05T10:00:00"));
+	}
+
+	@Test
+	public void testBatchRejectsSingleItems() {
+		final long userId = 51L;
+
+		testClientService.createExercise(createExercise(userId, "2017-04-01T10:00:00", 3600));
+
+		final Exercise invalid = createExercise(userId, "2017-04-02T10:00:00", 3600);
+		invalid.setDescription("Run 42!");
+
+		final List<BatchItemResultDto> results = testClientService.createExercises(Arrays.asList(
+				createExercise(userId, "2017-04-01T10:30:00", 600), // during the persisted exercise
+				invalid,
+				createExercise(userId, "2017-04-01T12:00:00", 3600),
+				createExercise(userId, "2017-04-01T12:30:00", 600), // during the exercise before
+				createExercise(userId + 1, "2017-04-01T12:30:00", 600)));
+
+		assertThat(results.get(0).getStatus(), is(409));
+		assertThat(results.get(1).getStatus(), is(400));
+		assertThat(results.get(2).getStatus(), is(201));
+		assertThat(results.get(3).getStatus(), is(409));
+		assertThat(results.get(4).getStatus(), is(201));
+		assertThat(results.get(0).getId(), nullValue());
+		assertThat(results.get(1).getMessage(), notNullValue());
+
+		assertThat(testClientService.getExercises(userId, null, null), hasSize(2));
+		assertThat(testClientService.getExercises(userId + 1, null, null), hasSize(1));
+	}
+
+	@Test
+	public void testBatchChecksOverlaps() {
+		final long userId = 68L;
+
+		testClientService.createExercise(createExercise(userId, "2017-05-01T23:00:00", 7200));
+
+		final List<BatchItemResultDto> results = testClientService.createExercises(Arrays.asList(
+				createExercise(userId, "2017-05-02T00:30:00", 600), // during the exercise of the previous day
+				createExercise(userId, "2017-05-02T10:00:00", 3600),
+				createExercise(userId, "2017-05-02T09:30:00", 3600), // lasts into the exercise before
+				createExercise(userId, "2017-05-02T09:00:00", 1800)));
+
+		assertThat(results.get(0).getStatus(), is(409));
+		assertThat(results.get(1).getStatus(), is(201));
+		assertThat(results.get(2).getStatus(), is(409));
+		assertThat(results.get(3).getStatus(), is(201));
+
+		assertThat(testClientService.getExercises(userId, null, null), hasSize(3));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEmptyBatch() {
+		testClientService.createExercises(Collections.emptyList());
+	}
+
+	private Exercise createExercise(final long userId, final String date, final int duration) {
+		final Exercise exercise = new Exercise();
+		exercise.setDescription("Batch");
+		exercise.setDuration(duration);
+		exercise.setDistance(1000);
+		exercise.setCalories(100);
+		exercise.setStartTime(convertDate(date));
+		exercise.setType(Enums.ExerciseType.RUNNING);
+		exercise.setUserId(userId);
+		return exercise;
+	}
+}
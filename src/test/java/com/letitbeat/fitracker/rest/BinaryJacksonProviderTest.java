@@ -0,0 +1,107 @@
+package com.letitbeat.fitracker.rest;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.letitbeat.fitracker.dto.BatchItemResultDto;
+import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import javax.ws.rs.core.MediaType;
+import org.junit.Test;
+
+public class BinaryJacksonProviderTest {
+
+	private static final Type EXERCISE_LIST = new TypeReference<List<Exercise>>() {
+	}.getType();
+
+	private static final Type BATCH_RESULT_LIST = new TypeReference<List<BatchItemResultDto>>() {
+	}.getType();
+
+	private final ObjectMapper jsonMapper = new ObjectMapperProvider().getContext(Object.class);
+
+	@Test
+	public void testCborMatchesJson() throws IOException {
+		assertMatchesJson(new CborProvider(), MediaType.valueOf(ExerciseService.APPLICATION_CBOR));
+	}
+
+	@Test
+	public void testSmileMatchesJson() throws IOException {
+		assertMatchesJson(new SmileProvider(), MediaType.valueOf(ExerciseService.APPLICATION_SMILE));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRejectsMalformedBody() throws IOException {
+		read(new CborProvider(), MediaType.valueOf(ExerciseService.APPLICATION_CBOR), EXERCISE_LIST,
+				new byte[] {(byte) 0xff, 0x00, 0x7b});
+	}
+
+	@Test
+	public void testIgnoresOtherMediaTypes() {
+		final CborProvider provider = new CborProvider();
+		assertThat(provider.isWriteable(List.class, EXERCISE_LIST, new Annotation[0], MediaType.APPLICATION_JSON_TYPE),
+				is(false));
+		assertThat(provider.isWriteable(String.class, String.class, new Annotation[0],
+				MediaType.valueOf(ExerciseService.APPLICATION_CBOR)), is(false));
+	}
+
+	private void assertMatchesJson(final BinaryJacksonProvider provider, final MediaType mediaType)
+			throws IOException {
+		final List<Exercise> exercises = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			exercises.add(exercise(i));
+		}
+		exercises.add(new Exercise());
+		final List<BatchItemResultDto> batchResults = Arrays.asList(new BatchItemResultDto(0, 201, 1L, null),
+				new BatchItemResultDto(1, 400, null, "Overlapping exercise"));
+
+		final Object readExercises = read(provider, mediaType, EXERCISE_LIST, write(provider, mediaType,
+				EXERCISE_LIST, exercises));
+		assertThat(jsonMapper.writeValueAsString(readExercises), is(jsonMapper.writeValueAsString(exercises)));
+
+		final Object readBatchResults = read(provider, mediaType, BATCH_RESULT_LIST, write(provider, mediaType,
+				BATCH_RESULT_LIST, batchResults));
+		assertThat(jsonMapper.writeValueAsString(readBatchResults), is(jsonMapper.writeValueAsString(batchResults)));
+	}
+
+	private static byte[] write(final BinaryJacksonProvider provider, final MediaType mediaType, final Type type,
+			final Object value) throws IOException {
+		assertThat(provider.isWriteable(value.getClass(), type, new Annotation[0], mediaType), is(true));
+
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		provider.writeTo(value, value.getClass(), type, new Annotation[0], mediaType, null, output);
+		return output.toByteArray();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Object read(final BinaryJacksonProvider provider, final MediaType mediaType, final Type type,
+			final byte[] body) throws IOException {
+		assertThat(provider.isReadable(List.class, type, new Annotation[0], mediaType), is(true));
+
+		return provider.readFrom((Class<Object>) (Class<?>) List.class, type, new Annotation[0], mediaType, null,
+				new ByteArrayInputStream(body));
+	}
+
+	private static Exercise exercise(final int i) {
+		final Exercise exercise = new Exercise();
+		exercise.setId((long) i + 1);
+		exercise.setUserId(3L);
+		exercise.setDescription("Exercise " + i);
+		exercise.setType(ExerciseType.values()[i % ExerciseType.values().length]);
+		exercise.setStartTime(new Date(1500000000000L + i * 3600000L));
+		exercise.setDuration(600 + i);
+		exercise.setDistance(i % 3 == 0 ? null : 1000 * i);
+		exercise.setCalories(100 + i);
+		return exercise;
+	}
+}
@@ -0,0 +1,96 @@
+package com.letitbeat.fitracker.rest;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+import com.google.inject.Inject;
+import com.letitbeat.fitracker.AbstractIntegrationTest;
+import com.letitbeat.fitracker.TestApplication;
+import com.letitbeat.fitracker.TestClientService;
+import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import java.util.Date;
+import javax.annotation.Nullable;
+import javax.ws.rs.core.HttpHeaders;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Sends the requests through Jersey, so the {@link UserETagFilter} is applied like in the servlet
+ * container.
+ */
+public class ConditionalGetBasicTest extends AbstractIntegrationTest {
+
+
+	@Inject
+	private TestClientService testClientService;
+
+	@Inject
+	private MonitoringService monitoringService;
+
+	private TestApplication application;
+
+	@Before
+	public void setupApplication() {
+		application = new TestApplication(injector);
+	}
+
+	@Test
+	public void testNotModifiedUntilWrite() throws Exception {
+		final Exercise exercise = testClientService.createExercise(exercise(76L));
+		final String path = "/api/v1/exercise/user/76";
+
+		final ContainerResponse response = get(path, null);
+		assertThat(response.getStatus(), is(200));
+		final String tag = response.getHeaderString(HttpHeaders.ETAG);
+		assertThat(tag, startsWith("W/\""));
+
+		final ContainerResponse notModified = get(path, tag);
+		assertThat(notModified.getStatus(), is(304));
+		assertThat(notModified.getHeaderString(HttpHeaders.ETAG), is(tag));
+		assertThat(get(path + "/page", tag).getStatus(), is(304));
+
+		exercise.setDuration(exercise.getDuration() + 60);
+		testClientService.updateExercise(exercise);
+
+		final ContainerResponse modified = get(path, tag);
+		assertThat(modified.getStatus(), is(200));
+		assertThat(modified.getHeaderString(HttpHeaders.ETAG), not(tag));
+		assertThat(get("/api/v1/exercise/user/78", tag).getStatus(), is(200));
+	}
+
+	@Test
+	public void testNotModifiedStatsAreNotCalculated() throws Exception {
+		testClientService.createExercise(exercise(77L));
+		final String path = "/api/v1/exercise/user/77/stats";
+
+		final ContainerResponse response = get(path, null);
+		assertThat(response.getStatus(), is(200));
+		final String tag = response.getHeaderString(HttpHeaders.ETAG);
+		assertThat(tag, notNullValue());
+
+		final long executed = monitoringService.getAsyncStats().getExecuted();
+		assertThat(get(path, tag).getStatus(), is(304));
+		assertThat(monitoringService.getAsyncStats().getExecuted(), is(executed));
+	}
+
+	private ContainerResponse get(final String path, @Nullable final String ifNoneMatch) throws Exception {
+		return application.get(path, ifNoneMatch);
+	}
+
+	private static Exercise exercise(final Long userId) {
+		final Exercise exercise = new Exercise();
+		exercise.setUserId(userId);
+		exercise.setDescription("Conditional GET");
+		exercise.setType(ExerciseType.RUNNING);
+		exercise.setStartTime(new Date());
+		exercise.setDuration(600);
+		exercise.setDistance(1000);
+		exercise.setCalories(100);
+		return exercise;
+	}
+}
@@ -264,4 +264,71 @@ public class ExerciseBasicTest extends AbstractIntegrationTest {
 		testClientService.createExercise(exerciseToInsert2);
 	}
 
+	@Test(expected = WebApplicationException.class)
+	public void testConflictWithExerciseOfPreviousDay() {
+		final long userId = 64L;
+
+		testClientService.createExercise(createExercise(userId, "2017-07-01T23:00:00", 7200));
+
+		// starts after midnight while the exercise of the previous day is still taking place
+		testClientService.createExercise(createExercise(userId, "2017-07-02T00:30:00", 600));
+	}
+
+	@Test(expected = WebApplicationException.class)
+	public void testConflictWithLaterExercise() {
+		final long userId = 65L;
+
+		testClientService.createExercise(createExercise(userId, "2017-07-01T10:00:00", 3600));
+		testClientService.createExercise(createExercise(userId, "2017-07-01T14:00:00", 3600));
+
+		// starts before the first exercise and lasts until after the second started
+		testClientService.createExercise(createExercise(userId, "2017-07-01T09:00:00", 5 * 3600 + 60));
+	}
+
+	@Test
+	public void testAdjacentExercises() {
+		final long userId = 66L;
+
+		testClientService.createExercise(createExercise(userId, "2017-07-01T10:00:00", 3600));
+		testClientService.createExercise(createExercise(userId, "2017-07-01T11:00:00", 3600));
+		testClientService.createExercise(createExercise(userId, "2017-07-01T09:00:00", 3600));
+
+		assertThat(testClientService.getExercises(userId, null, null).size(), is(3));
+	}
+
+	@Test
+	public void testUpdateConflict() {
+		final long userId = 67L;
+
+		testClientService.createExercise(createExercise(userId, "2017-07-01T10:00:00", 3600));
+		final Exercise persistedExercise = testClientService
+				.createExercise(createExercise(userId, "2017-07-01T12:00:00", 3600));
+
+		// the exercise does not conflict with itself
+		persistedExercise.setDuration(5400);
+		testClientService.updateExercise(persistedExercise);
+
+		persistedExercise.setStartTime(convertDate("2017-07-01T10:30:00"));
+		try {
+			testClientService.updateExercise(persistedExercise);
+			fail("The update overlapping another exercise must be rejected.");
+		} catch (WebApplicationException e) {
+			assertThat(e.getResponse().getStatus(), is(409));
+		}
+
+		assertDate(testClientService.getExercise(persistedExercise.getId()).getStartTime(),
+				convertDate("2017-07-01T12:00:00"));
+	}
+
+	private Exercise createExercise(final long userId, final String date, final int duration) {
+		final Exercise exercise = new Exercise();
+		exercise.setDescription("Task");
+		exercise.setDuration(duration);
+		exercise.setDistance(0);
+		exercise.setCalories(500);
+		exercise.setStartTime(convertDate(date));
+		exercise.setType(Enums.ExerciseType.OTHER);
+		exercise.setUserId(userId);
+		return exercise;
+	}
 }
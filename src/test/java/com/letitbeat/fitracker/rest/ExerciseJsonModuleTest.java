@@ -0,0 +1,84 @@
+package com.letitbeat.fitracker.rest;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import org.junit.Test;
+
+public class ExerciseJsonModuleTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapperProvider().getContext(Exercise.class);
+
+	/**
+	 * The mapper without the module, serializes the exercise through its bean properties.
+	 */
+	private final ObjectMapper beanMapper = new ObjectMapper()
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+			.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+	@Test
+	public void testSameJsonAsBeanSerialization() throws IOException {
+		final List<Exercise> exercises = Arrays.asList(exercise(), new Exercise());
+		exercises.get(1).setDescription("only a description");
+
+		assertThat(objectMapper.writeValueAsString(exercises), is(beanMapper.writeValueAsString(exercises)));
+		assertThat(objectMapper.writeValueAsString(new Exercise()), is("{}"));
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		final Exercise exercise = exercise();
+		final List<Exercise> exercises = objectMapper.readValue(
+				objectMapper.writeValueAsBytes(Arrays.asList(exercise, exercise)), new TypeReference<List<Exercise>>() {
+				});
+
+		assertThat(exercises.size(), is(2));
+		assertThat(objectMapper.writeValueAsString(exercises.get(1)), is(objectMapper.writeValueAsString(exercise)));
+	}
+
+	@Test
+	public void testReadsLikeBeanDeserialization() throws IOException {
+		final String json = "{\"userId\":\"2\",\"startTime\":\"2017-07-14T02:40:00.000+0000\",\"duration\":\"60\","
+				+ "\"type\":\"SWIMMING\",\"endTime\":12,\"new\":true,\"unknown\":{\"a\":[1,2]},\"description\":null,"
+				+ "\"calories\":null}";
+
+		final Exercise exercise = objectMapper.readValue(json, Exercise.class);
+		assertThat(objectMapper.writeValueAsString(exercise),
+				is(beanMapper.writeValueAsString(beanMapper.readValue(json, Exercise.class))));
+		assertThat(exercise.getUserId(), is(2L));
+		assertThat(exercise.getStartTime(), is(new Date(1500000000000L)));
+		assertThat(exercise.getDuration(), is(60));
+		assertThat(exercise.getType(), is(ExerciseType.SWIMMING));
+		assertThat(exercise.getDescription(), nullValue());
+	}
+
+	@Test(expected = JsonMappingException.class)
+	public void testRejectsUnknownType() throws IOException {
+		objectMapper.readValue("{\"type\":\"FLYING\"}", Exercise.class);
+	}
+
+	private static Exercise exercise() {
+		final Exercise exercise = new Exercise();
+		exercise.setId(5L);
+		exercise.setUserId(2L);
+		exercise.setDescription("Run \"x\"");
+		exercise.setType(ExerciseType.RUNNING);
+		exercise.setStartTime(new Date(1500000000000L));
+		exercise.setDuration(600);
+		exercise.setDistance(3000);
+		exercise.setCalories(100);
+		return exercise;
+	}
+}
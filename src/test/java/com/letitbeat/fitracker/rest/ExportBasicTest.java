@@ -0,0 +1,63 @@
+package com.letitbeat.fitracker.rest;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+import com.google.inject.Inject;
+import com.letitbeat.fitracker.AbstractIntegrationTest;
+import com.letitbeat.fitracker.TestClientService;
+import com.letitbeat.fitracker.jpa.domain.Enums;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import org.junit.Test;
+
+public class ExportBasicTest extends AbstractIntegrationTest {
+
+	@Inject
+	private TestClientService testClientService;
+
+	@Test
+	public void testExportNdjson() {
+		final long userId = 58L;
+		final Exercise second = testClientService.createExercise(createExercise(userId, "2017-06-02T10:00:00", "Swim"));
+		final Exercise first = testClientService.createExercise(createExercise(userId, "2017-06-01T10:00:00", "Run"));
+
+		final String[] lines = testClientService.exportExercises(userId, null).split("\n");
+		assertThat(lines.length, is(2));
+		assertThat(lines[0], startsWith("{\"id\":" + first.getId() + ","));
+		assertThat(lines[1], startsWith("{\"id\":" + second.getId() + ","));
+	}
+
+	@Test
+	public void testExportCsv() {
+		final long userId = 59L;
+		final Exercise exercise = testClientService.createExercise(createExercise(userId, "2017-06-01T10:00:00", "Run"));
+
+		final String[] lines = testClientService.exportExercises(userId, "csv").split("\n");
+		assertThat(lines.length, is(2));
+		assertThat(lines[0], is("id,userId,type,startTime,duration,distance,calories,description"));
+		assertThat(lines[1], is(exercise.getId() + ",59,RUNNING,2017-06-01T10:00:00Z,1800,5000,300,Run"));
+	}
+
+	@Test
+	public void testExportWithoutExercises() {
+		assertThat(testClientService.exportExercises(60L, "ndjson"), is(""));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnsupportedFormat() {
+		testClientService.exportExercises(59L, "xml");
+	}
+
+	private Exercise createExercise(final long userId, final String date, final String description) {
+		final Exercise exercise = new Exercise();
+		exercise.setDescription(description);
+		exercise.setDuration(1800);
+		exercise.setDistance(5000);
+		exercise.setCalories(300);
+		exercise.setStartTime(convertDate(date));
+		exercise.setType(Enums.ExerciseType.RUNNING);
+		exercise.setUserId(userId);
+		return exercise;
+	}
+}
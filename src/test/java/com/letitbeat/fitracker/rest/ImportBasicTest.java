@@ -0,0 +1,76 @@
+package com.letitbeat.fitracker.rest;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.inject.Inject;
+import com.letitbeat.fitracker.AbstractIntegrationTest;
+import com.letitbeat.fitracker.TestClientService;
+import com.letitbeat.fitracker.dto.ImportResultDto;
+import com.letitbeat.fitracker.jpa.domain.Enums;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.Test;
+
+public class ImportBasicTest extends AbstractIntegrationTest {
+
+	@Inject
+	private TestClientService testClientService;
+
+	@Test
+	public void testImport() {
+		final String ndjson = ""
+				+ exerciseJson(55L, "2017-05-01T10:00:00.000Z", "RUNNING", "Run") + "\n"
+				+ exerciseJson(55L, "2017-05-02T10:00:00.000Z", "SWIMMING", "Swim") + "\n"
+				+ exerciseJson(55L, "2017-05-03T10:00:00.000Z", "DANCING", "Dance") + "\n"
+				+ exerciseJson(55L, "2017-05-04T10:00:00.000Z", "CYCLING", "Bike 42!") + "\n"
+				+ exerciseJson(55L, "2017-05-05T10:00:00.000Z", "ROWING", "Row") + "\n"
+				+ "{\"userId\":55,\"type\":\"WALKING\"}\n"
+				+ exerciseJson(56L, "2017-05-05T10:00:00.000Z", "WALKING", "Walk") + "\n";
+
+		final ImportResultDto result = testClientService.importExercises(toStream(ndjson), 2);
+		assertThat(result.getImported(), is(4L));
+		assertThat(result.getRejected(), is(3L));
+
+		final List<Exercise> exercises = testClientService.getExercises(55L, null, null);
+		assertThat(exercises, hasSize(3));
+		assertThat(testClientService.getExercises(55L, Enums.ExerciseType.SWIMMING, "2017-05-02"), hasSize(1));
+		assertThat(testClientService.getExercises(56L, null, null), hasSize(1));
+	}
+
+	@Test
+	public void testImportKeepsCommittedChunks() {
+		final String ndjson = ""
+				+ exerciseJson(57L, "2017-05-01T10:00:00.000Z", "RUNNING", "Run") + "\n"
+				+ exerciseJson(57L, "2017-05-02T10:00:00.000Z", "RUNNING", "Run") + "\n"
+				+ "{\"userId\":57,\n";
+
+		try {
+			testClientService.importExercises(toStream(ndjson), 1);
+			fail("Malformed input must not be accepted.");
+		} catch (IllegalArgumentException e) {
+			assertThat(testClientService.getExercises(57L, null, null), hasSize(2));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidChunkSize() {
+		testClientService.importExercises(toStream(""), 0);
+	}
+
+	private String exerciseJson(final long userId, final String startTime, final String type,
+			final String description) {
+		return String.format("{\"id\":1,\"userId\":%d,\"description\":\"%s\",\"type\":\"%s\","
+				+ "\"startTime\":\"%s\",\"duration\":1800,\"distance\":5000,\"calories\":300}",
+				userId, description, type, startTime);
+	}
+
+	private InputStream toStream(final String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,83 @@
+package com.letitbeat.fitracker.rest;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThat;
+
+import com.google.inject.Inject;
+import com.letitbeat.fitracker.AbstractIntegrationTest;
+import com.letitbeat.fitracker.TestClientService;
+import com.letitbeat.fitracker.dto.LeaderboardEntryDto;
+import com.letitbeat.fitracker.jpa.domain.Enums;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import java.util.Calendar;
+import java.util.List;
+import javax.ws.rs.NotFoundException;
+import org.junit.Test;
+
+public class LeaderboardBasicTest extends AbstractIntegrationTest {
+
+	@Inject
+	private TestClientService testClientService;
+
+	@Test
+	public void testLeaderboard() {
+		final long userId1 = 40L;
+		final long userId2 = 41L;
+
+		final Exercise exercise1ToInsert = new Exercise();
+		exercise1ToInsert.setDescription("Marathon");
+		exercise1ToInsert.setDuration(14400);
+		exercise1ToInsert.setDistance(42195);
+		exercise1ToInsert.setCalories(1000000);
+		exercise1ToInsert.setStartTime(Calendar.getInstance().getTime());
+		exercise1ToInsert.setType(Enums.ExerciseType.RUNNING);
+		exercise1ToInsert.setUserId(userId1);
+
+		final Exercise persistedExercise1 = testClientService.createExercise(exercise1ToInsert);
+		assertNotNull(persistedExercise1.getId());
+
+		final Exercise exercise2ToInsert = new Exercise();
+		exercise2ToInsert.setDescription("Half Marathon");
+		exercise2ToInsert.setDuration(7200);
+		exercise2ToInsert.setDistance(21097);
+		exercise2ToInsert.setCalories(900000);
+		exercise2ToInsert.setStartTime(Calendar.getInstance().getTime());
+		exercise2ToInsert.setType(Enums.ExerciseType.RUNNING);
+		exercise2ToInsert.setUserId(userId2);
+
+		final Exercise persistedExercise2 = testClientService.createExercise(exercise2ToInsert);
+		assertNotNull(persistedExercise2.getId());
+
+		final List<LeaderboardEntryDto> leaderboard = testClientService.getLeaderboard(0, 2);
+		assertThat(leaderboard.size(), is(2));
+		assertThat(leaderboard.get(0).getRank(), is(1));
+		assertThat(leaderboard.get(0).getUserId(), is(userId1));
+		assertThat(leaderboard.get(1).getRank(), is(2));
+		assertThat(leaderboard.get(1).getUserId(), is(userId2));
+
+		final List<LeaderboardEntryDto> secondPage = testClientService.getLeaderboard(1, 1);
+		assertThat(secondPage.size(), is(1));
+		assertThat(secondPage.get(0).getUserId(), is(userId2));
+
+		final LeaderboardEntryDto entry = testClientService.getLeaderboardEntry(userId2);
+		assertThat(entry.getRank(), is(2));
+		assertThat(entry.getScore(), greaterThan(0.0));
+
+		testClientService.deleteExercise(persistedExercise1.getId());
+
+		assertThat(testClientService.getLeaderboardEntry(userId2).getRank(), is(1));
+		testClientService.deleteExercise(persistedExercise2.getId());
+	}
+
+	@Test(expected = NotFoundException.class)
+	public void testLeaderboardEntryWithoutPoints() {
+		testClientService.getLeaderboardEntry(42L);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testLeaderboardInvalidLimit() {
+		testClientService.getLeaderboard(0, 0);
+	}
+}
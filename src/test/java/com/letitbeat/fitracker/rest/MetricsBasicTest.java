@@ -0,0 +1,34 @@
+package com.letitbeat.fitracker.rest;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.letitbeat.fitracker.AbstractIntegrationTest;
+import com.letitbeat.fitracker.TestApplication;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.junit.Test;
+
+public class MetricsBasicTest extends AbstractIntegrationTest {
+
+	@Test
+	public void testRequestAndDaoLatencies() throws Exception {
+		final TestApplication application = new TestApplication(injector);
+		assertThat(application.get("/api/v1/exercise/user/79", null).getStatus(), is(200));
+		assertThat(application.get("/api/v1/exercise/user/79", null).getStatus(), is(200));
+
+		final ContainerResponse response = application.get("/metrics", null);
+		assertThat(response.getStatus(), is(200));
+		assertThat(response.getMediaType().toString(), containsString("version=0.0.4"));
+
+		final String metrics = (String) response.getEntity();
+		assertThat(metrics, containsString("# TYPE fitracker_http_request_duration_seconds summary\n"));
+		assertThat(metrics, containsString(
+				"fitracker_http_request_duration_seconds_count{method=\"ExerciseService.getExerciseByTypeAndDate\"} 2\n"));
+		assertThat(metrics, containsString(
+				"fitracker_http_request_duration_seconds{method=\"ExerciseService.getExerciseByTypeAndDate\",quantile=\"0.999\"} "));
+		assertThat(metrics, containsString("# TYPE fitracker_dao_call_duration_seconds summary\n"));
+		assertThat(metrics, containsString(
+				"fitracker_dao_call_duration_seconds_count{method=\"ExerciseDaoImpl.findByTypeAndDate\"} 2\n"));
+	}
+}
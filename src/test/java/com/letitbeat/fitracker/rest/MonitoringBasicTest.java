@@ -0,0 +1,56 @@
+package com.letitbeat.fitracker.rest;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.google.inject.Inject;
+import com.letitbeat.fitracker.AbstractIntegrationTest;
+import com.letitbeat.fitracker.TestClientService;
+import com.letitbeat.fitracker.dto.AsyncStatsDto;
+import com.letitbeat.fitracker.dto.CacheStatsDto;
+import com.letitbeat.fitracker.dto.PoolStatsDto;
+import org.junit.Test;
+
+public class MonitoringBasicTest extends AbstractIntegrationTest {
+
+	@Inject
+	private TestClientService testClientService;
+
+	@Inject
+	private MonitoringService monitoringService;
+
+	@Test
+	public void testPoolStats() {
+		testClientService.getExercises(70L, null, null);
+
+		final PoolStatsDto stats = monitoringService.getPoolStats();
+		assertThat(stats.getPoolName(), is("fitracker"));
+		assertThat(stats.getMaximumPoolSize(), is(10));
+		assertThat(stats.getAcquireCount(), greaterThan(0L));
+		assertThat(stats.getAcquireTimeMax(), greaterThanOrEqualTo(stats.getAcquireTimeMean()));
+		assertThat(stats.getWaiting(), is(0));
+	}
+
+	@Test
+	public void testCacheStatsOfDisabledCache() {
+		testClientService.getExercises(71L, null, null);
+
+		final CacheStatsDto stats = monitoringService.getCacheStats();
+		assertThat(stats.isSecondLevelCacheEnabled(), is(false));
+		assertThat(stats.isQueryCacheEnabled(), is(false));
+		assertThat(stats.getQueryCacheHitCount(), is(0L));
+		assertThat(stats.getQueryCacheMissCount(), is(0L));
+	}
+
+	@Test
+	public void testAsyncStats() {
+		testClientService.getStats(75L);
+
+		final AsyncStatsDto stats = monitoringService.getAsyncStats();
+		assertThat(stats.getExecuted(), greaterThan(0L));
+		assertThat(stats.getRejected(), is(0L));
+		assertThat(stats.getQueueWaitMax(), greaterThanOrEqualTo(stats.getQueueWaitMean()));
+	}
+}
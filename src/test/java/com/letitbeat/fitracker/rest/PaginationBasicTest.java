@@ -0,0 +1,93 @@
+package com.letitbeat.fitracker.rest;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.inject.Inject;
+import com.letitbeat.fitracker.AbstractIntegrationTest;
+import com.letitbeat.fitracker.TestClientService;
+import com.letitbeat.fitracker.dto.PageDto;
+import com.letitbeat.fitracker.jpa.domain.Enums;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class PaginationBasicTest extends AbstractIntegrationTest {
+
+	@Inject
+	private TestClientService testClientService;
+
+	@Test
+	public void testPagesOfUser() {
+		final long userId = 61L;
+		final List<Long> ids = new ArrayList<>();
+		// inserted newest first, the pages are ordered by start time
+		for (int day = 5; day >= 1; day--) {
+			ids.add(0, testClientService.createExercise(
+					createExercise(userId, "2017-07-0" + day + "T10:00:00", "Paging")).getId());
+		}
+
+		final PageDto<Exercise> first = testClientService.getExercisePage(userId, null, null, null, 2);
+		assertThat(toIds(first), contains(ids.get(0), ids.get(1)));
+		assertThat(first.getNextCursor(), notNullValue());
+
+		final PageDto<Exercise> second = testClientService.getExercisePage(userId, null, null, first.getNextCursor(), 2);
+		assertThat(toIds(second), contains(ids.get(2), ids.get(3)));
+
+		final PageDto<Exercise> last = testClientService.getExercisePage(userId, null, null, second.getNextCursor(), 2);
+		assertThat(toIds(last), contains(ids.get(4)));
+		assertThat(last.getNextCursor(), nullValue());
+
+		final PageDto<Exercise> filtered = testClientService.getExercisePage(userId, Enums.ExerciseType.RUNNING,
+				"2017-07-03", null, null);
+		assertThat(toIds(filtered), contains(ids.get(2)));
+		assertThat(filtered.getNextCursor(), nullValue());
+	}
+
+	@Test
+	public void testPagesOfDescription() {
+		final Exercise first = testClientService.createExercise(createExercise(62L, "2017-07-01T10:00:00", "Keyset"));
+		final Exercise second = testClientService.createExercise(createExercise(63L, "2017-07-01T10:00:00", "keyset"));
+		final Exercise third = testClientService.createExercise(createExercise(62L, "2017-07-02T10:00:00", "Keyset"));
+
+		final PageDto<Exercise> page = testClientService.getExercisePageByDescription("KEYSET", null, 2);
+		assertThat(toIds(page), contains(first.getId(), second.getId()));
+
+		final PageDto<Exercise> next = testClientService.getExercisePageByDescription("KEYSET", page.getNextCursor(), 2);
+		assertThat(toIds(next), contains(third.getId()));
+		assertThat(next.getNextCursor(), nullValue());
+
+		assertThat(testClientService.getExercisePageByDescription(null, null, null).getItems(), hasSize(0));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMalformedCursor() {
+		testClientService.getExercisePage(61L, null, null, "not a cursor", null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidLimit() {
+		testClientService.getExercisePage(61L, null, null, null, 1001);
+	}
+
+	private List<Long> toIds(final PageDto<Exercise> page) {
+		return page.getItems().stream().map(Exercise::getId).collect(Collectors.toList());
+	}
+
+	private Exercise createExercise(final long userId, final String date, final String description) {
+		final Exercise exercise = new Exercise();
+		exercise.setDescription(description);
+		exercise.setDuration(1800);
+		exercise.setDistance(5000);
+		exercise.setCalories(300);
+		exercise.setStartTime(convertDate(date));
+		exercise.setType(Enums.ExerciseType.RUNNING);
+		exercise.setUserId(userId);
+		return exercise;
+	}
+}
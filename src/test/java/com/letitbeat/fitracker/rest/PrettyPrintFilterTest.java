@@ -0,0 +1,72 @@
+package com.letitbeat.fitracker.rest;
+
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.jaxrs.cfg.ObjectWriterInjector;
+import com.fasterxml.jackson.jaxrs.cfg.ObjectWriterModifier;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import org.junit.Test;
+
+public class PrettyPrintFilterTest {
+
+	private final PrettyPrintFilter filter = new PrettyPrintFilter();
+
+	@Test
+	public void testPrettyPrinterOnlyWhileWritingJson() throws IOException {
+		assertThat(write("true", MediaType.APPLICATION_JSON_TYPE), notNullValue());
+		assertThat(ObjectWriterInjector.get(), nullValue());
+
+		assertThat(write("true", MediaType.valueOf(ExerciseService.APPLICATION_CBOR)), nullValue());
+		assertThat(write(null, MediaType.APPLICATION_JSON_TYPE), nullValue());
+		assertThat(ObjectWriterInjector.get(), nullValue());
+	}
+
+	/**
+	 * Filters a response and writes it.
+	 *
+	 * @return the pretty printer seen by the message body writer
+	 */
+	private ObjectWriterModifier write(final String pretty, final MediaType mediaType) throws IOException {
+		final MultivaluedMap<String, String> queryParameters = new MultivaluedHashMap<>();
+		if (pretty != null) {
+			queryParameters.putSingle(PrettyPrintFilter.PRETTY_PARAMETER, pretty);
+		}
+		final UriInfo uriInfo = mock(UriInfo.class);
+		when(uriInfo.getQueryParameters()).thenReturn(queryParameters);
+
+		final AtomicReference<Object> property = new AtomicReference<>();
+		final ContainerRequestContext requestContext = mock(ContainerRequestContext.class);
+		when(requestContext.getUriInfo()).thenReturn(uriInfo);
+		doAnswer(invocation -> {
+			property.set(invocation.getArguments()[1]);
+			return null;
+		}).when(requestContext).setProperty(anyString(), any());
+		filter.filter(requestContext, mock(ContainerResponseContext.class));
+
+		final AtomicReference<ObjectWriterModifier> seen = new AtomicReference<>();
+		final WriterInterceptorContext writerContext = mock(WriterInterceptorContext.class);
+		when(writerContext.getProperty(anyString())).thenAnswer(invocation -> property.get());
+		when(writerContext.getMediaType()).thenReturn(mediaType);
+		doAnswer(invocation -> {
+			seen.set(ObjectWriterInjector.get());
+			return null;
+		}).when(writerContext).proceed();
+		filter.aroundWriteTo(writerContext);
+		return seen.get();
+	}
+}
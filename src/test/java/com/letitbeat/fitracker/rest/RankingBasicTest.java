@@ -120,4 +120,55 @@ public class RankingBasicTest extends AbstractIntegrationTest {
 		assertThat(ranking.get(1), is(userId2));
 	}
 
+	@Test
+	public void testRankingFollowsUpdateAndDelete() {
+		final long userId1 = 24L;
+		final long userId2 = 25L;
+
+		final Exercise exercise1ToInsert = new Exercise();
+		exercise1ToInsert.setDescription("Task");
+		exercise1ToInsert.setDuration(3600);
+		exercise1ToInsert.setDistance(0);
+		exercise1ToInsert.setCalories(300);
+		exercise1ToInsert.setStartTime(Calendar.getInstance().getTime());
+		exercise1ToInsert.setType(Enums.ExerciseType.OTHER);
+		exercise1ToInsert.setUserId(userId1);
+
+		final Exercise persistedExercise1 = testClientService.createExercise(exercise1ToInsert);
+		assertNotNull(persistedExercise1.getId());
+
+		final Exercise exercise2ToInsert = new Exercise();
+		exercise2ToInsert.setDescription("Task");
+		exercise2ToInsert.setDuration(3600);
+		exercise2ToInsert.setDistance(0);
+		exercise2ToInsert.setCalories(400);
+		exercise2ToInsert.setStartTime(Calendar.getInstance().getTime());
+		exercise2ToInsert.setType(Enums.ExerciseType.OTHER);
+		exercise2ToInsert.setUserId(userId2);
+
+		final Exercise persistedExercise2 = testClientService.createExercise(exercise2ToInsert);
+		assertNotNull(persistedExercise2.getId());
+
+		assertThat(testClientService.getRanking(Arrays.asList(userId1, userId2)),
+				is(Arrays.asList(userId2, userId1)));
+
+		final Exercise exercise1ToUpdate = new Exercise();
+		exercise1ToUpdate.setId(persistedExercise1.getId());
+		exercise1ToUpdate.setDescription("Task");
+		exercise1ToUpdate.setDuration(3600);
+		exercise1ToUpdate.setDistance(0);
+		exercise1ToUpdate.setCalories(900);
+		exercise1ToUpdate.setStartTime(exercise1ToInsert.getStartTime());
+		exercise1ToUpdate.setType(Enums.ExerciseType.OTHER);
+		exercise1ToUpdate.setUserId(userId1);
+		testClientService.updateExercise(exercise1ToUpdate);
+
+		assertThat(testClientService.getRanking(Arrays.asList(userId1, userId2)),
+				is(Arrays.asList(userId1, userId2)));
+
+		testClientService.deleteExercise(persistedExercise1.getId());
+
+		assertThat(testClientService.getRanking(Arrays.asList(userId1, userId2)),
+				is(Arrays.asList(userId2)));
+	}
 }
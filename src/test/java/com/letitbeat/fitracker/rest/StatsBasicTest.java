@@ -7,6 +7,7 @@ import static org.junit.Assert.assertThat;
 import com.google.inject.Inject;
 import com.letitbeat.fitracker.AbstractIntegrationTest;
 import com.letitbeat.fitracker.TestClientService;
+import com.letitbeat.fitracker.jpa.dao.ExerciseRollupDao;
 import com.letitbeat.fitracker.jpa.domain.Enums;
 import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
 import com.letitbeat.fitracker.jpa.domain.Exercise;
@@ -22,6 +23,9 @@ public class StatsBasicTest extends AbstractIntegrationTest {
   @Inject
   private TestClientService testClientService;
 
+  @Inject
+  private ExerciseRollupDao exerciseRollupDao;
+
   @Test
   public void testGetEmptyStats() {
     Map<ExerciseType, Long> stats = testClientService.getStats(1L);
@@ -117,4 +121,60 @@ public class StatsBasicTest extends AbstractIntegrationTest {
     assertThat(statsByUser.get(ExerciseType.CIRCUIT_TRAINING), is(0L));
     assertThat(statsByUser.get(ExerciseType.RUNNING), is(2L));
   }
+
+  @Test
+  public void testStatsFollowUpdateAndDelete() {
+    final long userId = 73L;
+    final DateTime now = new DateTime();
+
+    final Exercise running = testClientService.createExercise(
+        createExercise(userId, ExerciseType.RUNNING, now.minusDays(2).toDate()));
+    final Exercise cycling = testClientService.createExercise(
+        createExercise(userId, ExerciseType.CYCLING, now.minusDays(30).plusHours(1).toDate()));
+    // on the first day of the period, but before its start
+    testClientService.createExercise(
+        createExercise(userId, ExerciseType.CYCLING, now.minusDays(30).minusHours(1).toDate()));
+
+    Map<ExerciseType, Long> statsByUser = testClientService.getStats(userId);
+    assertThat(statsByUser.get(ExerciseType.RUNNING), is(1L));
+    assertThat(statsByUser.get(ExerciseType.CYCLING), is(1L));
+
+    running.setStartTime(now.minusDays(40).toDate());
+    testClientService.updateExercise(running);
+    testClientService.deleteExercise(cycling.getId());
+
+    statsByUser = testClientService.getStats(userId);
+    assertThat(statsByUser.get(ExerciseType.RUNNING), is(0L));
+    assertThat(statsByUser.get(ExerciseType.CYCLING), is(0L));
+  }
+
+  @Test
+  public void testRebuildRollup() {
+    final long userId = 74L;
+    final DateTime now = new DateTime();
+
+    for (int i = 0; i < 5; i++) {
+      testClientService.createExercise(createExercise(userId,
+          i % 2 == 0 ? ExerciseType.SWIMMING : ExerciseType.ROWING, now.minusDays(i * 7).toDate()));
+    }
+    final Map<ExerciseType, Long> statsByUser = testClientService.getStats(userId);
+    assertThat(statsByUser.get(ExerciseType.SWIMMING), is(3L));
+    assertThat(statsByUser.get(ExerciseType.ROWING), is(2L));
+
+    exerciseRollupDao.rebuild();
+
+    assertThat(testClientService.getStats(userId), is(statsByUser));
+  }
+
+  private Exercise createExercise(final long userId, final ExerciseType type, final Date startTime) {
+    final Exercise exercise = new Exercise();
+    exercise.setDescription("Rollup");
+    exercise.setDuration(600);
+    exercise.setDistance(1000);
+    exercise.setCalories(100);
+    exercise.setStartTime(startTime);
+    exercise.setType(type);
+    exercise.setUserId(userId);
+    return exercise;
+  }
 }
@@ -0,0 +1,27 @@
+package com.letitbeat.fitracker.rest;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import org.junit.Test;
+
+public class SwaggerSpecCommandTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	public void testSpecMatchesResources() throws IOException {
+		final JsonNode built = objectMapper.readTree(SwaggerSpecCommand.build());
+
+		// fails after changing a resource without running ./gradlew exportSwaggerSpec
+		try (InputStream input = getClass().getClassLoader().getResourceAsStream(SwaggerSpecServlet.RESOURCE)) {
+			assertThat(objectMapper.readTree(input), is(built));
+		}
+		assertThat(built.path("paths").has("/api/v1/exercise/leaderboard"), is(true));
+		assertThat(built.path("basePath").asText(), is("/rest"));
+	}
+}
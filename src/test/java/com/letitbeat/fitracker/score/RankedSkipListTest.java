@@ -0,0 +1,67 @@
+package com.letitbeat.fitracker.score;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class RankedSkipListTest {
+
+	private static final Comparator<RankedSkipList.Entry> RANK_ORDER = Comparator
+			.comparingDouble(RankedSkipList.Entry::getScore).reversed()
+			.thenComparingLong(RankedSkipList.Entry::getUserId);
+
+	@Test
+	public void testMatchesSortedList() {
+		final Random random = new Random(7);
+		final RankedSkipList skipList = new RankedSkipList();
+		final List<RankedSkipList.Entry> expected = new ArrayList<>();
+
+		for (int i = 0; i < 5000; i++) {
+			if (!expected.isEmpty() && random.nextInt(3) == 0) {
+				final RankedSkipList.Entry removed = expected.remove(random.nextInt(expected.size()));
+				assertThat(skipList.remove(removed.getScore(), removed.getUserId()), is(true));
+			} else {
+				// few distinct scores so equal scores are ordered by user id
+				final RankedSkipList.Entry entry = new RankedSkipList.Entry(i, random.nextInt(50));
+				expected.add(entry);
+				skipList.insert(entry.getScore(), entry.getUserId());
+			}
+		}
+		expected.sort(RANK_ORDER);
+
+		assertThat(skipList.size(), is(expected.size()));
+		for (int i = 0; i < expected.size(); i += 37) {
+			final RankedSkipList.Entry entry = expected.get(i);
+			assertThat(skipList.rank(entry.getScore(), entry.getUserId()), is(i));
+
+			final List<RankedSkipList.Entry> page = skipList.range(i, 5);
+			for (int j = 0; j < page.size(); j++) {
+				assertThat(page.get(j).getUserId(), is(expected.get(i + j).getUserId()));
+			}
+		}
+		assertThat(skipList.remove(-1, 1), is(false));
+		assertThat(skipList.rank(-1, 1), is(-1));
+		assertThat(skipList.range(expected.size(), 5).size(), is(0));
+	}
+
+	@Test
+	public void testClear() {
+		final RankedSkipList skipList = new RankedSkipList();
+		for (int i = 0; i < 100; i++) {
+			skipList.insert(i, i);
+		}
+		skipList.clear();
+		assertThat(skipList.size(), is(0));
+		assertThat(skipList.rank(50, 50), is(-1));
+
+		skipList.insert(2, 1);
+		skipList.insert(1, 2);
+		assertThat(skipList.rank(1, 2), is(1));
+		assertThat(skipList.range(0, 5).size(), is(2));
+	}
+}
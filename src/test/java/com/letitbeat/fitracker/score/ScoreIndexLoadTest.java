@@ -0,0 +1,99 @@
+package com.letitbeat.fitracker.score;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.inject.Inject;
+import com.google.inject.persist.UnitOfWork;
+import com.letitbeat.fitracker.AbstractIntegrationTest;
+import com.letitbeat.fitracker.jpa.dao.ExerciseDao;
+import com.letitbeat.fitracker.jpa.domain.Enums.ExerciseType;
+import com.letitbeat.fitracker.jpa.domain.Exercise;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class ScoreIndexLoadTest extends AbstractIntegrationTest {
+
+	private static final long FIRST_USER_ID = 3000L;
+
+	private static final int USER_COUNT = 2500;
+
+	@Inject
+	private ExerciseDao exerciseDao;
+
+	@Inject
+	private UnitOfWork unitOfWork;
+
+	@Test
+	public void testParallelLoadMatchesSingleQuery() {
+		final Random random = new Random(17);
+		final long now = System.currentTimeMillis();
+		final List<Exercise> exercises = new ArrayList<>();
+		final List<Long> userIds = new ArrayList<>();
+		for (long userId = FIRST_USER_ID; userId < FIRST_USER_ID + USER_COUNT; userId++) {
+			userIds.add(userId);
+			for (int i = 1; i <= 3; i++) {
+				final Exercise exercise = new Exercise();
+				exercise.setUserId(userId);
+				exercise.setDescription("Load test");
+				exercise.setType(ExerciseType.values()[random.nextInt(ExerciseType.values().length)]);
+				exercise.setStartTime(new Date(now - TimeUnit.DAYS.toMillis(i * 5)));
+				exercise.setDuration(600 + random.nextInt(3000));
+				exercise.setCalories(random.nextInt(700));
+				exercises.add(exercise);
+			}
+		}
+		exerciseDao.createAll(exercises);
+
+		// more users than fit into one partition, so the load is split up
+		final ScoreIndex singleQueryIndex = new ScoreIndex(exerciseDao, new Leaderboard(), unitOfWork, 1);
+		final ScoreIndex parallelIndex = new ScoreIndex(exerciseDao, new Leaderboard(), unitOfWork, 4);
+		try {
+			assertThat(parallelIndex.getScores(userIds), is(singleQueryIndex.getScores(userIds)));
+			assertThat(parallelIndex.getLeaderboard().size(), greaterThan(USER_COUNT - 10));
+		} finally {
+			singleQueryIndex.stop();
+			parallelIndex.stop();
+		}
+	}
+
+	@Test
+	public void testInvalidateEmptiesLeaderboardAndKeepsExpiryThread() {
+		final Exercise exercise = new Exercise();
+		exercise.setUserId(FIRST_USER_ID + USER_COUNT);
+		exercise.setDescription("Invalidate");
+		exercise.setType(ExerciseType.RUNNING);
+		exercise.setStartTime(new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1)));
+		exercise.setDuration(600);
+		exercise.setCalories(100);
+		final Long exerciseId = exerciseDao.create(exercise).getId();
+
+		final ScoreIndex scoreIndex = new ScoreIndex(exerciseDao, new Leaderboard(), unitOfWork, 1);
+		try {
+			assertThat(scoreIndex.getLeaderboard().getPosition(exercise.getUserId()), notNullValue());
+			final long expiryThreads = countExpiryThreads();
+
+			// deleted without passing it to the index, like a bulk load writes
+			exerciseDao.deleteById(exerciseId);
+			scoreIndex.invalidate();
+			assertThat(scoreIndex.getLeaderboard().getPosition(exercise.getUserId()), nullValue());
+			assertThat(countExpiryThreads(), is(expiryThreads));
+		} finally {
+			scoreIndex.stop();
+		}
+	}
+
+	private static long countExpiryThreads() {
+		return Thread.getAllStackTraces().keySet().stream()
+				.filter(thread -> thread.getName().equals("score-index-expiry"))
+				.count();
+	}
+}